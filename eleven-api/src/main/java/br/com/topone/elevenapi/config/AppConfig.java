@@ -1,15 +1,28 @@
 package br.com.topone.elevenapi.config;
 
+import br.com.topone.elevenapi.service.PasswordHashingService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
 public class AppConfig {
-    
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+
+    @Value("${security.password.bcrypt-strength}")
+    private Integer bcryptStrength;
+
+    @Value("${security.password.max-concurrency}")
+    private Integer maxConcurrency;
+
+    @Value("${security.password.queue-depth}")
+    private Integer queueDepth;
+
+    @Bean(destroyMethod = "shutdown")
+    public PasswordHashingService passwordEncoder(MeterRegistry meterRegistry) {
+        int concurrency = maxConcurrency > 0 ? maxConcurrency : Runtime.getRuntime().availableProcessors();
+        return new PasswordHashingService(new BCryptPasswordEncoder(bcryptStrength), concurrency, queueDepth,
+                meterRegistry);
     }
 }
@@ -2,34 +2,38 @@ package br.com.topone.elevenapi.config;
 
 import br.com.topone.elevenapi.config.customgrant.CustomPasswordAuthenticationConverter;
 import br.com.topone.elevenapi.config.customgrant.CustomPasswordAuthenticationProvider;
-import br.com.topone.elevenapi.config.customgrant.CustomUserAuthorities;
-import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.RSAKey;
+import br.com.topone.elevenapi.config.authorization.BoundedInMemoryAuthorizationService;
+import br.com.topone.elevenapi.config.authorization.ExpiringJdbcAuthorizationService;
+import br.com.topone.elevenapi.config.customgrant.CustomTokenErrorResponseHandler;
+import br.com.topone.elevenapi.config.customgrant.UnavailableAwareClientAuthenticationProvider;
+import br.com.topone.elevenapi.config.jwt.CachingJwtDecoder;
+import br.com.topone.elevenapi.config.ratelimit.LoginRateLimitFilter;
+import br.com.topone.elevenapi.config.ratelimit.LoginRateLimiter;
 import com.nimbusds.jose.jwk.source.JWKSource;
+import io.micrometer.core.instrument.MeterRegistry;
 import com.nimbusds.jose.proc.SecurityContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.core.AuthorizationGrantType;
 import org.springframework.security.oauth2.core.OAuth2Token;
-import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.security.oauth2.server.authorization.InMemoryOAuth2AuthorizationConsentService;
-import org.springframework.security.oauth2.server.authorization.InMemoryOAuth2AuthorizationService;
 import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationConsentService;
 import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
-import org.springframework.security.oauth2.server.authorization.authentication.OAuth2ClientAuthenticationToken;
 import org.springframework.security.oauth2.server.authorization.client.InMemoryRegisteredClientRepository;
 import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
 import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
-import org.springframework.security.oauth2.server.authorization.config.annotation.web.configuration.OAuth2AuthorizationServerConfiguration;
 import org.springframework.security.oauth2.server.authorization.config.annotation.web.configurers.OAuth2AuthorizationServerConfigurer;
 import org.springframework.security.oauth2.server.authorization.settings.AuthorizationServerSettings;
 import org.springframework.security.oauth2.server.authorization.settings.ClientSettings;
@@ -37,14 +41,12 @@ import org.springframework.security.oauth2.server.authorization.settings.OAuth2T
 import org.springframework.security.oauth2.server.authorization.settings.TokenSettings;
 import org.springframework.security.oauth2.server.authorization.token.*;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.csrf.CsrfFilter;
 
-import java.security.KeyPair;
-import java.security.KeyPairGenerator;
-import java.security.interfaces.RSAPrivateKey;
-import java.security.interfaces.RSAPublicKey;
 import java.time.Duration;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Configuration
 public class AuthorizationServerConfig {
@@ -61,12 +63,39 @@ public class AuthorizationServerConfig {
     @Value("${security.jwt.duration-refresh}")
     private Integer jwtDurationRefreshSeconds;
 
+    @Value("${security.jwt.decoder-cache.max-size}")
+    private Long jwtDecoderCacheMaxSize;
+
+    @Value("${security.authorization-store.type}")
+    private String authorizationStoreType;
+
+    @Value("${security.authorization-store.max-size}")
+    private Integer authorizationStoreMaxSize;
+
+    @Value("${security.authorization-store.sweep-chunk-size}")
+    private Integer authorizationStoreSweepChunkSize;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SigningKeyManager signingKeyManager;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private UserDetailsPasswordService userDetailsPasswordService;
+
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Bean
     @Order(2)
     public SecurityFilterChain asSecurityFilterChain(HttpSecurity http) throws Exception {
@@ -78,6 +107,8 @@ public class AuthorizationServerConfig {
                 .securityMatcher("/oauth2/**")
                 .authorizeHttpRequests(auth -> auth.anyRequest().authenticated())
                 .csrf(csrf -> csrf.ignoringRequestMatchers("/oauth2/**"))
+                // Antes da autenticação do client e do usuário, para não gastar BCrypt com tentativas recusadas
+                .addFilterBefore(new LoginRateLimitFilter(loginRateLimiter), CsrfFilter.class)
                 .with(authorizationServerConfigurer, Customizer.withDefaults());
 
         // Configura o Token Endpoint com um conversor e provedor personalizados
@@ -85,7 +116,14 @@ public class AuthorizationServerConfig {
                 .tokenEndpoint(tokenEndpoint -> tokenEndpoint
                         .accessTokenRequestConverter(new CustomPasswordAuthenticationConverter())
                         .authenticationProvider(new CustomPasswordAuthenticationProvider(
-                                authorizationService(), tokenGenerator(), userDetailsService, passwordEncoder))
+                                authorizationService(), tokenGenerator(), userDetailsService, passwordEncoder,
+                                userDetailsPasswordService, meterRegistry))
+                        .errorResponseHandler(new CustomTokenErrorResponseHandler())
+                )
+                // O client secret também usa o pool do BCrypt; saturado, responde 503 e não 401
+                .clientAuthentication(clientAuthentication -> clientAuthentication
+                        .authenticationProviders(providers -> providers.replaceAll(UnavailableAwareClientAuthenticationProvider::new))
+                        .errorResponseHandler(CustomTokenErrorResponseHandler.forClientAuthentication())
                 );
 
         // Configura o Resource Server para usar JWT
@@ -98,7 +136,11 @@ public class AuthorizationServerConfig {
 
     @Bean
     public OAuth2AuthorizationService authorizationService() {
-        return new InMemoryOAuth2AuthorizationService();
+        if ("jdbc".equalsIgnoreCase(authorizationStoreType)) {
+            return new ExpiringJdbcAuthorizationService(jdbcTemplate, registeredClientRepository(),
+                    authorizationStoreSweepChunkSize);
+        }
+        return new BoundedInMemoryAuthorizationService(authorizationStoreMaxSize);
     }
 
     @Bean
@@ -109,8 +151,9 @@ public class AuthorizationServerConfig {
     @Bean
     public RegisteredClientRepository registeredClientRepository() {
         // @formatter:off
+		// ID fixo: autorizações persistidas precisam encontrar o client após restart e em outras instâncias
 		RegisteredClient registeredClient = RegisteredClient
-			.withId(UUID.randomUUID().toString())
+			.withId(clientId)
 			.clientId(clientId)
 			.clientSecret(passwordEncoder.encode(clientSecret))
 			.scope("read")
@@ -148,7 +191,7 @@ public class AuthorizationServerConfig {
 
     @Bean
     public OAuth2TokenGenerator<? extends OAuth2Token> tokenGenerator() {
-        NimbusJwtEncoder jwtEncoder = new NimbusJwtEncoder(jwkSource());
+        NimbusJwtEncoder jwtEncoder = new NimbusJwtEncoder(signingKeyManager.signingJwkSource());
         JwtGenerator jwtGenerator = new JwtGenerator(jwtEncoder);
         jwtGenerator.setJwtCustomizer(tokenCustomizer());
         OAuth2AccessTokenGenerator accessTokenGenerator = new OAuth2AccessTokenGenerator();
@@ -159,47 +202,34 @@ public class AuthorizationServerConfig {
     @Bean
     public OAuth2TokenCustomizer<JwtEncodingContext> tokenCustomizer() {
         return context -> {
-            OAuth2ClientAuthenticationToken principal = context.getPrincipal();
-            CustomUserAuthorities user = (CustomUserAuthorities) principal.getDetails();
-            List<String> authorities = user.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
-            if (context.getTokenType().getValue().equals("access_token")) {
-                // @formatter:off
-				context.getClaims()
-					.claim("authorities", authorities)
-					.claim("username", user.getUsername());
-				// @formatter:on
+            // sub é o client id (principal da autorização); o usuário fica num atributo da autorização
+            Authentication user = context.getAuthorization() == null ? null
+                    : context.getAuthorization().getAttribute(CustomPasswordAuthenticationProvider.USER_ATTRIBUTE);
+            if (user == null || !context.getTokenType().getValue().equals("access_token")) {
+                return;
+            }
+            // ArrayList: as claims ficam nos metadados da autorização e precisam ser desserializáveis no store JDBC
+            List<String> authorities = user.getAuthorities().stream().map(GrantedAuthority::getAuthority)
+                    .collect(Collectors.toList());
+            // @formatter:off
+			context.getClaims()
+				.claim("authorities", authorities)
+				.claim("username", user.getName());
+			// @formatter:on
+            if (user.getDetails() instanceof Map<?, ?> details
+                    && details.get(CustomPasswordAuthenticationProvider.USER_ID_DETAIL) instanceof String userId) {
+                context.getClaims().claim("user_id", userId);
             }
         };
     }
 
     @Bean
-    public JwtDecoder jwtDecoder(JWKSource<SecurityContext> jwkSource) {
-        return OAuth2AuthorizationServerConfiguration.jwtDecoder(jwkSource);
+    public CachingJwtDecoder jwtDecoder() {
+        return new CachingJwtDecoder(signingKeyManager.jwtDecoder(), jwtDecoderCacheMaxSize);
     }
 
     @Bean
     public JWKSource<SecurityContext> jwkSource() {
-        RSAKey rsaKey = generateRsa();
-        JWKSet jwkSet = new JWKSet(rsaKey);
-        return (jwkSelector, securityContext) -> jwkSelector.select(jwkSet);
-    }
-
-    private static RSAKey generateRsa() {
-        KeyPair keyPair = generateRsaKey();
-        RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
-        RSAPrivateKey privateKey = (RSAPrivateKey) keyPair.getPrivate();
-        return new RSAKey.Builder(publicKey).privateKey(privateKey).keyID(UUID.randomUUID().toString()).build();
-    }
-
-    private static KeyPair generateRsaKey() {
-        KeyPair keyPair;
-        try {
-            KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
-            keyPairGenerator.initialize(2048);
-            keyPair = keyPairGenerator.generateKeyPair();
-        } catch (Exception ex) {
-            throw new IllegalStateException(ex);
-        }
-        return keyPair;
+        return signingKeyManager.publicJwkSource();
     }
 }
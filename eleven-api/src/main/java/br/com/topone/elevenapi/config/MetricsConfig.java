@@ -0,0 +1,147 @@
+package br.com.topone.elevenapi.config;
+
+import br.com.topone.elevenapi.config.jwt.CachingJwtDecoder;
+import br.com.topone.elevenapi.config.ratelimit.LoginRateLimiter;
+import br.com.topone.elevenapi.config.ratelimit.TokenBucketRateLimiter;
+import br.com.topone.elevenapi.service.PasswordHashingService;
+import br.com.topone.elevenapi.service.SmtpTransportPool;
+import br.com.topone.elevenapi.service.usuario.EmailIndex;
+import br.com.topone.elevenapi.service.usuario.UserDetailsCache;
+import br.com.topone.elevenapi.service.validation.EmailDomainResolver;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publica no Micrometer os contadores que os componentes já mantêm ({@code stats()}): limitador de login,
+ * cache do JwtDecoder, pool do BCrypt, consultas MX, pool SMTP, índice de emails e cache de usuários.
+ * Os valores são lidos na hora da coleta; nada é duplicado nos componentes.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder loginRateLimiterMetrics(LoginRateLimiter rateLimiter) {
+        return registry -> {
+            bindRateLimiter(registry, rateLimiter, "username", LoginRateLimiter::usernameStats);
+            bindRateLimiter(registry, rateLimiter, "ip", LoginRateLimiter::ipStats);
+        };
+    }
+
+    @Bean
+    public MeterBinder jwtDecoderMetrics(CachingJwtDecoder jwtDecoder) {
+        return registry -> {
+            Gauge.builder("cache.size", jwtDecoder, decoder -> decoder.stats().size())
+                    .tag("cache", "jwt-decoder")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", jwtDecoder, decoder -> decoder.stats().hits())
+                    .tags("cache", "jwt-decoder", "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", jwtDecoder, decoder -> decoder.stats().misses())
+                    .tags("cache", "jwt-decoder", "result", "miss")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder userDetailsCacheMetrics(UserDetailsCache cache) {
+        return registry -> {
+            Gauge.builder("cache.size", cache, UserDetailsCache::size)
+                    .tag("cache", "user-details")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", cache, c -> c.stats().hitCount())
+                    .tags("cache", "user-details", "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", cache, c -> c.stats().missCount())
+                    .tags("cache", "user-details", "result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("cache.evictions", cache, c -> c.stats().evictionCount())
+                    .tag("cache", "user-details")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder passwordHashingMetrics(PasswordHashingService passwordHashingService) {
+        return registry -> {
+            Gauge.builder("security.password.hash.active", passwordHashingService, service -> service.stats().active())
+                    .description("Hashes BCrypt em execução")
+                    .register(registry);
+            Gauge.builder("security.password.hash.queued", passwordHashingService, service -> service.stats().queued())
+                    .description("Hashes BCrypt aguardando uma thread do pool")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder emailDomainMetrics(EmailDomainResolver resolver) {
+        return registry -> {
+            Gauge.builder("cache.size", resolver, r -> r.stats().cachedDomains())
+                    .tag("cache", "email-domains")
+                    .register(registry);
+            FunctionCounter.builder("email.domain.lookup.coalesced", resolver, r -> r.stats().coalesced())
+                    .description("Validações que aguardaram uma consulta MX já em andamento")
+                    .register(registry);
+            FunctionCounter.builder("email.domain.lookup.timeouts", resolver, r -> r.stats().timeouts())
+                    .description("Validações que desistiram de esperar a consulta MX")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder smtpPoolMetrics(SmtpTransportPool pool) {
+        return registry -> {
+            Gauge.builder("email.smtp.pool.idle", pool, p -> p.stats().idle())
+                    .register(registry);
+            Gauge.builder("email.smtp.pool.available", pool, p -> p.stats().availablePermits())
+                    .description("Conexões que ainda podem ser emprestadas")
+                    .register(registry);
+            FunctionCounter.builder("email.smtp.pool.connections.opened", pool, p -> p.stats().connectionsOpened())
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder emailIndexMetrics(EmailIndex emailIndex) {
+        return registry -> {
+            Gauge.builder("users.email.index.emails", emailIndex, index -> index.stats().emails())
+                    .register(registry);
+            Gauge.builder("users.email.index.false.positive.rate", emailIndex, index -> index.stats().falsePositiveRate())
+                    .description("Taxa de falso positivo esperada do filtro com o volume atual")
+                    .register(registry);
+            bindEmailIndexChecks(registry, emailIndex, "skipped", stats -> stats.skipped());
+            bindEmailIndexChecks(registry, emailIndex, "found", stats -> stats.queried() - stats.falsePositives());
+            bindEmailIndexChecks(registry, emailIndex, "false_positive", stats -> stats.falsePositives());
+        };
+    }
+
+    // Os medidores guardam só referência fraca ao objeto observado: precisa ser o bean, não um lambda
+    private static void bindRateLimiter(MeterRegistry registry, LoginRateLimiter rateLimiter, String key,
+                                        Function<LoginRateLimiter, TokenBucketRateLimiter.RateLimiterStats> stats) {
+        Gauge.builder("security.login.rate.limit.keys", rateLimiter, r -> stats.apply(r).keys())
+                .tag("key", key)
+                .register(registry);
+        FunctionCounter.builder("security.login.rate.limit.requests", rateLimiter, r -> stats.apply(r).allowed())
+                .tags("key", key, "outcome", "allowed")
+                .register(registry);
+        FunctionCounter.builder("security.login.rate.limit.requests", rateLimiter, r -> stats.apply(r).rejected())
+                .tags("key", key, "outcome", "rejected")
+                .register(registry);
+        FunctionCounter.builder("security.login.rate.limit.evictions", rateLimiter, r -> stats.apply(r).evicted())
+                .tag("key", key)
+                .register(registry);
+    }
+
+    private static void bindEmailIndexChecks(MeterRegistry registry, EmailIndex emailIndex, String result,
+                                             ToDoubleFunction<EmailIndex.EmailIndexStats> value) {
+        FunctionCounter.builder("users.email.index.checks", emailIndex, index -> value.applyAsDouble(index.stats()))
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -1,18 +1,29 @@
 package br.com.topone.elevenapi.config;
 
+import br.com.topone.elevenapi.config.jwt.CachingJwtAuthoritiesConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.web.SecurityFilterChain;
@@ -28,9 +39,20 @@ import java.util.Arrays;
 @EnableMethodSecurity
 public class ResourceServerConfig {
 
+	private static final Logger logger = LoggerFactory.getLogger(ResourceServerConfig.class);
+
 	@Value("${cors.origins}")
 	private String corsOrigins;
 
+	@Value("${security.jwt.decoder-cache.max-size}")
+	private Long jwtDecoderCacheMaxSize;
+
+	@Value("${security.metrics.username}")
+	private String metricsUsername;
+
+	@Value("${security.metrics.password}")
+	private String metricsPassword;
+
 	@Bean
 	@Profile("test")
 	@Order(1)
@@ -41,6 +63,39 @@ public class ResourceServerConfig {
 		return http.build();
 	}
 
+	/**
+	 * Actuator com autenticação própria (HTTP Basic) e separada dos usuários da aplicação: o health é público
+	 * e o scrape do Prometheus exige o usuário de {@code security.metrics}. Sem senha configurada, só o health.
+	 */
+	@Bean
+	@Order(0)
+	public SecurityFilterChain actuatorSecurityFilterChain(HttpSecurity http) throws Exception {
+
+		// Gerenciador próprio, fora do contexto: não substitui o UserDetailsService da aplicação
+		InMemoryUserDetailsManager metricsUsers = new InMemoryUserDetailsManager();
+		BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+		if (metricsPassword.isBlank()) {
+			logger.warn("security.metrics.password não configurada: /actuator/prometheus ficará bloqueado");
+		} else {
+			metricsUsers.createUser(User.withUsername(metricsUsername)
+					.password(passwordEncoder.encode(metricsPassword))
+					.roles("METRICS")
+					.build());
+		}
+		DaoAuthenticationProvider provider = new DaoAuthenticationProvider(passwordEncoder);
+		provider.setUserDetailsService(metricsUsers);
+
+		http.securityMatcher(EndpointRequest.toAnyEndpoint())
+				.csrf(AbstractHttpConfigurer::disable)
+				.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+				.authenticationManager(new ProviderManager(provider))
+				.authorizeHttpRequests(authorize -> authorize
+						.requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+						.anyRequest().hasRole("METRICS"))
+				.httpBasic(Customizer.withDefaults());
+		return http.build();
+	}
+
 	@Bean
 	@Order(3)
 	public SecurityFilterChain rsSecurityFilterChain(HttpSecurity http) throws Exception {
@@ -71,7 +126,9 @@ public class ResourceServerConfig {
 		grantedAuthoritiesConverter.setAuthorityPrefix("");
 
 		JwtAuthenticationConverter jwtAuthenticationConverter = new JwtAuthenticationConverter();
-		jwtAuthenticationConverter.setJwtGrantedAuthoritiesConverter(grantedAuthoritiesConverter);
+		// Reaproveita as authorities dos Jwt que o CachingJwtDecoder devolve do cache
+		jwtAuthenticationConverter.setJwtGrantedAuthoritiesConverter(
+				new CachingJwtAuthoritiesConverter(grantedAuthoritiesConverter, jwtDecoderCacheMaxSize));
 		return jwtAuthenticationConverter;
 	}
 
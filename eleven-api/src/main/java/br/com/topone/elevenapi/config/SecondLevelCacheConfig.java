@@ -0,0 +1,68 @@
+package br.com.topone.elevenapi.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache de segundo nível do Hibernate (JCache sobre Caffeine), com tamanho e TTL por região
+ * em {@code hibernate-cache.regions}. As regiões usadas nas entidades precisam estar configuradas:
+ * uma região ausente impede a inicialização.
+ */
+@Configuration
+@EnableConfigurationProperties(SecondLevelCacheConfig.CacheProperties.class)
+public class SecondLevelCacheConfig {
+
+    @ConfigurationProperties("hibernate-cache")
+    public record CacheProperties(boolean enabled, Map<String, Region> regions) {
+    }
+
+    // ttlSeconds = 0 mantém a entrada até ser removida por tamanho ou por escrita
+    public record Region(long maxSize, long ttlSeconds) {
+    }
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(CacheProperties properties) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // URI própria por contexto: o gerenciador padrão é compartilhado na JVM (ex.: vários contextos de teste)
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create(STR."hibernate-l2:\{UUID.randomUUID()}"), getClass().getClassLoader());
+
+        properties.regions().forEach((name, region) -> {
+            var configuration = new CaffeineConfiguration<Object, Object>();
+            configuration.setMaximumSize(OptionalLong.of(region.maxSize()));
+            if (region.ttlSeconds() > 0) {
+                configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(region.ttlSeconds())));
+            }
+            cacheManager.createCache(name, configuration);
+        });
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheProperties properties,
+                                                                   CacheManager hibernateCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put("hibernate.cache.use_second_level_cache", properties.enabled());
+            hibernateProperties.put("hibernate.cache.use_query_cache", properties.enabled());
+            hibernateProperties.put("hibernate.cache.region.factory_class", "jcache");
+            hibernateProperties.put("hibernate.javax.cache.cache_manager", hibernateCacheManager);
+            hibernateProperties.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+            // Necessário para /cache-stats
+            hibernateProperties.put("hibernate.generate_statistics", true);
+        };
+    }
+}
@@ -0,0 +1,182 @@
+package br.com.topone.elevenapi.config;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateCrtKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Carrega as chaves RSA de assinatura de um diretório de arquivos PEM ({@code security.jwt.keys-dir}).
+ * <p>
+ * Cada arquivo {@code <kid>.pem} é uma chave privada PKCS#8 ({@code openssl genpkey -algorithm RSA})
+ * ou apenas a chave pública (X.509) de uma chave aposentada. Todas as chaves são publicadas no JWKSet
+ * para verificação durante o período de rotação; somente a chave ativa ({@code security.jwt.active-key-id},
+ * ou a última privada em ordem alfabética) assina novos tokens.
+ * Sem diretório configurado é gerada uma chave temporária, como antes.
+ */
+@Component
+public class SigningKeyManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(SigningKeyManager.class);
+
+    private final RSAKey activeKey;
+    private final JWKSet publicJwkSet;
+    private final Map<String, List<Key>> verificationKeysById;
+    private final List<Key> verificationKeys;
+
+    public SigningKeyManager(@Value("${security.jwt.keys-dir}") String keysDir,
+                             @Value("${security.jwt.active-key-id}") String activeKeyId) {
+        List<RSAKey> keys = StringUtils.hasText(keysDir) ? loadKeys(Path.of(keysDir)) : List.of();
+        if (keys.isEmpty()) {
+            logger.warn("Nenhuma chave em security.jwt.keys-dir; usando chave RSA temporária (tokens não sobrevivem a restart)");
+            keys = List.of(generateRsa());
+        }
+
+        this.activeKey = selectActiveKey(keys, activeKeyId);
+        this.publicJwkSet = new JWKSet(keys.stream().map(key -> (JWK) key.toPublicJWK()).toList());
+
+        Map<String, List<Key>> byId = new LinkedHashMap<>();
+        List<Key> all = new ArrayList<>();
+        for (RSAKey key : keys) {
+            Key publicKey = toPublicKey(key);
+            byId.put(key.getKeyID(), List.of(publicKey));
+            all.add(publicKey);
+        }
+        this.verificationKeysById = Map.copyOf(byId);
+        this.verificationKeys = List.copyOf(all);
+        logger.info("Chaves JWT carregadas: {} (ativa: {})", byId.keySet(), activeKey.getKeyID());
+    }
+
+    // Apenas a chave ativa, com a parte privada, para o NimbusJwtEncoder
+    public JWKSource<SecurityContext> signingJwkSource() {
+        return new ImmutableJWKSet<>(new JWKSet(activeKey));
+    }
+
+    // Todas as chaves públicas, publicadas em /oauth2/jwks
+    public JWKSource<SecurityContext> publicJwkSource() {
+        return new ImmutableJWKSet<>(publicJwkSet);
+    }
+
+    // Seletor com as chaves já convertidas, evitando reprocessar o JWKSet a cada verificação
+    public JWSKeySelector<SecurityContext> verificationKeySelector() {
+        return (header, context) -> {
+            if (!JWSAlgorithm.RS256.equals(header.getAlgorithm())) {
+                return List.of();
+            }
+            if (header.getKeyID() == null) {
+                return verificationKeys;
+            }
+            return verificationKeysById.getOrDefault(header.getKeyID(), List.of());
+        };
+    }
+
+    // Decoder usado pela aplicação e pelo JwtBenchmark
+    public NimbusJwtDecoder jwtDecoder() {
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(verificationKeySelector());
+        // As claims (exp, nbf) são validadas pelo próprio NimbusJwtDecoder
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        return new NimbusJwtDecoder(jwtProcessor);
+    }
+
+    private static RSAKey selectActiveKey(List<RSAKey> keys, String activeKeyId) {
+        List<RSAKey> signingKeys = keys.stream().filter(RSAKey::isPrivate).toList();
+        if (signingKeys.isEmpty()) {
+            throw new IllegalStateException("Nenhuma chave privada disponível para assinar tokens");
+        }
+        if (!StringUtils.hasText(activeKeyId)) {
+            return signingKeys.getLast();
+        }
+        return signingKeys.stream()
+                .filter(key -> key.getKeyID().equals(activeKeyId))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Chave ativa não encontrada: " + activeKeyId));
+    }
+
+    private static List<RSAKey> loadKeys(Path dir) {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".pem"))
+                    .sorted()
+                    .map(SigningKeyManager::readKey)
+                    .toList();
+        } catch (IOException e) {
+            throw new IllegalStateException("Não foi possível ler as chaves em " + dir, e);
+        }
+    }
+
+    private static RSAKey readKey(Path file) {
+        String fileName = file.getFileName().toString();
+        String keyId = fileName.substring(0, fileName.length() - ".pem".length());
+        try {
+            String pem = Files.readString(file, StandardCharsets.US_ASCII);
+            byte[] der = Base64.getMimeDecoder().decode(pem.replaceAll("-----[A-Z ]+-----", ""));
+            KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+
+            if (pem.contains("BEGIN PUBLIC KEY")) {
+                var publicKey = (RSAPublicKey) keyFactory.generatePublic(new X509EncodedKeySpec(der));
+                return new RSAKey.Builder(publicKey).keyID(keyId).build();
+            }
+
+            var privateKey = (RSAPrivateCrtKey) keyFactory.generatePrivate(new PKCS8EncodedKeySpec(der));
+            var publicKey = (RSAPublicKey) keyFactory.generatePublic(
+                    new RSAPublicKeySpec(privateKey.getModulus(), privateKey.getPublicExponent()));
+            return new RSAKey.Builder(publicKey).privateKey(privateKey).keyID(keyId).build();
+        } catch (Exception e) {
+            throw new IllegalStateException("Chave inválida: " + file, e);
+        }
+    }
+
+    private static Key toPublicKey(RSAKey key) {
+        try {
+            return key.toRSAPublicKey();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static RSAKey generateRsa() {
+        try {
+            KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+            keyPairGenerator.initialize(2048);
+            var keyPair = keyPairGenerator.generateKeyPair();
+            return new RSAKey.Builder((RSAPublicKey) keyPair.getPublic())
+                    .privateKey(keyPair.getPrivate())
+                    .keyID(UUID.randomUUID().toString())
+                    .build();
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
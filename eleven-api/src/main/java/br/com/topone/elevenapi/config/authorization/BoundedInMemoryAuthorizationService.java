@@ -0,0 +1,165 @@
+package br.com.topone.elevenapi.config.authorization;
+
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.core.AbstractOAuth2Token;
+import org.springframework.security.oauth2.core.endpoint.OAuth2ParameterNames;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationCode;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.util.Assert;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Armazena as autorizações em memória com limite rígido de tamanho: ao ultrapassar
+ * {@code maxAuthorizations} as mais antigas são descartadas. Os tokens são indexados
+ * por valor, e uma varredura periódica remove as autorizações já expiradas.
+ */
+public class BoundedInMemoryAuthorizationService implements OAuth2AuthorizationService {
+
+	private final int maxAuthorizations;
+	private final Map<String, OAuth2Authorization> authorizations = new ConcurrentHashMap<>();
+	private final Map<String, String> authorizationIdsByToken = new ConcurrentHashMap<>();
+	private final Queue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+
+	public BoundedInMemoryAuthorizationService(int maxAuthorizations) {
+		Assert.isTrue(maxAuthorizations > 0, "maxAuthorizations must be greater than zero");
+		this.maxAuthorizations = maxAuthorizations;
+	}
+
+	@Override
+	public void save(OAuth2Authorization authorization) {
+		Assert.notNull(authorization, "authorization cannot be null");
+		OAuth2Authorization previous = authorizations.put(authorization.getId(), authorization);
+		if (previous != null) {
+			unindex(previous);
+		} else {
+			insertionOrder.add(authorization.getId());
+		}
+		index(authorization);
+		evictOverflow();
+	}
+
+	@Override
+	public void remove(OAuth2Authorization authorization) {
+		Assert.notNull(authorization, "authorization cannot be null");
+		OAuth2Authorization removed = authorizations.remove(authorization.getId());
+		if (removed != null) {
+			unindex(removed);
+		}
+	}
+
+	@Nullable
+	@Override
+	public OAuth2Authorization findById(String id) {
+		Assert.hasText(id, "id cannot be empty");
+		return authorizations.get(id);
+	}
+
+	@Nullable
+	@Override
+	public OAuth2Authorization findByToken(String token, @Nullable OAuth2TokenType tokenType) {
+		Assert.hasText(token, "token cannot be empty");
+		String id = authorizationIdsByToken.get(token);
+		OAuth2Authorization authorization = id != null ? authorizations.get(id) : null;
+		return authorization != null && hasToken(authorization, token, tokenType) ? authorization : null;
+	}
+
+	@Scheduled(fixedDelayString = "${security.authorization-store.sweep-interval-ms}")
+	public int removeExpired() {
+		Instant now = Instant.now();
+		int removed = 0;
+		for (OAuth2Authorization authorization : authorizations.values()) {
+			if (isExpired(authorization, now) && authorizations.remove(authorization.getId(), authorization)) {
+				unindex(authorization);
+				removed++;
+			}
+		}
+		insertionOrder.removeIf(id -> !authorizations.containsKey(id));
+		return removed;
+	}
+
+	public int size() {
+		return authorizations.size();
+	}
+
+	private void evictOverflow() {
+		while (authorizations.size() > maxAuthorizations) {
+			String oldestId = insertionOrder.poll();
+			if (oldestId == null) {
+				return;
+			}
+			OAuth2Authorization evicted = authorizations.remove(oldestId);
+			if (evicted != null) {
+				unindex(evicted);
+			}
+		}
+	}
+
+	private void index(OAuth2Authorization authorization) {
+		forEachTokenValue(authorization, value -> authorizationIdsByToken.put(value, authorization.getId()));
+	}
+
+	private void unindex(OAuth2Authorization authorization) {
+		forEachTokenValue(authorization, value -> authorizationIdsByToken.remove(value, authorization.getId()));
+	}
+
+	private static void forEachTokenValue(OAuth2Authorization authorization, Consumer<String> action) {
+		String state = authorization.getAttribute(OAuth2ParameterNames.STATE);
+		if (state != null) {
+			action.accept(state);
+		}
+		for (OAuth2Authorization.Token<?> token : new OAuth2Authorization.Token<?>[] {
+				authorization.getToken(OAuth2AuthorizationCode.class),
+				authorization.getAccessToken(),
+				authorization.getRefreshToken() }) {
+			if (token != null) {
+				action.accept(token.getToken().getTokenValue());
+			}
+		}
+	}
+
+	private static boolean hasToken(OAuth2Authorization authorization, String token, @Nullable OAuth2TokenType tokenType) {
+		if (tokenType == null) {
+			return true;
+		}
+		if (OAuth2ParameterNames.STATE.equals(tokenType.getValue())) {
+			return token.equals(authorization.getAttribute(OAuth2ParameterNames.STATE));
+		}
+		if (OAuth2ParameterNames.CODE.equals(tokenType.getValue())) {
+			return matches(authorization.getToken(OAuth2AuthorizationCode.class), token);
+		}
+		if (OAuth2TokenType.ACCESS_TOKEN.equals(tokenType)) {
+			return matches(authorization.getAccessToken(), token);
+		}
+		if (OAuth2TokenType.REFRESH_TOKEN.equals(tokenType)) {
+			return matches(authorization.getRefreshToken(), token);
+		}
+		return false;
+	}
+
+	private static boolean matches(@Nullable OAuth2Authorization.Token<? extends AbstractOAuth2Token> token, String value) {
+		return token != null && token.getToken().getTokenValue().equals(value);
+	}
+
+	private static boolean isExpired(OAuth2Authorization authorization, Instant now) {
+		return isExpired(authorization.getToken(OAuth2AuthorizationCode.class), now)
+				&& isExpired(authorization.getAccessToken(), now)
+				&& isExpired(authorization.getRefreshToken(), now);
+	}
+
+	private static boolean isExpired(@Nullable OAuth2Authorization.Token<? extends AbstractOAuth2Token> token, Instant now) {
+		if (token == null) {
+			return true;
+		}
+		Instant expiresAt = token.getToken().getExpiresAt();
+		return expiresAt != null && expiresAt.isBefore(now);
+	}
+}
@@ -0,0 +1,54 @@
+package br.com.topone.elevenapi.config.authorization;
+
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.server.authorization.JdbcOAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
+
+import org.springframework.util.Assert;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Autorizações persistidas em {@code oauth2_authorization}, compartilhadas entre instâncias
+ * da API, com remoção periódica das linhas cujos tokens já expiraram. A remoção é feita em lotes
+ * de {@code chunkSize} linhas, cada um no seu próprio comando, para não manter locks longos na tabela.
+ * A tabela é criada pelo {@code spring.sql.init} (db/oauth2-authorization-schema.sql).
+ */
+public class ExpiringJdbcAuthorizationService extends JdbcOAuth2AuthorizationService {
+
+	private static final String FIND_EXPIRED_SQL = """
+			SELECT id FROM oauth2_authorization
+			WHERE (authorization_code_expires_at IS NULL OR authorization_code_expires_at < ?)
+			  AND (access_token_expires_at IS NULL OR access_token_expires_at < ?)
+			  AND (refresh_token_expires_at IS NULL OR refresh_token_expires_at < ?)
+			FETCH FIRST ? ROWS ONLY
+			""";
+
+	private final int chunkSize;
+
+	public ExpiringJdbcAuthorizationService(JdbcOperations jdbcOperations,
+			RegisteredClientRepository registeredClientRepository, int chunkSize) {
+		super(jdbcOperations, registeredClientRepository);
+		Assert.isTrue(chunkSize > 0, "chunkSize must be greater than zero");
+		this.chunkSize = chunkSize;
+	}
+
+	@Scheduled(fixedDelayString = "${security.authorization-store.sweep-interval-ms}")
+	public int removeExpired() {
+		Timestamp now = Timestamp.from(Instant.now());
+		int total = 0;
+		int removed;
+		do {
+			List<String> ids = getJdbcOperations().queryForList(FIND_EXPIRED_SQL, String.class, now, now, now, chunkSize);
+			removed = ids.isEmpty() ? 0 : getJdbcOperations().update(
+					"DELETE FROM oauth2_authorization WHERE id IN (" + String.join(",", Collections.nCopies(ids.size(), "?")) + ")",
+					ids.toArray());
+			total += removed;
+		} while (removed == chunkSize);
+		return total;
+	}
+}
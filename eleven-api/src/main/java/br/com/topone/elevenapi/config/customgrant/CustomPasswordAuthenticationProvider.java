@@ -1,10 +1,17 @@
 package br.com.topone.elevenapi.config.customgrant;
 
+import br.com.topone.elevenapi.entities.User;
+import br.com.topone.elevenapi.service.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -22,24 +29,34 @@ import org.springframework.security.oauth2.server.authorization.token.OAuth2Toke
 import org.springframework.util.Assert;
 
 import java.security.Principal;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 public class CustomPasswordAuthenticationProvider implements AuthenticationProvider {
 
 	private static final String ERROR_URI = "https://datatracker.ietf.org/doc/html/rfc6749#section-5.2";
+	private static final String INVALID_CREDENTIALS = "Invalid credentials";
+	private static final String INACTIVE_USER = "Inactive user, please check with the administrator";
+	public static final String TOKEN_TIMER = "auth.token.issuance";
+	public static final String USER_ID_DETAIL = "user_id";
+	// Atributo da autorização com o usuário autenticado; o principal da autorização continua sendo o client
+	public static final String USER_ATTRIBUTE = "user_principal";
+	private static final AuthorizationGrantType PASSWORD = new AuthorizationGrantType("password");
 	private final OAuth2AuthorizationService authorizationService;
 	private final UserDetailsService userDetailsService;
 	private final OAuth2TokenGenerator<? extends OAuth2Token> tokenGenerator;
 	private final PasswordEncoder passwordEncoder;
-	private String username = "";
-	private String password = "";
-	private Set<String> authorizedScopes = new HashSet<>();
+	private final UserDetailsPasswordService userDetailsPasswordService;
+	private final MeterRegistry meterRegistry;
 
 	public CustomPasswordAuthenticationProvider(OAuth2AuthorizationService authorizationService,
 			OAuth2TokenGenerator<? extends OAuth2Token> tokenGenerator, 
-			UserDetailsService userDetailsService, PasswordEncoder passwordEncoder) {
+			UserDetailsService userDetailsService, PasswordEncoder passwordEncoder,
+			UserDetailsPasswordService userDetailsPasswordService, MeterRegistry meterRegistry) {
 		
 		Assert.notNull(authorizationService, "authorizationService cannot be null");
 		Assert.notNull(tokenGenerator, "TokenGenerator cannot be null");
@@ -49,62 +66,92 @@ public class CustomPasswordAuthenticationProvider implements AuthenticationProvi
 		this.tokenGenerator = tokenGenerator;
 		this.userDetailsService = userDetailsService;
 		this.passwordEncoder = passwordEncoder;
+		this.userDetailsPasswordService = userDetailsPasswordService;
+		this.meterRegistry = meterRegistry;
 	}
 
 	@Override
 	public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+		// Tempo total da emissão (busca do usuário, BCrypt, geração e gravação dos tokens), por resultado
+		Timer.Sample sample = Timer.start(meterRegistry);
+		String outcome = "error";
+		try {
+			Authentication result = issueToken(authentication);
+			outcome = "success";
+			return result;
+		} catch (OAuth2AuthenticationException e) {
+			outcome = outcome(e);
+			throw e;
+		} finally {
+			sample.stop(meterRegistry.timer(TOKEN_TIMER, "outcome", outcome));
+		}
+	}
+
+	private Authentication issueToken(Authentication authentication) {
 		CustomPasswordAuthenticationToken customPasswordAuthenticationToken = (CustomPasswordAuthenticationToken) authentication;
 		OAuth2ClientAuthenticationToken clientPrincipal = getAuthenticatedClientElseThrowInvalidClient(customPasswordAuthenticationToken);
 		RegisteredClient registeredClient = clientPrincipal.getRegisteredClient();
-		username = customPasswordAuthenticationToken.getUsername();
-		password = customPasswordAuthenticationToken.getPassword();
+		// Provider é singleton: todo estado da requisição fica em variáveis locais
+		String username = customPasswordAuthenticationToken.getUsername();
+		String password = customPasswordAuthenticationToken.getPassword();
 
-		UserDetails user = null;
+		UserDetails user;
 		try {
 			user = userDetailsService.loadUserByUsername(username);
 		} catch (UsernameNotFoundException e) {
-			throw new OAuth2AuthenticationException("Invalid credentials");
+			throw new OAuth2AuthenticationException(INVALID_CREDENTIALS);
 		}
 
-		if (!passwordEncoder.matches(password, user.getPassword()) || !user.getUsername().equals(username)) {
-			throw new OAuth2AuthenticationException("Invalid credentials");
+		try {
+			if (!passwordEncoder.matches(password, user.getPassword()) || !user.getUsername().equals(username)) {
+				throw new OAuth2AuthenticationException(INVALID_CREDENTIALS);
+			}
+		} catch (ServiceUnavailableException e) {
+			throw new OAuth2AuthenticationException(new OAuth2Error(OAuth2ErrorCodes.TEMPORARILY_UNAVAILABLE,
+					e.getMessage(), ERROR_URI));
 		}
 
 		// Verificar se o usuário está ativo
 		if (!user.isEnabled()) {
-			throw new OAuth2AuthenticationException("Inactive user, please check with the administrator");
+			throw new OAuth2AuthenticationException(INACTIVE_USER);
 		}
 
+		// Re-hash transparente quando o custo do BCrypt configurado mudou
+		upgradePasswordIfNeeded(user, password);
 
-		authorizedScopes = user.getAuthorities().stream()
-				.map(scope -> scope.getAuthority())
-				.filter(scope -> registeredClient.getScopes().contains(scope))
-				.collect(Collectors.toSet());
-
-		//-----------Create a new Security Context Holder Context----------
-		OAuth2ClientAuthenticationToken oAuth2ClientAuthenticationToken = (OAuth2ClientAuthenticationToken) SecurityContextHolder.getContext().getAuthentication();
-		CustomUserAuthorities customPasswordUser = new CustomUserAuthorities(username, user.getAuthorities());
-		oAuth2ClientAuthenticationToken.setDetails(customPasswordUser);
+		Set<String> clientScopes = registeredClient.getScopes();
+		Set<String> authorizedScopes = new HashSet<>();
+		for (GrantedAuthority authority : user.getAuthorities()) {
+			if (clientScopes.contains(authority.getAuthority())) {
+				authorizedScopes.add(authority.getAuthority());
+			}
+		}
 
-		var newcontext = SecurityContextHolder.createEmptyContext();
-		newcontext.setAuthentication(oAuth2ClientAuthenticationToken);
-		SecurityContextHolder.setContext(newcontext);
+		//-----------USER PRINCIPAL----------
+		// Guardado como atributo da autorização; usa apenas tipos serializáveis pelo JdbcOAuth2AuthorizationService
+		Authentication userPrincipal = createUserPrincipal(user);
 
 		//-----------TOKEN BUILDERS----------
+		// O principal é o client (sub = client id). O token do client carrega o RegisteredClient, que o store JDBC
+		// não serializa; na autorização fica uma cópia só com o nome, usada pelo refresh_token
+		OAuth2Authorization.Builder authorizationBuilder = OAuth2Authorization.withRegisteredClient(registeredClient)
+				.attribute(Principal.class.getName(),
+						UsernamePasswordAuthenticationToken.authenticated(clientPrincipal.getName(), null, List.of()))
+				.attribute(USER_ATTRIBUTE, userPrincipal)
+				.principalName(clientPrincipal.getName())
+				.authorizationGrantType(PASSWORD)
+				.authorizedScopes(authorizedScopes);
+
+		// A autorização vai no contexto para que o customizador do JWT leia o usuário, como no refresh_token
 		DefaultOAuth2TokenContext.Builder tokenContextBuilder = DefaultOAuth2TokenContext.builder()
 				.registeredClient(registeredClient)
 				.principal(clientPrincipal)
+				.authorization(authorizationBuilder.build())
 				.authorizationServerContext(AuthorizationServerContextHolder.getContext())
 				.authorizedScopes(authorizedScopes)
-				.authorizationGrantType(new AuthorizationGrantType("password"))
+				.authorizationGrantType(PASSWORD)
 				.authorizationGrant(customPasswordAuthenticationToken);
 
-		OAuth2Authorization.Builder authorizationBuilder = OAuth2Authorization.withRegisteredClient(registeredClient)
-				.attribute(Principal.class.getName(), clientPrincipal)
-				.principalName(clientPrincipal.getName())
-				.authorizationGrantType(new AuthorizationGrantType("password"))
-				.authorizedScopes(authorizedScopes);
-
 		//-----------ACCESS TOKEN----------
 		OAuth2TokenContext tokenContext = tokenContextBuilder.tokenType(OAuth2TokenType.ACCESS_TOKEN).build();
 		OAuth2Token generatedAccessToken = this.tokenGenerator.generate(tokenContext);
@@ -142,6 +189,45 @@ public class CustomPasswordAuthenticationProvider implements AuthenticationProvi
 		return new OAuth2AccessTokenAuthenticationToken(registeredClient, clientPrincipal, accessToken, refreshToken);
 	}
 
+	private static Authentication createUserPrincipal(UserDetails user) {
+		List<GrantedAuthority> authorities = new ArrayList<>(user.getAuthorities().size());
+		for (GrantedAuthority authority : user.getAuthorities()) {
+			authorities.add(new SimpleGrantedAuthority(authority.getAuthority()));
+		}
+		UsernamePasswordAuthenticationToken userPrincipal = UsernamePasswordAuthenticationToken.authenticated(
+				user.getUsername(), null, authorities);
+
+		// Long não está na allowlist do Jackson do Spring Security (store JDBC), por isso o id vai como texto
+		Map<String, String> details = new HashMap<>();
+		if (user instanceof User entity && entity.getId() != null) {
+			details.put(USER_ID_DETAIL, entity.getId().toString());
+		}
+		userPrincipal.setDetails(details);
+		return userPrincipal;
+	}
+
+	private void upgradePasswordIfNeeded(UserDetails user, String rawPassword) {
+		if (userDetailsPasswordService == null || !passwordEncoder.upgradeEncoding(user.getPassword())) {
+			return;
+		}
+		try {
+			userDetailsPasswordService.updatePassword(user, passwordEncoder.encode(rawPassword));
+		} catch (ServiceUnavailableException e) {
+			// O login não depende do re-hash; será feito em uma próxima autenticação
+		}
+	}
+
+	// Conjunto fechado de valores, para não criar uma série por mensagem de erro
+	private static String outcome(OAuth2AuthenticationException e) {
+		return switch (e.getError().getErrorCode()) {
+			case INVALID_CREDENTIALS -> "invalid_credentials";
+			case INACTIVE_USER -> "inactive_user";
+			case OAuth2ErrorCodes.TEMPORARILY_UNAVAILABLE -> "unavailable";
+			case OAuth2ErrorCodes.INVALID_CLIENT -> "invalid_client";
+			default -> "error";
+		};
+	}
+
 	@Override
 	public boolean supports(Class<?> authentication) {
 		return CustomPasswordAuthenticationToken.class.isAssignableFrom(authentication);
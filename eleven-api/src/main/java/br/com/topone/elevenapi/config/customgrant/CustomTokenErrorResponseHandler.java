@@ -0,0 +1,75 @@
+package br.com.topone.elevenapi.config.customgrant;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+import org.springframework.security.oauth2.core.http.converter.OAuth2ErrorHttpMessageConverter;
+import org.springframework.security.oauth2.server.authorization.web.authentication.OAuth2ErrorAuthenticationFailureHandler;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
+
+import java.io.IOException;
+
+/**
+ * Responde 503 (com Retry-After) quando o erro do token endpoint é temporário,
+ * mantendo o comportamento padrão (400) para os demais erros. Na autenticação do client
+ * o padrão é o do Authorization Server: 401 para client inválido e 400 para o resto.
+ */
+public class CustomTokenErrorResponseHandler implements AuthenticationFailureHandler {
+
+	private static final long RETRY_AFTER_SECONDS = 1;
+
+	private static final HttpMessageConverter<OAuth2Error> errorHttpResponseConverter = new OAuth2ErrorHttpMessageConverter();
+	private final AuthenticationFailureHandler defaultHandler;
+
+	public CustomTokenErrorResponseHandler() {
+		this(new OAuth2ErrorAuthenticationFailureHandler());
+	}
+
+	private CustomTokenErrorResponseHandler(AuthenticationFailureHandler defaultHandler) {
+		this.defaultHandler = defaultHandler;
+	}
+
+	public static CustomTokenErrorResponseHandler forClientAuthentication() {
+		return new CustomTokenErrorResponseHandler((request, response, exception) -> {
+			SecurityContextHolder.clearContext();
+			OAuth2Error error = exception instanceof OAuth2AuthenticationException oauth2Exception
+					? oauth2Exception.getError()
+					: new OAuth2Error(OAuth2ErrorCodes.INVALID_CLIENT);
+			HttpStatus status = OAuth2ErrorCodes.INVALID_CLIENT.equals(error.getErrorCode())
+					? HttpStatus.UNAUTHORIZED
+					: HttpStatus.BAD_REQUEST;
+			ServletServerHttpResponse httpResponse = new ServletServerHttpResponse(response);
+			httpResponse.setStatusCode(status);
+			errorHttpResponseConverter.write(error, null, httpResponse);
+		});
+	}
+
+	@Override
+	public void onAuthenticationFailure(HttpServletRequest request, HttpServletResponse response,
+			AuthenticationException exception) throws IOException, ServletException {
+
+		if (exception instanceof OAuth2AuthenticationException oauth2Exception
+				&& OAuth2ErrorCodes.TEMPORARILY_UNAVAILABLE.equals(oauth2Exception.getError().getErrorCode())) {
+			writeError(response, HttpStatus.SERVICE_UNAVAILABLE, oauth2Exception.getError(), RETRY_AFTER_SECONDS);
+			return;
+		}
+		defaultHandler.onAuthenticationFailure(request, response, exception);
+	}
+
+	public static void writeError(HttpServletResponse response, HttpStatus status, OAuth2Error error,
+			long retryAfterSeconds) throws IOException {
+		ServletServerHttpResponse httpResponse = new ServletServerHttpResponse(response);
+		httpResponse.setStatusCode(status);
+		httpResponse.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+		errorHttpResponseConverter.write(error, null, httpResponse);
+	}
+}
@@ -0,0 +1,39 @@
+package br.com.topone.elevenapi.config.customgrant;
+
+import br.com.topone.elevenapi.service.exceptions.ServiceUnavailableException;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+
+/**
+ * Envolve os provedores de autenticação do client: o client secret também passa pelo pool do BCrypt,
+ * e a recusa por saturação vira temporarily_unavailable (503) em vez de client inválido.
+ */
+public class UnavailableAwareClientAuthenticationProvider implements AuthenticationProvider {
+
+	private static final String ERROR_URI = "https://datatracker.ietf.org/doc/html/rfc6749#section-5.2";
+
+	private final AuthenticationProvider delegate;
+
+	public UnavailableAwareClientAuthenticationProvider(AuthenticationProvider delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+		try {
+			return delegate.authenticate(authentication);
+		} catch (ServiceUnavailableException e) {
+			throw new OAuth2AuthenticationException(new OAuth2Error(OAuth2ErrorCodes.TEMPORARILY_UNAVAILABLE,
+					e.getMessage(), ERROR_URI));
+		}
+	}
+
+	@Override
+	public boolean supports(Class<?> authentication) {
+		return delegate.supports(authentication);
+	}
+}
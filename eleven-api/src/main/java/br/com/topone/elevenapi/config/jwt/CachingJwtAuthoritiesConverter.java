@@ -0,0 +1,37 @@
+package br.com.topone.elevenapi.config.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Memoriza as authorities convertidas de cada {@link Jwt}. Como o {@link CachingJwtDecoder}
+ * devolve a mesma instância para o mesmo token, as chaves são comparadas por identidade
+ * (weak keys) e a entrada some junto com o Jwt quando ele sai do cache do decoder.
+ */
+public class CachingJwtAuthoritiesConverter implements Converter<Jwt, Collection<GrantedAuthority>> {
+
+	private final Converter<Jwt, Collection<GrantedAuthority>> delegate;
+	private final Cache<Jwt, Collection<GrantedAuthority>> cache;
+
+	public CachingJwtAuthoritiesConverter(Converter<Jwt, Collection<GrantedAuthority>> delegate, long maxSize) {
+		this.delegate = delegate;
+		this.cache = Caffeine.newBuilder()
+				.weakKeys()
+				.maximumSize(maxSize)
+				.build();
+	}
+
+	@Override
+	public Collection<GrantedAuthority> convert(Jwt jwt) {
+		return cache.get(jwt, key -> {
+			Collection<GrantedAuthority> authorities = delegate.convert(key);
+			return authorities == null ? List.of() : List.copyOf(authorities);
+		});
+	}
+}
@@ -0,0 +1,105 @@
+package br.com.topone.elevenapi.config.jwt;
+
+import br.com.topone.elevenapi.util.DigestUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Guarda os {@link Jwt} já verificados, indexados pelo SHA-256 do token, até o {@code exp}
+ * de cada um. Um token repetido evita a verificação RSA e o parse das claims; tokens
+ * inválidos nunca entram no cache.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+	private final JwtDecoder delegate;
+	private final Supplier<Instant> clock;
+	private final Cache<String, Jwt> cache;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder decodeNanos = new LongAdder();
+
+	public CachingJwtDecoder(JwtDecoder delegate, long maxSize) {
+		this(delegate, maxSize, Instant::now, ForkJoinPool.commonPool());
+	}
+
+	// Relógio e executor da manutenção do cache substituíveis nos testes
+	CachingJwtDecoder(JwtDecoder delegate, long maxSize, Supplier<Instant> clock, Executor executor) {
+		this.delegate = delegate;
+		this.clock = clock;
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.executor(executor)
+				.ticker(() -> {
+					Instant now = clock.get();
+					return now.getEpochSecond() * 1_000_000_000L + now.getNano();
+				})
+				.expireAfter(new Expiry<String, Jwt>() {
+					@Override
+					public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+						return timeToLive(jwt).toNanos();
+					}
+
+					@Override
+					public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+						return timeToLive(jwt).toNanos();
+					}
+
+					@Override
+					public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+						return currentDuration;
+					}
+				})
+				.build();
+	}
+
+	@Override
+	public Jwt decode(String token) throws JwtException {
+		String key = DigestUtil.sha256Hex(token);
+		Jwt cached = cache.getIfPresent(key);
+		if (cached != null && (cached.getExpiresAt() == null || cached.getExpiresAt().isAfter(clock.get()))) {
+			hits.increment();
+			return cached;
+		}
+
+		long start = System.nanoTime();
+		Jwt jwt = delegate.decode(token);
+		decodeNanos.add(System.nanoTime() - start);
+		misses.increment();
+
+		if (jwt.getExpiresAt() != null) {
+			cache.put(key, jwt);
+		}
+		return jwt;
+	}
+
+	/**
+	 * Estatísticas do cache; {@code savedNanos} estima o tempo de verificação evitado
+	 * multiplicando os acertos pelo custo médio de uma decodificação real.
+	 */
+	public JwtCacheStats stats() {
+		long missCount = misses.sum();
+		long hitCount = hits.sum();
+		long avgDecodeNanos = missCount == 0 ? 0 : decodeNanos.sum() / missCount;
+		return new JwtCacheStats(cache.estimatedSize(), hitCount, missCount, avgDecodeNanos, hitCount * avgDecodeNanos);
+	}
+
+	private Duration timeToLive(Jwt jwt) {
+		Duration ttl = Duration.between(clock.get(), jwt.getExpiresAt());
+		return ttl.isNegative() ? Duration.ZERO : ttl;
+	}
+
+	public record JwtCacheStats(long size, long hits, long misses, long avgDecodeNanos, long savedNanos) {
+	}
+}
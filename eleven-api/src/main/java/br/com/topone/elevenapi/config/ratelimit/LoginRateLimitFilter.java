@@ -0,0 +1,54 @@
+package br.com.topone.elevenapi.config.ratelimit;
+
+import br.com.topone.elevenapi.config.customgrant.CustomTokenErrorResponseHandler;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+import org.springframework.security.oauth2.core.endpoint.OAuth2ParameterNames;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Aplica o {@link LoginRateLimiter} no password grant do /oauth2/token antes da autenticação
+ * do client, da busca do usuário e do BCrypt. Requisições recusadas recebem 429 no formato
+ * de erro OAuth2.
+ */
+public class LoginRateLimitFilter extends OncePerRequestFilter {
+
+	private static final String TOKEN_ENDPOINT = "/oauth2/token";
+	private static final String PASSWORD_GRANT = "password";
+
+	private final LoginRateLimiter rateLimiter;
+
+	public LoginRateLimitFilter(LoginRateLimiter rateLimiter) {
+		this.rateLimiter = rateLimiter;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !"POST".equals(request.getMethod())
+				|| !TOKEN_ENDPOINT.equals(request.getServletPath())
+				|| !PASSWORD_GRANT.equals(request.getParameter(OAuth2ParameterNames.GRANT_TYPE));
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+
+		// IP do cliente: atrás de um proxy confiável já vem do X-Forwarded-For (server.forward-headers-strategy)
+		long retryAfter = rateLimiter.tryAcquire(request.getRemoteAddr(),
+				request.getParameter(OAuth2ParameterNames.USERNAME));
+		if (retryAfter > 0) {
+			OAuth2Error error = new OAuth2Error(OAuth2ErrorCodes.TEMPORARILY_UNAVAILABLE,
+					"Too many login attempts, please try again later", null);
+			CustomTokenErrorResponseHandler.writeError(response, HttpStatus.TOO_MANY_REQUESTS, error, retryAfter);
+			return;
+		}
+		filterChain.doFilter(request, response);
+	}
+}
@@ -0,0 +1,67 @@
+package br.com.topone.elevenapi.config.ratelimit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limites de tentativas do password grant, por usuário e por IP de origem.
+ */
+@Component
+public class LoginRateLimiter {
+
+	private final boolean enabled;
+	private final long idleNanos;
+	private final TokenBucketRateLimiter byUsername;
+	private final TokenBucketRateLimiter byIp;
+
+	public LoginRateLimiter(@Value("${security.rate-limit.enabled}") boolean enabled,
+			@Value("${security.rate-limit.username.capacity}") long usernameCapacity,
+			@Value("${security.rate-limit.username.refill-per-minute}") long usernameRefillPerMinute,
+			@Value("${security.rate-limit.ip.capacity}") long ipCapacity,
+			@Value("${security.rate-limit.ip.refill-per-minute}") long ipRefillPerMinute,
+			@Value("${security.rate-limit.max-keys}") int maxKeys,
+			@Value("${security.rate-limit.idle-seconds}") long idleSeconds) {
+		this.enabled = enabled;
+		this.idleNanos = TimeUnit.SECONDS.toNanos(idleSeconds);
+		this.byUsername = new TokenBucketRateLimiter(usernameCapacity, usernameRefillPerMinute, maxKeys);
+		this.byIp = new TokenBucketRateLimiter(ipCapacity, ipRefillPerMinute, maxKeys);
+	}
+
+	/**
+	 * Retorna 0 se a tentativa é permitida, ou os segundos sugeridos para o Retry-After.
+	 */
+	public long tryAcquire(String ip, String username) {
+		if (!enabled) {
+			return 0;
+		}
+		if (ip != null && !byIp.tryAcquire(ip)) {
+			return byIp.retryAfterSeconds();
+		}
+		if (username != null && !byUsername.tryAcquire(username.trim().toLowerCase(Locale.ROOT))) {
+			// A tentativa não acontece: o token do IP volta para o bucket
+			if (ip != null) {
+				byIp.refund(ip);
+			}
+			return byUsername.retryAfterSeconds();
+		}
+		return 0;
+	}
+
+	@Scheduled(fixedDelayString = "${security.rate-limit.sweep-interval-ms}")
+	public void evictIdle() {
+		byIp.evictIdle(idleNanos);
+		byUsername.evictIdle(idleNanos);
+	}
+
+	public TokenBucketRateLimiter.RateLimiterStats usernameStats() {
+		return byUsername.stats();
+	}
+
+	public TokenBucketRateLimiter.RateLimiterStats ipStats() {
+		return byIp.stats();
+	}
+}
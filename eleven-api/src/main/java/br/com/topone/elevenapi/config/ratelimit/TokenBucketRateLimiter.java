@@ -0,0 +1,173 @@
+package br.com.topone.elevenapi.config.ratelimit;
+
+import org.springframework.util.Assert;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket por chave. Cada chave é protegida por um lock de um conjunto fixo
+ * (lock striping), de modo que chaves diferentes raramente disputam o mesmo lock.
+ * Buckets ociosos são removidos por {@link #evictIdle(long)}. Com o mapa cheio, uma chave nova
+ * remove os buckets usados há mais tempo (LRU), em lotes de 1/16 do limite para que uma varredura
+ * sirva a várias chaves novas; a chave nova nunca é recusada por falta de espaço.
+ */
+public class TokenBucketRateLimiter {
+
+	private static final int STRIPES = 64;
+	private static final int EVICTION_BATCH_DIVISOR = 16;
+
+	private final long capacity;
+	private final double tokensPerNano;
+	private final int maxKeys;
+	private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+	private final Object[] locks = new Object[STRIPES];
+	private final LongSupplier nanoClock;
+	private final Object evictionLock = new Object();
+
+	private final LongAdder allowed = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+	private final LongAdder evicted = new LongAdder();
+
+	public TokenBucketRateLimiter(long capacity, long refillPerMinute, int maxKeys) {
+		this(capacity, refillPerMinute, maxKeys, System::nanoTime);
+	}
+
+	// Relógio substituível nos testes
+	TokenBucketRateLimiter(long capacity, long refillPerMinute, int maxKeys, LongSupplier nanoClock) {
+		Assert.isTrue(capacity > 0, "capacity must be greater than zero");
+		Assert.isTrue(refillPerMinute > 0, "refillPerMinute must be greater than zero");
+		Assert.isTrue(maxKeys > 0, "maxKeys must be greater than zero");
+		this.capacity = capacity;
+		this.tokensPerNano = refillPerMinute / 60_000_000_000d;
+		this.maxKeys = maxKeys;
+		this.nanoClock = nanoClock;
+		for (int i = 0; i < STRIPES; i++) {
+			locks[i] = new Object();
+		}
+	}
+
+	public boolean tryAcquire(String key) {
+		long now = nanoClock.getAsLong();
+		if (buckets.size() >= maxKeys && !buckets.containsKey(key)) {
+			evictLeastRecentlyUsed();
+		}
+		synchronized (lockFor(key)) {
+			Bucket bucket = buckets.computeIfAbsent(key, k -> new Bucket(capacity, now));
+			bucket.refill(now, capacity, tokensPerNano);
+			bucket.lastAccess = now;
+			if (bucket.tokens >= 1) {
+				bucket.tokens -= 1;
+				allowed.increment();
+				return true;
+			}
+			rejected.increment();
+			return false;
+		}
+	}
+
+	// Devolve o token de uma tentativa que outro limite acabou recusando
+	public void refund(String key) {
+		synchronized (lockFor(key)) {
+			Bucket bucket = buckets.get(key);
+			if (bucket != null) {
+				bucket.tokens = Math.min(capacity, bucket.tokens + 1);
+				allowed.decrement();
+			}
+		}
+	}
+
+	// Segundos até o próximo token ficar disponível, para o cabeçalho Retry-After
+	public long retryAfterSeconds() {
+		return Math.max(1, (long) Math.ceil(1 / (tokensPerNano * 1_000_000_000d)));
+	}
+
+	/**
+	 * Remove buckets sem acesso há mais de {@code idleNanos}. Um bucket ocioso por tempo
+	 * suficiente já estaria cheio, então removê-lo não altera o limite aplicado.
+	 */
+	public int evictIdle(long idleNanos) {
+		long now = nanoClock.getAsLong();
+		int removed = 0;
+		for (String key : buckets.keySet()) {
+			synchronized (lockFor(key)) {
+				Bucket bucket = buckets.get(key);
+				if (bucket != null && now - bucket.lastAccess > idleNanos) {
+					buckets.remove(key);
+					removed++;
+				}
+			}
+		}
+		return removed;
+	}
+
+	public RateLimiterStats stats() {
+		return new RateLimiterStats(buckets.size(), allowed.sum(), rejected.sum(), evicted.sum());
+	}
+
+	/**
+	 * Remove os buckets com o acesso mais antigo. Uma única thread varre o mapa por vez; as demais
+	 * esperam e, se a varredura já abriu espaço, seguem sem varrer de novo.
+	 */
+	private void evictLeastRecentlyUsed() {
+		synchronized (evictionLock) {
+			if (buckets.size() < maxKeys) {
+				return;
+			}
+			int batch = Math.max(1, maxKeys / EVICTION_BATCH_DIVISOR);
+			// Heap com os mais antigos encontrados; o topo é o mais recente entre eles
+			PriorityQueue<Map.Entry<String, Long>> oldest = new PriorityQueue<>(batch + 1,
+					Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()));
+			buckets.forEach((key, bucket) -> {
+				oldest.add(Map.entry(key, bucket.lastAccess));
+				if (oldest.size() > batch) {
+					oldest.poll();
+				}
+			});
+			for (Map.Entry<String, Long> candidate : oldest) {
+				synchronized (lockFor(candidate.getKey())) {
+					// Acessado depois da varredura: deixa de ser candidato
+					Bucket bucket = buckets.get(candidate.getKey());
+					if (bucket != null && bucket.lastAccess <= candidate.getValue()) {
+						buckets.remove(candidate.getKey());
+						evicted.increment();
+					}
+				}
+			}
+		}
+	}
+
+	private Object lockFor(String key) {
+		int hash = key.hashCode();
+		return locks[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+	}
+
+	private static final class Bucket {
+
+		private double tokens;
+		private long lastRefill;
+		private volatile long lastAccess;
+
+		private Bucket(long capacity, long now) {
+			this.tokens = capacity;
+			this.lastRefill = now;
+			this.lastAccess = now;
+		}
+
+		private void refill(long now, long capacity, double tokensPerNano) {
+			tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+			lastRefill = now;
+		}
+	}
+
+	/**
+	 * @param rejected tentativas recusadas por falta de token
+	 * @param evicted buckets removidos (LRU) para abrir espaço a chaves novas com o mapa cheio
+	 */
+	public record RateLimiterStats(int keys, long allowed, long rejected, long evicted) {
+	}
+}
@@ -1,6 +1,7 @@
 package br.com.topone.elevenapi.dtos.user;
 
 import br.com.topone.elevenapi.dtos.RoleDTO;
+import br.com.topone.elevenapi.entities.RoleTable;
 import br.com.topone.elevenapi.entities.User;
 import br.com.topone.elevenapi.service.validation.ValidEmailDomain;
 import jakarta.validation.constraints.Email;
@@ -45,14 +46,6 @@ public class UserDTO {
         this.updatedAt = updatedAt;
     }
 
-   private String mapAuthority(String authority) {
-       return switch (authority) {
-           case "OPERATOR" -> "OPERADOR";
-           case "ADMIN" -> "ADMINISTRADOR";
-           default -> authority;
-       };
-    }
-    
     public UserDTO(User entity) {
         id = entity.getId();
         name = entity.getName();
@@ -60,10 +53,12 @@ public class UserDTO {
         active = entity.isActive();
         createdAt = entity.getCreatedAt();
         updatedAt = entity.getUpdatedAt();
-        entity.getRoles().forEach(role -> {
-            String authority = role.getAuthority().replaceFirst("^ROLE_", "");
-            authority = mapAuthority(authority);
-            roles.add(new RoleDTO(role.getId(), authority));
-        });
+        long roleMask = entity.roleMask();
+        if (roleMask != RoleTable.UNKNOWN) {
+            // Instâncias canônicas da tabela de roles; o RoleDTO é imutável
+            RoleTable.roles(roleMask).forEach(role -> roles.add(new RoleDTO(role)));
+        } else {
+            entity.getRoles().forEach(role -> roles.add(new RoleDTO(role)));
+        }
     }
 }
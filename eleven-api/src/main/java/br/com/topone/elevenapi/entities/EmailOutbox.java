@@ -0,0 +1,67 @@
+package br.com.topone.elevenapi.entities;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.Instant;
+
+/**
+ * Email pendente de envio, gravado na mesma transação da operação que o originou.
+ * O {@code payload} (JSON) tem só referências, como o id do usuário; o conteúdo é montado no envio.
+ */
+@Entity
+@Data
+@Table(name = "tb_email_outbox", indexes = @Index(name = "idx_email_outbox_due", columnList = "status, next_attempt_at"))
+@EqualsAndHashCode(of = "id")
+public class EmailOutbox {
+
+    // Chave do id do usuário destinatário no payload
+    public static final String USER_ID = "userId";
+
+    public enum Type {
+        WELCOME, PASSWORD_RECOVERY
+    }
+
+    public enum Status {
+        PENDING, SENDING, SENT, DEAD
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tb_email_outbox_seq")
+    @SequenceGenerator(name = "tb_email_outbox_seq", sequenceName = "tb_email_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 30, nullable = false)
+    private Type type;
+
+    @Column(length = 100, nullable = false)
+    private String recipient;
+
+    @Column(columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10, nullable = false)
+    private Status status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    private Instant lockedUntil;
+
+    @Column(length = 500)
+    private String lastError;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    private Instant sentAt;
+
+    // Registro do token do link de senha; as retentativas reenviam o mesmo token sem registrá-lo de novo
+    private Instant tokenIssuedAt;
+}
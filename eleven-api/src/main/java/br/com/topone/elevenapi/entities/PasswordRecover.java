@@ -8,7 +8,10 @@ import java.time.Instant;
 
 @Entity
 @Data
-@Table(name = "tb_password_recover")
+@Table(name = "tb_password_recover", indexes = {
+        @Index(name = "idx_password_recover_expiration", columnList = "expiration"),
+        @Index(name = "idx_password_recover_email", columnList = "email")
+})
 @EqualsAndHashCode(of = "id")
 public class PasswordRecover {
 
@@ -16,8 +19,9 @@ public class PasswordRecover {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false)
-    private String token;
+    // SHA-256 do token enviado por email; o token em si não é armazenado
+    @Column(name = "token_hash", length = 64, nullable = false, unique = true)
+    private String tokenHash;
 
     @Column(nullable = false)
     private String email;
@@ -0,0 +1,27 @@
+package br.com.topone.elevenapi.entities;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * Listener JPA de {@link Role}: qualquer escrita em {@code tb_role} publica {@link RoleTable.Changed},
+ * e o registro de roles recarrega a {@link RoleTable} após o commit.
+ * Instanciado pelo Hibernate através do container do Spring, por isso recebe injeção.
+ */
+public class RoleListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public RoleListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void roleChanged(Role role) {
+        eventPublisher.publishEvent(new RoleTable.Changed(role.getId()));
+    }
+}
@@ -0,0 +1,98 @@
+package br.com.topone.elevenapi.entities;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Roles em memória, com uma instância canônica por role e um bit fixo para cada uma: as roles de um
+ * usuário cabem num {@code long} ({@link #maskOf}) e {@link #hasRole} é uma operação de bits.
+ * O estado é estático porque entidades e DTOs não recebem injeção; é carregado pelo registro de roles
+ * na inicialização e após alterações em {@code tb_role} ({@link #install}).
+ */
+public final class RoleTable {
+
+    // Bit 63 fica livre para que -1 indique máscara ainda não calculada ou role desconhecida
+    public static final long UNKNOWN = -1L;
+    public static final int MAX_ROLES = Long.SIZE - 1;
+
+    private static volatile Snapshot current = new Snapshot(Map.of(), Map.of(), new Role[0]);
+
+    private RoleTable() {
+    }
+
+    // Troca o conteúdo de uma vez; as instâncias de Role passadas não devem ser alteradas depois
+    public static void install(Map<Long, Integer> bitById, Map<String, Integer> bitByAuthority, Role[] roles) {
+        current = new Snapshot(Map.copyOf(bitById), Map.copyOf(bitByAuthority), roles.clone());
+    }
+
+    public static Map<Long, Integer> bitById() {
+        return current.bitById();
+    }
+
+    /**
+     * Máscara com um bit por role, calculada pelos ids (não inicializa proxies).
+     * Retorna {@link #UNKNOWN} se alguma role ainda não estiver na tabela.
+     */
+    public static long maskOf(Collection<Role> roles) {
+        Map<Long, Integer> bitById = current.bitById();
+        long mask = 0L;
+        for (Role role : roles) {
+            Integer bit = bitById.get(role.getId());
+            if (bit == null) {
+                return UNKNOWN;
+            }
+            mask |= 1L << bit;
+        }
+        return mask;
+    }
+
+    public static boolean hasRole(long mask, String authority) {
+        Integer bit = current.bitByAuthority().get(authority);
+        return bit != null && (mask & (1L << bit)) != 0;
+    }
+
+    // Instâncias canônicas das roles da máscara
+    public static List<Role> roles(long mask) {
+        Role[] roles = current.roles();
+        List<Role> result = new ArrayList<>(Long.bitCount(mask));
+        for (long bits = mask; bits != 0; bits &= bits - 1) {
+            int bit = Long.numberOfTrailingZeros(bits);
+            if (bit < roles.length && roles[bit] != null) {
+                result.add(roles[bit]);
+            }
+        }
+        return result;
+    }
+
+    // Role pelo nome, com ou sem o prefixo ROLE_; null se não existir
+    public static Role findByAuthority(String authority) {
+        Snapshot snapshot = current;
+        String name = authority.startsWith("ROLE_") ? authority : "ROLE_" + authority;
+        Integer bit = snapshot.bitByAuthority().get(name);
+        return bit == null ? null : snapshot.roles()[bit];
+    }
+
+    // Instância compartilhada da role, ou uma nova se ela não estiver na tabela
+    public static Role canonical(Long id, String authority) {
+        Snapshot snapshot = current;
+        Integer bit = snapshot.bitById().get(id);
+        if (bit != null) {
+            Role role = snapshot.roles()[bit];
+            if (role != null && role.getAuthority().equals(authority)) {
+                return role;
+            }
+        }
+        return new Role(id, authority);
+    }
+
+    /**
+     * Publicado pelo {@link RoleListener} a cada escrita em {@code tb_role}.
+     */
+    public record Changed(Long roleId) {
+    }
+
+    private record Snapshot(Map<Long, Integer> bitById, Map<String, Integer> bitByAuthority, Role[] roles) {
+    }
+}
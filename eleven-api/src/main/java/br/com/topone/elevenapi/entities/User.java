@@ -4,9 +4,14 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.security.core.GrantedAuthority;
@@ -19,12 +24,15 @@ import java.util.Set;
 
 @Data
 @Entity
-@Table(name = "tb_user")
+@Table(name = "tb_user", indexes = @Index(name = "ix_user_name_id", columnList = "name, id"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @EqualsAndHashCode(of = "id")
 public class User implements UserDetails {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tb_user_seq")
+    @SequenceGenerator(name = "tb_user_seq", sequenceName = "tb_user_seq", allocationSize = 50)
     private Long id;
     
     @Column(length = 160, nullable = false)
@@ -51,6 +59,8 @@ public class User implements UserDetails {
     @JoinColumn(name = "user_profile_id")
     private UserProfile profile;
 
+    @BatchSize(size = 50)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-roles")
     @ManyToMany(fetch = FetchType.EAGER)
     @Setter(AccessLevel.NONE)
     @JoinTable(name = "tb_user_role",
@@ -58,7 +68,18 @@ public class User implements UserDetails {
             inverseJoinColumns = @JoinColumn(name = "role_id"))
     private Set<Role> roles = new HashSet<>();
 
+    // Roles como bits da RoleTable; recalculada sob demanda após alterações em roles
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private long roleMask = RoleTable.UNKNOWN;
+
     public boolean hasRole(String roleName) {
+        long mask = roleMask();
+        if (mask != RoleTable.UNKNOWN) {
+            return RoleTable.hasRole(mask, roleName);
+        }
         for (Role role : roles) {
             if (role.getAuthority().equals(roleName)) {
                 return true;
@@ -69,6 +90,19 @@ public class User implements UserDetails {
     
     public void addRole(Role role) {
         roles.add(role);
+        roleMask = RoleTable.UNKNOWN;
+    }
+
+    public void clearRoles() {
+        roles.clear();
+        roleMask = RoleTable.UNKNOWN;
+    }
+
+    public long roleMask() {
+        if (roleMask == RoleTable.UNKNOWN) {
+            roleMask = RoleTable.maskOf(roles);
+        }
+        return roleMask;
     }
 
     @Override
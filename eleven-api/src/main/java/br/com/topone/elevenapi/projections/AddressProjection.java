@@ -0,0 +1,15 @@
+package br.com.topone.elevenapi.projections;
+
+public interface AddressProjection {
+    
+    Long getProfileId();
+    Long getId();
+    String getZipCode();
+    String getStreet();
+    String getNumber();
+    String getComplement();
+    String getDistrict();
+    String getCity();
+    String getUf();
+    
+}
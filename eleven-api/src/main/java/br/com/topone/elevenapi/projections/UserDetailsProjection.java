@@ -2,6 +2,7 @@ package br.com.topone.elevenapi.projections;
 
 public interface UserDetailsProjection {
     
+    Long getId();
     String getUsername();
     String getPassword();
     Long getRoleId();
@@ -0,0 +1,21 @@
+package br.com.topone.elevenapi.projections;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+public interface UserWithProfileProjection {
+    
+    Long getId();
+    String getName();
+    String getEmail();
+    boolean getActive();
+    Instant getCreatedAt();
+    Instant getUpdatedAt();
+    Long getProfileId();
+    String getCpf();
+    LocalDate getBirthDate();
+    String getPhone();
+    String getMotherName();
+    String getFatherName();
+    
+}
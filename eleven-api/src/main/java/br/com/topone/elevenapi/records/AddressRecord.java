@@ -1,6 +1,7 @@
 package br.com.topone.elevenapi.records;
 
 import br.com.topone.elevenapi.entities.Address;
+import br.com.topone.elevenapi.projections.AddressProjection;
 import jakarta.validation.constraints.NotBlank;
 
 public record AddressRecord(
@@ -27,4 +28,17 @@ public record AddressRecord(
                 address.getUf()
         );
     }
+
+    public AddressRecord(AddressProjection address) {
+        this(
+                address.getId(),
+                address.getZipCode(),
+                address.getStreet(),
+                address.getNumber(),
+                address.getComplement(),
+                address.getDistrict(),
+                address.getCity(),
+                address.getUf()
+        );
+    }
 }
@@ -0,0 +1,11 @@
+package br.com.topone.elevenapi.records;
+
+public record CacheRegionStatsRecord(
+        String region,
+        long hits,
+        long misses,
+        long puts,
+        double hitRatio,
+        long size
+) {
+}
@@ -0,0 +1,30 @@
+package br.com.topone.elevenapi.records;
+
+import br.com.topone.elevenapi.service.pagination.KeysetCursor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página da paginação por cursor. {@code nextCursor} é {@code null} na última página;
+ * {@code totalElements} só é preenchido quando pedido ({@code count=estimate|exact}).
+ */
+public record CursorPage<T>(
+        List<T> content,
+        int size,
+        boolean hasNext,
+        String nextCursor,
+        Long totalElements
+) {
+
+    /**
+     * Monta a página a partir de até {@code size + 1} linhas: a linha extra só indica que há próxima página.
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int size, Function<E, KeysetCursor> cursorOf,
+                                          Function<E, T> mapper, Long totalElements) {
+        boolean hasNext = rows.size() > size;
+        List<E> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? cursorOf.apply(page.getLast()).encode() : null;
+        return new CursorPage<>(page.stream().map(mapper).toList(), size, hasNext, nextCursor, totalElements);
+    }
+}
@@ -0,0 +1,8 @@
+package br.com.topone.elevenapi.records;
+
+public record UserImportErrorRecord(
+        long line,
+        String email,
+        String message
+) {
+}
@@ -0,0 +1,16 @@
+package br.com.topone.elevenapi.records;
+
+import java.util.List;
+
+/**
+ * Resumo de uma importação em lote. {@code errors} traz no máximo {@code users.import.max-errors}
+ * linhas; {@code failed} conta todas.
+ */
+public record UserImportResultRecord(
+        long total,
+        long imported,
+        long failed,
+        List<UserImportErrorRecord> errors,
+        boolean errorsTruncated
+) {
+}
@@ -2,6 +2,7 @@ package br.com.topone.elevenapi.records;
 
 import br.com.topone.elevenapi.entities.User;
 import br.com.topone.elevenapi.entities.UserProfile;
+import br.com.topone.elevenapi.projections.UserWithProfileProjection;
 
 import java.time.Instant;
 import java.time.LocalDate;
@@ -45,4 +46,23 @@ public record UserWithProfileRecord(
                         : null
         );
     }
-}
\ No newline at end of file
+
+    // Endereços só se aplicam a quem tem perfil; sem perfil ficam null, como no construtor acima
+    public UserWithProfileRecord(UserWithProfileProjection row, List<AddressRecord> addresses) {
+        this(
+                row.getId(),
+                row.getName(),
+                row.getEmail(),
+                row.getActive(),
+                row.getCreatedAt(),
+                row.getUpdatedAt(),
+                row.getProfileId(),
+                row.getCpf(),
+                row.getBirthDate(),
+                row.getPhone(),
+                row.getMotherName(),
+                row.getFatherName(),
+                row.getProfileId() != null ? addresses : null
+        );
+    }
+}
@@ -1,7 +1,23 @@
 package br.com.topone.elevenapi.repositories;
 
 import br.com.topone.elevenapi.entities.Address;
+import br.com.topone.elevenapi.projections.AddressProjection;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface AddressRepository extends JpaRepository<Address, Long> {
+
+    // Endereços de vários perfis numa única consulta, sem carregar as entidades
+    @Query("""
+            SELECT obj.userProfile.id AS profileId, obj.id AS id, obj.zipCode AS zipCode, obj.street AS street,
+                   obj.number AS number, obj.complement AS complement, obj.district AS district,
+                   obj.city AS city, obj.uf AS uf
+            FROM Address obj
+            WHERE obj.userProfile.id IN :profileIds
+            ORDER BY obj.id
+            """)
+    List<AddressProjection> findByProfileIds(Collection<Long> profileIds);
 }
@@ -0,0 +1,36 @@
+package br.com.topone.elevenapi.repositories;
+
+import br.com.topone.elevenapi.entities.EmailOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    // Pendentes já vencidos, ou em envio cuja reserva expirou (instância que caiu no meio do envio)
+    @Query("""
+            SELECT obj.id FROM EmailOutbox obj
+            WHERE (obj.status = 'PENDING' AND obj.nextAttemptAt <= :now)
+               OR (obj.status = 'SENDING' AND obj.lockedUntil < :now)
+            ORDER BY obj.nextAttemptAt
+            """)
+    List<Long> findDueIds(Instant now, Pageable pageable);
+
+    // Reserva condicional: só uma instância consegue mudar a linha para SENDING
+    @Modifying
+    @Query("""
+            UPDATE EmailOutbox obj SET obj.status = 'SENDING', obj.lockedUntil = :lockedUntil
+            WHERE obj.id = :id
+              AND ((obj.status = 'PENDING' AND obj.nextAttemptAt <= :now)
+                OR (obj.status = 'SENDING' AND obj.lockedUntil < :now))
+            """)
+    int claim(Long id, Instant now, Instant lockedUntil);
+
+    @Modifying
+    @Query("DELETE FROM EmailOutbox obj WHERE obj.status = 'SENT' AND obj.sentAt < :before")
+    int deleteSentBefore(Instant before);
+}
@@ -1,14 +1,29 @@
 package br.com.topone.elevenapi.repositories;
 
 import br.com.topone.elevenapi.entities.PasswordRecover;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 public interface PasswordRecoverRepository extends JpaRepository<PasswordRecover, Long> {
 
-    @Query("SELECT obj FROM PasswordRecover obj WHERE obj.token = :token AND obj.expiration > :now")
-    List<PasswordRecover> searchValidTokens(String token, Instant now);
+    @Query("SELECT obj FROM PasswordRecover obj WHERE obj.tokenHash = :tokenHash AND obj.expiration > :now")
+    Optional<PasswordRecover> searchValidToken(String tokenHash, Instant now);
+
+    // Remove todos os tokens do email; retorna 0 se outra requisição já consumiu o token
+    @Modifying
+    @Query("DELETE FROM PasswordRecover obj WHERE obj.email = :email")
+    int deleteByEmail(String email);
+
+    @Query("SELECT obj.id FROM PasswordRecover obj WHERE obj.expiration <= :now ORDER BY obj.id")
+    List<Long> findExpiredIds(Instant now, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM PasswordRecover obj WHERE obj.id IN :ids")
+    int deleteByIds(List<Long> ids);
 }
@@ -1,10 +1,21 @@
 package br.com.topone.elevenapi.repositories;
 
 import br.com.topone.elevenapi.entities.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
 
 public interface RoleRepository extends JpaRepository<Role, Long> {
     
+    // Consultas de roles vão para o query cache (invalidado a cada escrita em tb_role)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Role findByAuthority(String authority);
+
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Role> findAll();
     
 }
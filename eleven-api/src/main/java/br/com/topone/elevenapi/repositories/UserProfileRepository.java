@@ -1,9 +1,29 @@
 package br.com.topone.elevenapi.repositories;
 
 import br.com.topone.elevenapi.entities.UserProfile;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface UserProfileRepository extends JpaRepository<UserProfile, Long> {
     
     boolean existsByUserId(Long userId);
+
+    // O usuário vem no mesmo SELECT (to-one não afeta a paginação); roles e endereços
+    // são carregados em lote via @BatchSize, uma consulta para a página inteira
+    @EntityGraph(attributePaths = "user")
+    @Query(value = "SELECT obj FROM UserProfile obj", countQuery = "SELECT COUNT(obj) FROM UserProfile obj")
+    Page<UserProfile> findPageWithUser(Pageable pageable);
+
+    @EntityGraph(attributePaths = "user")
+    List<UserProfile> findAllByOrderByIdAsc(Limit limit);
+
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT obj FROM UserProfile obj WHERE obj.id > :id ORDER BY obj.id")
+    List<UserProfile> findPageAfterId(Long id, Limit limit);
 }
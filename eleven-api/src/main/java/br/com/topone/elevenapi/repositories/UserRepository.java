@@ -2,19 +2,55 @@ package br.com.topone.elevenapi.repositories;
 
 import br.com.topone.elevenapi.entities.User;
 import br.com.topone.elevenapi.projections.UserDetailsProjection;
+import br.com.topone.elevenapi.projections.UserWithProfileProjection;
+import br.com.topone.elevenapi.service.pagination.KeysetCursor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    // Usuário e perfil numa linha só (o perfil é 1:1, então o LIMIT continua correto)
+    String USER_WITH_PROFILE = """
+            SELECT obj.id AS id, obj.name AS name, obj.email AS email, obj.active AS active,
+                   obj.createdAt AS createdAt, obj.updatedAt AS updatedAt, p.id AS profileId, p.cpf AS cpf,
+                   p.birthDate AS birthDate, p.phone AS phone, p.motherName AS motherName, p.fatherName AS fatherName
+            FROM User obj
+            LEFT JOIN obj.profile p
+            """;
+
+    // Linhas buscadas do cursor do banco a cada ida, nas consultas em streaming
+    String STREAM_FETCH_SIZE = "500";
+
     User findByEmail(String email);
 
+    boolean existsByEmail(String email);
+
+    @Query("SELECT obj.id FROM User obj WHERE obj.email = :email")
+    Optional<Long> findIdByEmail(String email);
+
+    // Todos os emails, para montar o EmailIndex; consumir dentro de uma transação
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query("SELECT obj.email FROM User obj")
+    Stream<String> streamAllEmails();
+
+    // Quais destes emails já estão cadastrados, numa única consulta
+    @Query("SELECT obj.email FROM User obj WHERE obj.email IN :emails")
+    Set<String> findExistingEmails(Collection<String> emails);
+
     @Query(nativeQuery = true, value = """
-            SELECT tb_user.email AS username, tb_user.password, tb_role.id AS roleId, tb_role.authority, tb_user.active
+            SELECT tb_user.id AS id, tb_user.email AS username, tb_user.password, tb_role.id AS roleId, tb_role.authority, tb_user.active
 				FROM tb_user
 				INNER JOIN tb_user_role ON tb_user.id = tb_user_role.user_id
 				INNER JOIN tb_role ON tb_role.id = tb_user_role.role_id
@@ -23,4 +59,56 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<UserDetailsProjection> searchUserAndRolesByEmail(String email);
 	
     Page<User> findByNameContainingIgnoreCase(String name, Pageable pageable);
+
+    // Paginação por cursor: a posição vem da última linha da página anterior, sem OFFSET
+    List<User> findAllByOrderByIdAsc(Limit limit);
+
+    @Query("SELECT obj FROM User obj WHERE obj.id > :id ORDER BY obj.id")
+    List<User> findPageAfterId(Long id, Limit limit);
+
+    List<User> findAllByOrderByNameAscIdAsc(Limit limit);
+
+    // Comparação de tupla para o índice (name, id) ser usado como intervalo
+    @Query("SELECT obj FROM User obj WHERE (obj.name, obj.id) > (:name, :id) ORDER BY obj.name, obj.id")
+    List<User> findPageAfterName(String name, Long id, Limit limit);
+
+    @Query(value = USER_WITH_PROFILE, countQuery = "SELECT COUNT(obj) FROM User obj")
+    Page<UserWithProfileProjection> findAllWithProfile(Pageable pageable);
+
+    @Query(USER_WITH_PROFILE + "WHERE obj.id = :id")
+    Optional<UserWithProfileProjection> findWithProfileById(Long id);
+
+    @Query(USER_WITH_PROFILE + "ORDER BY obj.id")
+    List<UserWithProfileProjection> findWithProfileOrderById(Limit limit);
+
+    @Query(USER_WITH_PROFILE + "WHERE obj.id > :id ORDER BY obj.id")
+    List<UserWithProfileProjection> findWithProfileAfterId(Long id, Limit limit);
+
+    @Query(USER_WITH_PROFILE + "ORDER BY obj.name, obj.id")
+    List<UserWithProfileProjection> findWithProfileOrderByName(Limit limit);
+
+    @Query(USER_WITH_PROFILE + "WHERE (obj.name, obj.id) > (:name, :id) ORDER BY obj.name, obj.id")
+    List<UserWithProfileProjection> findWithProfileAfterName(String name, Long id, Limit limit);
+
+    // Cursor somente leitura para a exportação; precisa ser consumido (e fechado) dentro de uma transação
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query(USER_WITH_PROFILE + "ORDER BY obj.id")
+    Stream<UserWithProfileProjection> streamAllWithProfile();
+
+    default List<UserWithProfileProjection> findWithProfilePage(String sort, KeysetCursor after, Limit limit) {
+        if ("name".equals(sort)) {
+            return after == null ? findWithProfileOrderByName(limit)
+                    : findWithProfileAfterName(after.key(), after.id(), limit);
+        }
+        return after == null ? findWithProfileOrderById(limit) : findWithProfileAfterId(after.id(), limit);
+    }
+
+    // Próxima página após o cursor (ou a primeira, com cursor nulo) na ordenação "id" ou "name"
+    default List<User> findPage(String sort, KeysetCursor after, Limit limit) {
+        if ("name".equals(sort)) {
+            return after == null ? findAllByOrderByNameAscIdAsc(limit) : findPageAfterName(after.key(), after.id(), limit);
+        }
+        return after == null ? findAllByOrderByIdAsc(limit) : findPageAfterId(after.id(), limit);
+    }
 }
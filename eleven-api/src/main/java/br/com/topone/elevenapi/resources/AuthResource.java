@@ -4,7 +4,6 @@ import br.com.topone.elevenapi.dtos.user.UserDTO;
 import br.com.topone.elevenapi.records.EmailRecord;
 import br.com.topone.elevenapi.records.NewPasswordRecord;
 import br.com.topone.elevenapi.service.AuthService;
-import jakarta.mail.MessagingException;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -21,7 +20,7 @@ public class AuthResource {
     }
 
     @PostMapping(value = "/recover-token")
-    public ResponseEntity<Void> createRecoveryToken(@Valid @RequestBody EmailRecord body) throws MessagingException {
+    public ResponseEntity<Void> createRecoveryToken(@Valid @RequestBody EmailRecord body) {
         service.createRecoveryToken(body);
         return ResponseEntity.noContent().build();
     }
@@ -0,0 +1,30 @@
+package br.com.topone.elevenapi.resources;
+
+import br.com.topone.elevenapi.records.CacheRegionStatsRecord;
+import br.com.topone.elevenapi.service.CacheStatsService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(value = "/cache-stats")
+public class CacheStatsResource {
+    
+    private final CacheStatsService service;
+    
+    public CacheStatsResource(CacheStatsService service) {
+        this.service = service;
+    }
+    
+    // estatísticas do cache de segundo nível por região
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping
+    public ResponseEntity<List<CacheRegionStatsRecord>> regions() {
+        return ResponseEntity.ok().body(service.regions());
+    }
+    
+}
@@ -2,7 +2,9 @@ package br.com.topone.elevenapi.resources;
 
 import br.com.topone.elevenapi.dtos.user.UserDTO;
 import br.com.topone.elevenapi.dtos.user.UserInsertDTO;
+import br.com.topone.elevenapi.records.CursorPage;
 import br.com.topone.elevenapi.records.UserProfileRecord;
+import br.com.topone.elevenapi.service.pagination.CountMode;
 import br.com.topone.elevenapi.service.usuario.UserProfileService;
 import jakarta.mail.MessagingException;
 import jakarta.validation.Valid;
@@ -29,6 +31,16 @@ public class UserProfileResource {
         return ResponseEntity.ok().body(profiles);
     }
     
+    // paginação por cursor, ordenada por id
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<UserProfileRecord>> findAllByCursor(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @RequestParam(value = "count", defaultValue = "none") String count) {
+        CursorPage<UserProfileRecord> profiles = service.findAllByCursor(cursor, size, CountMode.from(count));
+        return ResponseEntity.ok().body(profiles);
+    }
+    
     // find by id
     @GetMapping(value = "/{id}")
     public ResponseEntity<UserProfileRecord> findById(@PathVariable Long id) {
@@ -3,16 +3,23 @@ package br.com.topone.elevenapi.resources;
 import br.com.topone.elevenapi.dtos.user.UserDTO;
 import br.com.topone.elevenapi.dtos.user.UserInsertDTO;
 import br.com.topone.elevenapi.dtos.user.UserUpdateDTO;
+import br.com.topone.elevenapi.records.CursorPage;
+import br.com.topone.elevenapi.records.UserImportResultRecord;
 import br.com.topone.elevenapi.records.UserWithProfileRecord;
+import br.com.topone.elevenapi.service.pagination.CountMode;
+import br.com.topone.elevenapi.service.usuario.UserImportReader;
+import br.com.topone.elevenapi.service.usuario.UserImportService;
 import br.com.topone.elevenapi.service.usuario.UserService;
-import jakarta.mail.MessagingException;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -20,9 +27,11 @@ import java.util.List;
 public class UserResource {
     
     private final UserService service;
+    private final UserImportService importService;
     
-    public UserResource(UserService service) {
+    public UserResource(UserService service, UserImportService importService) {
         this.service = service;
+        this.importService = importService;
     }
     
     // find all paged
@@ -32,12 +41,26 @@ public class UserResource {
         return ResponseEntity.ok().body(users);
     }
     
-    // buscar por nome
+    // paginação por cursor: envie o nextCursor da resposta anterior em cursor
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<UserDTO>> findAllByCursor(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "sort", defaultValue = "id") String sort,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @RequestParam(value = "count", defaultValue = "none") String count) {
+        CursorPage<UserDTO> users = service.findAllByCursor(cursor, sort, size, CountMode.from(count));
+        return ResponseEntity.ok().body(users);
+    }
+    
+    // buscar por nome (LIKE) ou, com q, pelo índice de texto
     @GetMapping("/search")
     public ResponseEntity<Page<UserDTO>> findByName(
             @RequestParam(value = "name", defaultValue = "") String name,
+            @RequestParam(value = "q", required = false) String query,
             Pageable pageable) {
-        Page<UserDTO> users = service.findByName(name, pageable);
+        Page<UserDTO> users = query != null
+                ? service.search(query, pageable)
+                : service.findByName(name, pageable);
         return ResponseEntity.ok().body(users);
     }
     
@@ -57,7 +80,7 @@ public class UserResource {
     
     // insert user
     @PostMapping
-    public ResponseEntity<UserDTO> insertAdm(@RequestBody @Valid UserInsertDTO dto) throws MessagingException {
+    public ResponseEntity<UserDTO> insertAdm(@RequestBody @Valid UserInsertDTO dto) {
         var newDto = service.insert(dto);
         var uri = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}")
                 .buildAndExpand(newDto.getId()).toUri();
@@ -65,6 +88,17 @@ public class UserResource {
         return ResponseEntity.created(uri).body(newDto);
     }
     
+    // importação em lote (CSV com cabeçalho ou NDJSON); o corpo é lido em streaming
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<UserImportResultRecord> importUsers(
+            InputStream body,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestParam(value = "welcome", defaultValue = "true") boolean welcome) {
+        var result = importService.importUsers(body, UserImportReader.Format.from(contentType), welcome);
+        return ResponseEntity.ok().body(result);
+    }
+    
     // Update user
     @PutMapping(value = "/{id}")
     public ResponseEntity<UserDTO> update(@PathVariable("id") Long id, @RequestBody @Valid UserUpdateDTO dto) {
@@ -1,14 +1,23 @@
 package br.com.topone.elevenapi.resources;
 
+import br.com.topone.elevenapi.records.CursorPage;
 import br.com.topone.elevenapi.records.UserWithProfileRecord;
+import br.com.topone.elevenapi.service.pagination.CountMode;
+import br.com.topone.elevenapi.service.usuario.UserExportWriter;
 import br.com.topone.elevenapi.service.usuario.UserWithProfileService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -28,6 +37,35 @@ public class UserWithProfileResource {
         return ResponseEntity.ok(usersWithProfiles);
     }
 
+    /**
+     * Paginação por cursor (sort=id ou name); envie o nextCursor da resposta anterior em cursor.
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<UserWithProfileRecord>> getUsersWithProfilesByCursor(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "sort", defaultValue = "id") String sort,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @RequestParam(value = "count", defaultValue = "none") String count) {
+        return ResponseEntity.ok(userWithProfileService.getUsersWithProfilesByCursor(
+                cursor, sort, size, CountMode.from(count)));
+    }
+
+    /**
+     * Exporta todos os usuários com perfil e endereços (format=NDJSON ou CSV), escrevendo a resposta
+     * à medida que as linhas são lidas do banco.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsersWithProfiles(
+            @RequestParam(value = "format", defaultValue = "NDJSON") UserExportWriter.Format format) {
+        StreamingResponseBody body = output -> userWithProfileService.exportUsersWithProfiles(output, format);
+        String fileName = STR."users-with-profiles.\{format.extension()}";
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.mediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+
     /**
      * Endpoint to pursue a specific user with your profile by ID.
      */
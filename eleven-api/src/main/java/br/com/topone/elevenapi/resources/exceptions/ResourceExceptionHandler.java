@@ -3,8 +3,12 @@ package br.com.topone.elevenapi.resources.exceptions;
 import br.com.topone.elevenapi.records.CustomErrorRecord;
 import br.com.topone.elevenapi.service.exceptions.DatabaseException;
 import br.com.topone.elevenapi.service.exceptions.EmailException;
+import br.com.topone.elevenapi.service.exceptions.InvalidCursorException;
+import br.com.topone.elevenapi.service.exceptions.InvalidImportException;
 import br.com.topone.elevenapi.service.exceptions.ResourceNotFoundException;
+import br.com.topone.elevenapi.service.exceptions.ServiceUnavailableException;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -40,6 +44,30 @@ public class ResourceExceptionHandler {
         return ResponseEntity.status(status).body(err);
     }
     
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<StandardError> invalidCursor(InvalidCursorException e, HttpServletRequest request) {
+        var status = HttpStatus.BAD_REQUEST;
+        var err = new StandardError();
+        err.setTimestamp(Instant.now());
+        err.setStatus(status.value());
+        err.setError("Invalid pagination parameter");
+        err.setMessage(e.getMessage());
+        err.setPath(request.getRequestURI());
+        return ResponseEntity.status(status).body(err);
+    }
+    
+    @ExceptionHandler(InvalidImportException.class)
+    public ResponseEntity<StandardError> invalidImport(InvalidImportException e, HttpServletRequest request) {
+        var status = HttpStatus.BAD_REQUEST;
+        var err = new StandardError();
+        err.setTimestamp(Instant.now());
+        err.setStatus(status.value());
+        err.setError("Invalid import file");
+        err.setMessage(e.getMessage());
+        err.setPath(request.getRequestURI());
+        return ResponseEntity.status(status).body(err);
+    }
+    
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ValidationError> validation(MethodArgumentNotValidException e, HttpServletRequest request) {
         var status = HttpStatus.UNPROCESSABLE_ENTITY;
@@ -67,4 +95,16 @@ public class ResourceExceptionHandler {
                 request.getRequestURI());
         return ResponseEntity.status(status).body(err);
     }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<StandardError> serviceUnavailable(ServiceUnavailableException e, HttpServletRequest request) {
+        var status = HttpStatus.SERVICE_UNAVAILABLE;
+        var err = new StandardError();
+        err.setTimestamp(Instant.now());
+        err.setStatus(status.value());
+        err.setError("Service unavailable");
+        err.setMessage(e.getMessage());
+        err.setPath(request.getRequestURI());
+        return ResponseEntity.status(status).header(HttpHeaders.RETRY_AFTER, "1").body(err);
+    }
 }
@@ -8,8 +8,8 @@ import br.com.topone.elevenapi.repositories.PasswordRecoverRepository;
 import br.com.topone.elevenapi.repositories.UserRepository;
 import br.com.topone.elevenapi.service.exceptions.ForbiddenException;
 import br.com.topone.elevenapi.service.exceptions.ResourceNotFoundException;
-import jakarta.mail.MessagingException;
-import org.springframework.beans.factory.annotation.Value;
+import br.com.topone.elevenapi.service.usuario.UserDetailsCache;
+import br.com.topone.elevenapi.util.DigestUtil;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -18,81 +18,108 @@ import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.Instant;
-import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 
 @Service
 public class AuthService {
 
-    @Value("${email.password-recover.token.minutes}")
-    private Long tokenMinutes;
-
-    @Value("${email.password-recover.uri}")
-    private String recoverUri;
-
     private final UserRepository userRepository;
     private final PasswordRecoverRepository passwordRecoverRepository;
-    private final EmailService emailService;
+    private final EmailOutboxService emailOutboxService;
     private PasswordEncoder passwordEncoder;
+    private final UserDetailsCache userDetailsCache;
 
     public AuthService(UserRepository userRepository,
                        PasswordRecoverRepository passwordRecoverRepository,
-                       EmailService emailService,
-                       PasswordEncoder passwordEncoder) {
+                       EmailOutboxService emailOutboxService,
+                       PasswordEncoder passwordEncoder,
+                       UserDetailsCache userDetailsCache) {
         this.userRepository = userRepository;
         this.passwordRecoverRepository = passwordRecoverRepository;
-        this.emailService = emailService;
+        this.emailOutboxService = emailOutboxService;
         this.passwordEncoder = passwordEncoder;
+        this.userDetailsCache = userDetailsCache;
     }
 
     @Transactional
-    public void createRecoveryToken(EmailRecord body) throws MessagingException {
-        var user = userRepository.findByEmail(body.email());
-        if (user == null) {
-            throw new ResourceNotFoundException("Email não encontrado");
-        }
+    public void createRecoveryToken(EmailRecord body) {
+        // Consulta direta: o filtro do EmailIndex não conhece emails de outras instâncias
+        Long userId = userRepository.findIdByEmail(body.email().toLowerCase(Locale.ROOT))
+                .orElseThrow(() -> new ResourceNotFoundException("Email não encontrado"));
+
+        // O token é gerado pelo EmailOutboxDispatcher no envio (issuePasswordToken), não fica na outbox
+        emailOutboxService.enqueueRecovery(userId, body.email());
+    }
 
+    /**
+     * Gera um token de uso único para definir a senha do email e grava só o seu hash.
+     * @return o token, para o link enviado por email
+     */
+    @Transactional
+    public String issuePasswordToken(String email, Duration validity) {
         String token = UUID.randomUUID().toString();
+        registerPasswordToken(email, token, validity);
+        return token;
+    }
 
+    // Grava o hash de um token gerado por quem chama (o dispatcher deriva o token da linha da outbox)
+    @Transactional
+    public void registerPasswordToken(String email, String token, Duration validity) {
         var entity = new PasswordRecover();
-        entity.setEmail(body.email());
-        entity.setToken(token);
-        entity.setExpiration(Instant.now().plusSeconds(tokenMinutes * 60L));
-        entity = passwordRecoverRepository.save(entity);
-
-        emailService.sendRecoveryEmail(body.email(), user.getName(), token, recoverUri, tokenMinutes);
+        entity.setEmail(email);
+        entity.setTokenHash(DigestUtil.sha256Hex(token));
+        entity.setExpiration(Instant.now().plus(validity));
+        passwordRecoverRepository.save(entity);
     }
 
     @Transactional
     public void saveNewPassword(NewPasswordRecord body) {
-        List<PasswordRecover> result = passwordRecoverRepository.searchValidTokens(body.token(), Instant.now());
-        if (result.isEmpty()) {
+        var recover = passwordRecoverRepository.searchValidToken(DigestUtil.sha256Hex(body.token()), Instant.now())
+                .orElseThrow(() -> new ResourceNotFoundException("Token inválido"));
+
+        // Consome o token (e os demais pendentes do mesmo email); só uma requisição concorrente passa
+        if (passwordRecoverRepository.deleteByEmail(recover.getEmail()) == 0) {
             throw new ResourceNotFoundException("Token inválido");
         }
 
-        var user = userRepository.findByEmail(result.get(0).getEmail());
+        var user = userRepository.findByEmail(recover.getEmail());
         user.setPassword(passwordEncoder.encode(body.password()));
         user = userRepository.save(user);
+        userDetailsCache.invalidate(user.getEmail());
     }
 
-    @Transactional(readOnly = true)
     public void validateSelfOrAdmin(Long userId) {
-        var user = authenticated();
-        if (!user.getId().equals(userId) && !user.hasRole("ROLE_ADMIN")) {
+        var user = authenticatedPrincipal();
+        if (!user.id().equals(userId) && !user.hasRole("ROLE_ADMIN")) {
             throw new ForbiddenException("Acesso negado");
         }
     }
 
+    @Transactional(readOnly = true)
     public User authenticated() {
+        var principal = authenticatedPrincipal();
+        return userRepository.findById(principal.id())
+                .orElseThrow(() -> new UsernameNotFoundException("Invalid user"));
+    }
+
+    // Usuário logado a partir das claims do token; só consulta o banco se o token não tiver user_id
+    public AuthenticatedUser authenticatedPrincipal() {
+        AuthenticatedUser principal;
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            Jwt jwtPrincipal = (Jwt) authentication.getPrincipal();
-            String username = jwtPrincipal.getClaim("username");
-            return userRepository.findByEmail(username);
+            principal = AuthenticatedUser.from((Jwt) authentication.getPrincipal());
         } catch (Exception e) {
             throw new UsernameNotFoundException("Invalid user");
         }
+        if (principal.id() != null) {
+            return principal;
+        }
+        return userRepository.findIdByEmail(principal.username())
+                .map(principal::withId)
+                .orElseThrow(() -> new UsernameNotFoundException("Invalid user"));
     }
 
     
@@ -0,0 +1,30 @@
+package br.com.topone.elevenapi.service;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Principal leve montado a partir das claims do JWT, sem acesso ao banco.
+ * {@code id} pode ser nulo em tokens emitidos antes da claim {@code user_id} existir.
+ */
+public record AuthenticatedUser(Long id, String username, Set<String> authorities) {
+
+    public static AuthenticatedUser from(Jwt jwt) {
+        String id = jwt.getClaimAsString("user_id");
+        List<String> authorities = jwt.getClaimAsStringList("authorities");
+        return new AuthenticatedUser(
+                id != null ? Long.valueOf(id) : null,
+                jwt.getClaimAsString("username"),
+                authorities == null ? Set.of() : Set.copyOf(authorities));
+    }
+
+    public boolean hasRole(String roleName) {
+        return authorities.contains(roleName);
+    }
+
+    public AuthenticatedUser withId(Long id) {
+        return new AuthenticatedUser(id, username, authorities);
+    }
+}
@@ -0,0 +1,56 @@
+package br.com.topone.elevenapi.service;
+
+import br.com.topone.elevenapi.records.CacheRegionStatsRecord;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.StreamSupport;
+
+/**
+ * Estatísticas do cache de segundo nível: acertos, faltas e escritas por região (Hibernate)
+ * e o número de entradas de cada região (Caffeine).
+ */
+@Service
+public class CacheStatsService {
+
+    private final Statistics statistics;
+    private final CacheManager hibernateCacheManager;
+
+    public CacheStatsService(EntityManagerFactory entityManagerFactory, CacheManager hibernateCacheManager) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.hibernateCacheManager = hibernateCacheManager;
+    }
+
+    public List<CacheRegionStatsRecord> regions() {
+        List<CacheRegionStatsRecord> result = new ArrayList<>();
+        for (String region : hibernateCacheManager.getCacheNames()) {
+            CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+            long hits = stats == null ? 0 : stats.getHitCount();
+            long misses = stats == null ? 0 : stats.getMissCount();
+            long puts = stats == null ? 0 : stats.getPutCount();
+            double hitRatio = hits + misses == 0 ? 0.0 : (double) hits / (hits + misses);
+            result.add(new CacheRegionStatsRecord(region, hits, misses, puts, hitRatio, size(region)));
+        }
+        result.sort((a, b) -> a.region().compareTo(b.region()));
+        return result;
+    }
+
+    private long size(String region) {
+        Cache<Object, Object> cache = hibernateCacheManager.getCache(region);
+        if (cache == null) {
+            return 0;
+        }
+        try {
+            return cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class).estimatedSize();
+        } catch (IllegalArgumentException e) {
+            return StreamSupport.stream(cache.spliterator(), false).count();
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package br.com.topone.elevenapi.service;
+
+import br.com.topone.elevenapi.entities.EmailOutbox;
+import br.com.topone.elevenapi.entities.User;
+import br.com.topone.elevenapi.repositories.EmailOutboxRepository;
+import br.com.topone.elevenapi.repositories.UserRepository;
+import br.com.topone.elevenapi.service.exceptions.ResourceNotFoundException;
+import br.com.topone.elevenapi.util.DigestUtil;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Envia os emails da outbox em lotes. Cada linha é reservada por um período ({@code lease-seconds})
+ * antes do envio, que acontece fora de transação; falhas são reagendadas com backoff exponencial
+ * e, após {@code max-attempts}, a linha vai para DEAD.
+ * <p>
+ * O token do link de senha é gerado aqui, na montagem da mensagem: a outbox só guarda o id do usuário.
+ * O token é um HMAC do id da linha, então as retentativas reenviam o mesmo link; o hash é registrado
+ * uma única vez por linha ({@code tokenIssuedAt}).
+ */
+@Component
+public class EmailOutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {
+    };
+
+    private final EmailOutboxRepository repository;
+    private final EmailService emailService;
+    private final UserRepository userRepository;
+    private final AuthService authService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${email.outbox.batch-size}")
+    private Integer batchSize;
+
+    @Value("${email.outbox.max-attempts}")
+    private Integer maxAttempts;
+
+    @Value("${email.outbox.lease-seconds}")
+    private Long leaseSeconds;
+
+    @Value("${email.outbox.backoff-initial-seconds}")
+    private Long backoffInitialSeconds;
+
+    @Value("${email.outbox.backoff-max-seconds}")
+    private Long backoffMaxSeconds;
+
+    @Value("${email.outbox.retention-days}")
+    private Long retentionDays;
+
+    @Value("${email.welcome.token-hours}")
+    private Long welcomeTokenHours;
+
+    @Value("${email.password-recover.token.minutes}")
+    private Long recoverTokenMinutes;
+
+    @Value("${email.password-recover.uri}")
+    private String recoverUri;
+
+    @Value("${email.outbox.token-secret}")
+    private String tokenSecret;
+
+    private byte[] tokenKey;
+
+    public EmailOutboxDispatcher(EmailOutboxRepository repository, EmailService emailService,
+                                 UserRepository userRepository, AuthService authService,
+                                 ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.emailService = emailService;
+        this.userRepository = userRepository;
+        this.authService = authService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    void initTokenKey() {
+        if (tokenSecret == null || tokenSecret.isBlank()) {
+            logger.warn("email.outbox.token-secret não configurado; usando chave temporária (retentativas após "
+                    + "restart ou em outra instância enviam um link inválido)");
+            tokenKey = new byte[32];
+            new SecureRandom().nextBytes(tokenKey);
+        } else {
+            tokenKey = tokenSecret.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval-ms}")
+    public void dispatch() {
+        List<EmailOutbox> batch;
+        do {
+            batch = claimBatch();
+            send(batch);
+        } while (batch.size() == batchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.purge-interval-ms}")
+    public void purgeSent() {
+        Instant before = Instant.now().minus(Duration.ofDays(retentionDays));
+        Integer removed = transactionTemplate.execute(status -> repository.deleteSentBefore(before));
+        if (removed != null && removed > 0) {
+            logger.info("{} emails enviados removidos da outbox", removed);
+        }
+    }
+
+    private List<EmailOutbox> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            Instant lockedUntil = now.plusSeconds(leaseSeconds);
+            List<EmailOutbox> claimed = new ArrayList<>();
+            for (Long id : repository.findDueIds(now, PageRequest.of(0, batchSize))) {
+                if (repository.claim(id, now, lockedUntil) == 1) {
+                    repository.findById(id).ifPresent(claimed::add);
+                }
+            }
+            return claimed;
+        });
+    }
+
+    // Monta todas as mensagens do lote e envia pelas conexões do pool SMTP
+    private void send(List<EmailOutbox> batch) {
+        Map<MimeMessage, Long> messages = new LinkedHashMap<>();
+        for (EmailOutbox email : batch) {
+            try {
+                MimeMessage message = createMessage(email);
+                if (message == null) {
+                    markSent(email.getId());
+                } else {
+                    messages.put(message, email.getId());
+                }
+            } catch (Exception e) {
+                markFailed(email.getId(), e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        Map<MimeMessage, MessagingException> failures;
+        try {
+            failures = emailService.sendBatch(new ArrayList<>(messages.keySet()));
+        } catch (MessagingException e) {
+            messages.values().forEach(id -> markFailed(id, e));
+            return;
+        }
+        messages.forEach((message, id) -> {
+            MessagingException failure = failures.get(message);
+            if (failure == null) {
+                markSent(id);
+            } else {
+                markFailed(id, failure);
+            }
+        });
+    }
+
+    private MimeMessage createMessage(EmailOutbox email) throws Exception {
+        // Sem mensagem a enviar não há token a registrar
+        if (email.getType() == EmailOutbox.Type.WELCOME && !emailService.welcomeEnabled()) {
+            return null;
+        }
+        Map<String, Object> payload = objectMapper.readValue(email.getPayload(), PAYLOAD_TYPE);
+        long userId = ((Number) payload.get(EmailOutbox.USER_ID)).longValue();
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException(STR."Usuário \{userId} não encontrado"));
+
+        return switch (email.getType()) {
+            case WELCOME -> emailService.createWelcomeMessage(email.getRecipient(), user.getName(), user.getEmail(),
+                    passwordToken(email, user, Duration.ofHours(welcomeTokenHours)), recoverUri, welcomeTokenHours);
+            case PASSWORD_RECOVERY -> emailService.createRecoveryMessage(email.getRecipient(), user.getName(),
+                    user.getEmail(), passwordToken(email, user, Duration.ofMinutes(recoverTokenMinutes)), recoverUri,
+                    recoverTokenMinutes);
+        };
+    }
+
+    // Mesmo token em todas as tentativas da linha; o hash e a marcação da linha são gravados juntos
+    private String passwordToken(EmailOutbox email, User user, Duration validity) {
+        String token = DigestUtil.hmacSha256Hex(tokenKey, STR."\{email.getId()}:\{email.getCreatedAt().toEpochMilli()}");
+        if (email.getTokenIssuedAt() == null) {
+            transactionTemplate.executeWithoutResult(status -> {
+                authService.registerPasswordToken(user.getEmail(), token, validity);
+                repository.findById(email.getId()).ifPresent(entity -> entity.setTokenIssuedAt(Instant.now()));
+            });
+        }
+        return token;
+    }
+
+    private void markSent(Long id) {
+        transactionTemplate.executeWithoutResult(status -> repository.findById(id).ifPresent(entity -> {
+            entity.setStatus(EmailOutbox.Status.SENT);
+            entity.setSentAt(Instant.now());
+            entity.setLockedUntil(null);
+            entity.setLastError(null);
+        }));
+    }
+
+    private void markFailed(Long id, Exception error) {
+        transactionTemplate.executeWithoutResult(status -> repository.findById(id).ifPresent(entity -> {
+            int attempts = entity.getAttempts() + 1;
+            entity.setAttempts(attempts);
+            entity.setLockedUntil(null);
+            entity.setLastError(truncate(String.valueOf(error.getMessage())));
+
+            // Endereço inválido ou usuário removido não melhoram com novas tentativas
+            if (attempts >= maxAttempts || isPermanent(error)) {
+                entity.setStatus(EmailOutbox.Status.DEAD);
+                logger.error("Email {} ({}) descartado após {} tentativas", id, entity.getType(), attempts, error);
+                return;
+            }
+            long delay = Math.min(backoffMaxSeconds, backoffInitialSeconds << Math.min(attempts - 1, 20));
+            entity.setStatus(EmailOutbox.Status.PENDING);
+            entity.setNextAttemptAt(Instant.now().plusSeconds(delay));
+            logger.warn("Falha ao enviar email {} ({}), nova tentativa em {}s: {}", id, entity.getType(), delay,
+                    error.getMessage());
+        }));
+    }
+
+    private static boolean isPermanent(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof AddressException || cause instanceof ResourceNotFoundException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= 500 ? message : message.substring(0, 500);
+    }
+}
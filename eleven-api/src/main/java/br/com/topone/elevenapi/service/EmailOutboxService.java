@@ -0,0 +1,60 @@
+package br.com.topone.elevenapi.service;
+
+import br.com.topone.elevenapi.entities.EmailOutbox;
+import br.com.topone.elevenapi.repositories.EmailOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Enfileira emails na tabela de outbox. Exige uma transação ativa: o email só existe
+ * se a operação que o originou for confirmada. O envio é feito pelo {@link EmailOutboxDispatcher}.
+ * <p>
+ * O payload guarda só a referência ao usuário; segredos (o token do link de senha) são gerados
+ * pelo dispatcher no momento do envio e nunca ficam gravados na outbox.
+ */
+@Service
+public class EmailOutboxService {
+
+    private final EmailOutboxRepository repository;
+    private final ObjectMapper objectMapper;
+
+    public EmailOutboxService(EmailOutboxRepository repository, ObjectMapper objectMapper) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueWelcome(Long userId, String to) {
+        enqueue(EmailOutbox.Type.WELCOME, to, Map.of(EmailOutbox.USER_ID, userId));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueRecovery(Long userId, String to) {
+        enqueue(EmailOutbox.Type.PASSWORD_RECOVERY, to, Map.of(EmailOutbox.USER_ID, userId));
+    }
+
+    private void enqueue(EmailOutbox.Type type, String to, Map<String, Object> variables) {
+        var entity = new EmailOutbox();
+        entity.setType(type);
+        entity.setRecipient(to);
+        entity.setPayload(toJson(variables));
+        entity.setStatus(EmailOutbox.Status.PENDING);
+        entity.setCreatedAt(Instant.now());
+        entity.setNextAttemptAt(entity.getCreatedAt());
+        repository.save(entity);
+    }
+
+    private String toJson(Map<String, Object> variables) {
+        try {
+            return objectMapper.writeValueAsString(variables);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,88 +1,96 @@
 package br.com.topone.elevenapi.service;
 
+import jakarta.mail.Message;
 import jakarta.mail.MessagingException;
-import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.MimeUtility;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.context.Context;
-import org.thymeleaf.spring6.SpringTemplateEngine;
+
+import java.io.UnsupportedEncodingException;
+import java.util.List;
+import java.util.Map;
 
 @Service
 public class EmailService {
 
+    private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
+
+    private static final String WELCOME_TEMPLATE = "email_acesso";
+    private static final String RECOVERY_TEMPLATE = "recuperacao_email_acesso";
+
     private final JavaMailSender mailSender;
-    private final SpringTemplateEngine templateEngine;
+    private final SmtpTransportPool transportPool;
+    private final EmailTemplateRenderer templateRenderer;
     private final String activeProfile;
 
+    // Partes fixas da mensagem, montadas uma única vez
+    private final InternetAddress from;
+    private final String welcomeSubject;
+    private final String recoverySubject;
+
     @Autowired
-    public EmailService(JavaMailSender mailSender, SpringTemplateEngine templateEngine, @Value("${spring.profiles.active}") String activeProfile) {
+    public EmailService(JavaMailSender mailSender, SmtpTransportPool transportPool, EmailTemplateRenderer templateRenderer,
+                        @Value("${spring.profiles.active}") String activeProfile) {
         this.mailSender = mailSender;
-        this.templateEngine = templateEngine;
+        this.transportPool = transportPool;
+        this.templateRenderer = templateRenderer;
         this.activeProfile = activeProfile;
-    }
-
-    public void sendWelcomeEmail(String to, String nome, String email, String senha) throws MessagingException {
-
-        if ("test".equals(activeProfile)) {
-            System.out.println("Perfil de desenvolvimento ativo. E-mail não será enviado.");
-            return;
-        }
-
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED, "UTF-8");
-
-            Context context = new Context();
-            context.setVariable("nome", nome);
-            context.setVariable("email", email);
-            context.setVariable("senha", senha);
-
-            String htmlContent = templateEngine.process("email_acesso", context);
-
-            helper.setTo(to);
-            helper.setFrom("contato@toponesystem.com.br");
-            helper.setSubject("Bem-vindo ao Sistema Eleven");
-            helper.setText(htmlContent, true);
-
-            mailSender.send(message);
-        } catch (SendFailedException e) {
-            System.err.printf("Erro ao enviar e-mail: %s%n", e.getMessage());
-            if (e.getNextException() instanceof jakarta.mail.internet.AddressException) {
-                System.err.printf("Endereço de e-mail inválido: %s%n", e.getNextException().getMessage());
-            }
-            throw e;
-        } catch (MessagingException e) {
-            System.err.printf("Erro de mensagem: %s%n", e.getMessage());
-            throw e;
+            this.from = new InternetAddress("contato@toponesystem.com.br");
+            this.welcomeSubject = MimeUtility.encodeText("Bem-vindo ao Sistema Eleven", "UTF-8", null);
+            this.recoverySubject = MimeUtility.encodeText("Recuperação de Senha - Eleven Juventude", "UTF-8", null);
+        } catch (AddressException | UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
         }
     }
 
-    public void sendRecoveryEmail(String to, String nome, String token, String recoverUri, Long tokenMinutes) throws MessagingException {
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED, "UTF-8");
+    /**
+     * Envia várias mensagens pelas mesmas conexões SMTP do pool.
+     * @return as mensagens que falharam e o erro de cada uma
+     */
+    public Map<MimeMessage, MessagingException> sendBatch(List<MimeMessage> messages) throws MessagingException {
+        return transportPool.sendBatch(messages);
+    }
+
+    // O email de boas-vindas não é enviado no perfil test
+    public boolean welcomeEnabled() {
+        return !"test".equals(activeProfile);
+    }
 
-            Context context = new Context();
-            context.setVariable("nome", nome);
-            context.setVariable("token", token);
-            context.setVariable("recoverUri", recoverUri);
-            context.setVariable("tokenMinutes", tokenMinutes);
+    // Retorna null no perfil test (ver welcomeEnabled). A senha não vai no email: o link define uma nova
+    public MimeMessage createWelcomeMessage(String to, String nome, String email, String token, String recoverUri,
+                                            Long tokenHours) throws MessagingException {
+        if (!welcomeEnabled()) {
+            logger.debug("Perfil de desenvolvimento ativo. E-mail para {} não será enviado.", to);
+            return null;
+        }
 
-            String htmlContent = templateEngine.process("recuperacao_email_acesso", context);
+        String htmlContent = templateRenderer.render(WELCOME_TEMPLATE,
+                Map.of("nome", nome, "email", email, "token", token, "recoverUri", recoverUri, "tokenHours", tokenHours));
+        return createMessage(to, welcomeSubject, htmlContent);
+    }
 
-            helper.setTo(to);
-            helper.setFrom("contato@toponesystem.com.br");
-            helper.setSubject("Recuperação de Senha - Eleven Juventude");
-            helper.setText(htmlContent, true);
+    public MimeMessage createRecoveryMessage(String to, String nome, String email, String token, String recoverUri,
+                                             Long tokenMinutes) throws MessagingException {
+        String htmlContent = templateRenderer.render(RECOVERY_TEMPLATE, Map.of("nome", nome, "email", email,
+                "token", token, "recoverUri", recoverUri, "tokenMinutes", tokenMinutes));
+        return createMessage(to, recoverySubject, htmlContent);
+    }
 
-            mailSender.send(message);
-        } catch (MessagingException e) {
-            System.err.printf("Erro de mensagem: %s%n", e.getMessage());
-            throw e;
-        }
+    // Os templates não têm anexos nem imagens embutidas: uma única parte text/html basta
+    MimeMessage createMessage(String to, String encodedSubject, String htmlContent) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        message.setFrom(from);
+        message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(to, true));
+        message.setHeader("Subject", encodedSubject);
+        message.setText(htmlContent, "UTF-8", "html");
+        return message;
     }
-}
\ No newline at end of file
+}
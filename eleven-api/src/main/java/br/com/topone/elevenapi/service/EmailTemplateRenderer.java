@@ -0,0 +1,92 @@
+package br.com.topone.elevenapi.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.HtmlUtils;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Renderiza os templates de email a partir de uma versão pré-compilada: o Thymeleaf processa
+ * cada template uma única vez, com marcadores no lugar das variáveis, e o resultado é dividido
+ * em trechos fixos. Por destinatário só as variáveis são escapadas e concatenadas.
+ * <p>
+ * Vale para templates que usam as variáveis apenas como saída ({@code th:text}, {@code th:href});
+ * condicionais e laços sobre variáveis precisam ser renderizados pelo Thymeleaf a cada envio.
+ * Variáveis em outros atributos (style, src, eventos) são recusadas na compilação, pois o escape
+ * de HTML não basta nesses contextos.
+ */
+@Component
+public class EmailTemplateRenderer {
+
+    private static final Pattern MARKER = Pattern.compile("@@var:(\\w+)@@");
+    // Atributo cujo valor entre aspas ainda está aberto no fim do trecho da tag
+    private static final Pattern OPEN_ATTRIBUTE = Pattern.compile("([\\w:-]+)\\s*=\\s*[\"'][^\"']*$");
+
+    private final ITemplateEngine templateEngine;
+    private final Map<String, CompiledTemplate> compiled = new ConcurrentHashMap<>();
+
+    public EmailTemplateRenderer(ITemplateEngine templateEngine) {
+        this.templateEngine = templateEngine;
+    }
+
+    public String render(String template, Map<String, ?> variables) {
+        String key = template + variables.keySet().stream().sorted().toList();
+        return compiled.computeIfAbsent(key, k -> compile(template, variables.keySet())).render(variables);
+    }
+
+    private CompiledTemplate compile(String template, Collection<String> variableNames) {
+        Context context = new Context();
+        for (String name : variableNames) {
+            context.setVariable(name, "@@var:" + name + "@@");
+        }
+        String html = templateEngine.process(template, context);
+
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        Matcher matcher = MARKER.matcher(html);
+        int last = 0;
+        while (matcher.find()) {
+            checkContext(template, html, matcher.start(), matcher.group(1));
+            literals.add(html.substring(last, matcher.start()));
+            variables.add(matcher.group(1));
+            last = matcher.end();
+        }
+        literals.add(html.substring(last));
+        return new CompiledTemplate(literals.toArray(String[]::new), variables.toArray(String[]::new), html.length());
+    }
+
+    // Só texto e o valor de href (th:href) aceitam a variável
+    private static void checkContext(String template, String html, int position, String variable) {
+        int tagStart = html.lastIndexOf('<', position);
+        if (tagStart <= html.lastIndexOf('>', position)) {
+            return;
+        }
+        Matcher attribute = OPEN_ATTRIBUTE.matcher(html.substring(tagStart, position));
+        if (!attribute.find() || !attribute.group(1).equalsIgnoreCase("href")) {
+            throw new IllegalStateException(STR."Template \{template}: variável \{variable} usada fora de th:text/th:href");
+        }
+    }
+
+    private record CompiledTemplate(String[] literals, String[] variables, int sizeHint) {
+
+        String render(Map<String, ?> values) {
+            StringBuilder html = new StringBuilder(sizeHint + 256);
+            for (int i = 0; i < variables.length; i++) {
+                html.append(literals[i]);
+                Object value = values.get(variables[i]);
+                if (value != null) {
+                    html.append(HtmlUtils.htmlEscape(value.toString(), "UTF-8"));
+                }
+            }
+            return html.append(literals[variables.length]).toString();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package br.com.topone.elevenapi.service;
+
+import br.com.topone.elevenapi.service.exceptions.ServiceUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * PasswordEncoder que executa o BCrypt em um pool dedicado, com limite de concorrência
+ * e fila limitada. Quando o pool está saturado a chamada é recusada imediatamente com
+ * {@link ServiceUnavailableException}, em vez de ocupar todas as threads do Tomcat.
+ */
+public class PasswordHashingService implements PasswordEncoder {
+
+    private static final long BATCH_RETRY_MILLIS = 20;
+    public static final String HASH_TIMER = "security.password.hash";
+    public static final String QUEUE_TIMER = "security.password.hash.queue";
+    public static final String REJECTED_COUNTER = "security.password.hash.rejected";
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final Timer queueTimer;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+
+    public PasswordHashingService(PasswordEncoder delegate, int maxConcurrency, int queueDepth, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+        this.queueTimer = meterRegistry.timer(QUEUE_TIMER);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueDepth),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit("encode", () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit("matches", () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Gera os hashes em paralelo no mesmo pool, para importações em lote. No máximo
+     * {@code maxConcurrency} tarefas do lote ficam no pool ao mesmo tempo, deixando a fila livre
+     * para os logins; se ela estiver cheia, o lote espera em vez de falhar.
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        int window = executor.getMaximumPoolSize();
+        List<String> encoded = new ArrayList<>(rawPasswords.size());
+        for (int start = 0; start < rawPasswords.size(); start += window) {
+            List<Future<String>> futures = new ArrayList<>(window);
+            for (CharSequence rawPassword : rawPasswords.subList(start, Math.min(start + window, rawPasswords.size()))) {
+                futures.add(submitWhenAvailable(() -> delegate.encode(rawPassword)));
+            }
+            for (Future<String> future : futures) {
+                encoded.add(await(future));
+            }
+        }
+        return encoded;
+    }
+
+    public HashingStats stats() {
+        long count = completed.sum();
+        return new HashingStats(
+                count,
+                rejected.sum(),
+                executor.getActiveCount(),
+                executor.getQueue().size(),
+                count == 0 ? 0 : queueWaitNanos.sum() / count,
+                count == 0 ? 0 : hashNanos.sum() / count);
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T submit(String operation, Supplier<T> work) {
+        Future<T> future;
+        try {
+            future = submitAsync(operation, work);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            meterRegistry.counter(REJECTED_COUNTER, "operation", operation).increment();
+            throw new ServiceUnavailableException("Servidor ocupado, tente novamente em instantes");
+        }
+        return await(future);
+    }
+
+    private <T> Future<T> submitWhenAvailable(Supplier<T> work) {
+        while (true) {
+            try {
+                return submitAsync("encode_batch", work);
+            } catch (RejectedExecutionException e) {
+                if (executor.isShutdown()) {
+                    throw new ServiceUnavailableException("Serviço de senha encerrado");
+                }
+                try {
+                    Thread.sleep(BATCH_RETRY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw new ServiceUnavailableException("Processamento de senha interrompido");
+                }
+            }
+        }
+    }
+
+    private <T> Future<T> submitAsync(String operation, Supplier<T> work) {
+        long submittedAt = System.nanoTime();
+        return executor.submit(() -> {
+            long startedAt = System.nanoTime();
+            queueWaitNanos.add(startedAt - submittedAt);
+            queueTimer.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+            String outcome = "error";
+            try {
+                T result = work.get();
+                outcome = "success";
+                return result;
+            } finally {
+                long elapsed = System.nanoTime() - startedAt;
+                hashNanos.add(elapsed);
+                completed.increment();
+                meterRegistry.timer(HASH_TIMER, "operation", operation, "outcome", outcome)
+                        .record(elapsed, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new ServiceUnavailableException("Processamento de senha interrompido");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public record HashingStats(long completed, long rejected, int active, int queued,
+                               long avgQueueWaitNanos, long avgHashNanos) {
+    }
+}
@@ -0,0 +1,54 @@
+package br.com.topone.elevenapi.service;
+
+import br.com.topone.elevenapi.repositories.PasswordRecoverRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Remove periodicamente os tokens de recuperação expirados, em lotes de {@code chunk-size}
+ * com uma transação curta por lote, para não manter locks longos na tabela.
+ */
+@Component
+public class PasswordRecoverPurger {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordRecoverPurger.class);
+
+    private final PasswordRecoverRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public PasswordRecoverPurger(PasswordRecoverRepository repository, PlatformTransactionManager transactionManager,
+                                 @Value("${email.password-recover.purge.chunk-size}") int chunkSize) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(fixedDelayString = "${email.password-recover.purge.interval-ms}")
+    public int purgeExpired() {
+        Instant now = Instant.now();
+        int total = 0;
+        int removed;
+        do {
+            removed = transactionTemplate.execute(status -> {
+                List<Long> ids = repository.findExpiredIds(now, PageRequest.of(0, chunkSize));
+                return ids.isEmpty() ? 0 : repository.deleteByIds(ids);
+            });
+            total += removed;
+        } while (removed == chunkSize);
+
+        if (total > 0) {
+            logger.info("{} tokens de recuperação expirados removidos", total);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,224 @@
+package br.com.topone.elevenapi.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool de conexões SMTP autenticadas, reaproveitadas entre envios. O número de conexões
+ * abertas é limitado por {@code max-connections}; conexões paradas há mais de
+ * {@code validate-after-idle-seconds} são testadas (NOOP) antes do uso e as ociosas
+ * além de {@code idle-timeout-seconds} são fechadas.
+ */
+@Component
+public class SmtpTransportPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmtpTransportPool.class);
+    public static final String SEND_TIMER = "email.smtp.send";
+
+    private final JavaMailSenderImpl mailSender;
+    private final Semaphore permits;
+    private final Deque<PooledTransport> idle = new ConcurrentLinkedDeque<>();
+    private final long borrowTimeoutMs;
+    private final long idleTimeoutNanos;
+    private final long validateAfterNanos;
+    private final int maxMessagesPerConnection;
+    private final MeterRegistry meterRegistry;
+
+    private final LongAdder connectionsOpened = new LongAdder();
+    private final LongAdder messagesSent = new LongAdder();
+
+    public SmtpTransportPool(JavaMailSenderImpl mailSender,
+                             @Value("${email.smtp-pool.max-connections}") int maxConnections,
+                             @Value("${email.smtp-pool.borrow-timeout-ms}") long borrowTimeoutMs,
+                             @Value("${email.smtp-pool.idle-timeout-seconds}") long idleTimeoutSeconds,
+                             @Value("${email.smtp-pool.validate-after-idle-seconds}") long validateAfterIdleSeconds,
+                             @Value("${email.smtp-pool.max-messages-per-connection}") int maxMessagesPerConnection,
+                             MeterRegistry meterRegistry) {
+        this.mailSender = mailSender;
+        this.meterRegistry = meterRegistry;
+        this.permits = new Semaphore(maxConnections, true);
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.idleTimeoutNanos = TimeUnit.SECONDS.toNanos(idleTimeoutSeconds);
+        this.validateAfterNanos = TimeUnit.SECONDS.toNanos(validateAfterIdleSeconds);
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+    }
+
+    public void send(MimeMessage message) throws MessagingException {
+        Map<MimeMessage, MessagingException> failures = sendBatch(List.of(message));
+        if (!failures.isEmpty()) {
+            throw failures.get(message);
+        }
+    }
+
+    /**
+     * Envia as mensagens reaproveitando a mesma conexão. Se a conexão cair no meio do lote,
+     * as mensagens restantes seguem por uma conexão nova. Só lança exceção se nenhuma mensagem
+     * tiver sido tentada; depois disso, a falha ao obter uma conexão vale para as mensagens restantes.
+     *
+     * @return as mensagens que falharam e o erro de cada uma
+     */
+    public Map<MimeMessage, MessagingException> sendBatch(List<MimeMessage> messages) throws MessagingException {
+        Map<MimeMessage, MessagingException> failures = new LinkedHashMap<>();
+        List<MimeMessage> pending = new ArrayList<>(messages);
+        boolean reconnected = false;
+
+        while (!pending.isEmpty()) {
+            PooledTransport pooled;
+            try {
+                pooled = borrow();
+            } catch (MessagingException e) {
+                if (pending.size() == messages.size()) {
+                    throw e;
+                }
+                // Parte do lote já foi enviada: lançar faria o chamador tratar o lote inteiro como falho
+                pending.forEach(message -> failures.put(message, e));
+                return failures;
+            }
+            boolean healthy = true;
+            try {
+                while (!pending.isEmpty() && pooled.messages < maxMessagesPerConnection) {
+                    MimeMessage message = pending.getFirst();
+                    Timer.Sample sample = Timer.start(meterRegistry);
+                    try {
+                        message.saveChanges();
+                        pooled.transport.sendMessage(message, message.getAllRecipients());
+                        sample.stop(meterRegistry.timer(SEND_TIMER, "outcome", "success"));
+                        pooled.messages++;
+                        messagesSent.increment();
+                        pending.removeFirst();
+                    } catch (MessagingException e) {
+                        if (pooled.transport.isConnected()) {
+                            // Erro da mensagem (destinatário recusado etc.), a conexão continua utilizável
+                            sample.stop(meterRegistry.timer(SEND_TIMER, "outcome", "rejected"));
+                            failures.put(pending.removeFirst(), e);
+                        } else if (reconnected) {
+                            sample.stop(meterRegistry.timer(SEND_TIMER, "outcome", "connection_error"));
+                            failures.put(pending.removeFirst(), e);
+                            healthy = false;
+                            break;
+                        } else {
+                            // Será reenviada por uma conexão nova
+                            sample.stop(meterRegistry.timer(SEND_TIMER, "outcome", "retried"));
+                            healthy = false;
+                            reconnected = true;
+                            break;
+                        }
+                    }
+                }
+            } finally {
+                release(pooled, healthy && pooled.messages < maxMessagesPerConnection);
+            }
+        }
+        return failures;
+    }
+
+    @Scheduled(fixedDelayString = "${email.smtp-pool.sweep-interval-ms}")
+    public void closeIdle() {
+        long now = System.nanoTime();
+        for (PooledTransport pooled : idle) {
+            if (now - pooled.lastUsed > idleTimeoutNanos && idle.remove(pooled)) {
+                close(pooled);
+            }
+        }
+    }
+
+    public SmtpPoolStats stats() {
+        return new SmtpPoolStats(idle.size(), permits.availablePermits(), connectionsOpened.sum(), messagesSent.sum());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        PooledTransport pooled;
+        while ((pooled = idle.poll()) != null) {
+            close(pooled);
+        }
+    }
+
+    private PooledTransport borrow() throws MessagingException {
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new MessagingException("Nenhuma conexão SMTP disponível no pool");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrompido aguardando conexão SMTP", e);
+        }
+
+        try {
+            PooledTransport pooled;
+            while ((pooled = idle.pollLast()) != null) {
+                long idleNanos = System.nanoTime() - pooled.lastUsed;
+                if (idleNanos <= idleTimeoutNanos && (idleNanos < validateAfterNanos || pooled.transport.isConnected())) {
+                    return pooled;
+                }
+                close(pooled);
+            }
+            return connect();
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledTransport connect() throws MessagingException {
+        Transport transport = mailSender.getSession().getTransport(mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp");
+        transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+        connectionsOpened.increment();
+        return new PooledTransport(transport);
+    }
+
+    private void release(PooledTransport pooled, boolean reusable) {
+        try {
+            if (reusable) {
+                pooled.lastUsed = System.nanoTime();
+                idle.addLast(pooled);
+            } else {
+                close(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static void close(PooledTransport pooled) {
+        try {
+            pooled.transport.close();
+        } catch (MessagingException e) {
+            logger.debug("Erro ao fechar conexão SMTP: {}", e.getMessage());
+        }
+    }
+
+    private static final class PooledTransport {
+
+        private final Transport transport;
+        private long lastUsed = System.nanoTime();
+        private int messages;
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+    }
+
+    public record SmtpPoolStats(int idle, int availablePermits, long connectionsOpened, long messagesSent) {
+    }
+}
@@ -0,0 +1,7 @@
+package br.com.topone.elevenapi.service.exceptions;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
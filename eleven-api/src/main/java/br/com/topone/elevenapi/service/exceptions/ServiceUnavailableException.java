@@ -0,0 +1,7 @@
+package br.com.topone.elevenapi.service.exceptions;
+
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
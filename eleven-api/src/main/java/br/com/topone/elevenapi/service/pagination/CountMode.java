@@ -0,0 +1,26 @@
+package br.com.topone.elevenapi.service.pagination;
+
+import br.com.topone.elevenapi.service.exceptions.InvalidCursorException;
+
+import java.util.Locale;
+
+/**
+ * Como preencher o total na paginação por cursor: não contar, usar uma estimativa barata
+ * ou executar o {@code COUNT(*)}.
+ */
+public enum CountMode {
+    NONE,
+    ESTIMATE,
+    EXACT;
+
+    public static CountMode from(String value) {
+        if (value == null || value.isBlank()) {
+            return NONE;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(STR."Modo de contagem inválido: \{value}. Use none, estimate ou exact");
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package br.com.topone.elevenapi.service.pagination;
+
+import br.com.topone.elevenapi.service.exceptions.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Posição da última linha entregue: a ordenação usada, o valor da chave de ordenação e o id
+ * como desempate. Vai para o cliente como um token opaco (Base64 URL-safe).
+ */
+public record KeysetCursor(String sort, String key, long id) {
+
+    private static final String VERSION = "1";
+    private static final int MAX_SIZE = 100;
+
+    public String encode() {
+        String raw = String.join(":", VERSION, sort, Long.toString(id), key == null ? "" : key);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica o token recebido; {@code null} ou vazio indica a primeira página.
+     * O cursor precisa ter sido gerado com a mesma ordenação pedida.
+     */
+    public static KeysetCursor decode(String token, String expectedSort) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // a chave vem por último, pode conter ':'
+            String[] parts = raw.split(":", 4);
+            if (parts.length != 4 || !VERSION.equals(parts[0])) {
+                throw new InvalidCursorException("Cursor inválido");
+            }
+            if (!parts[1].equals(expectedSort)) {
+                throw new InvalidCursorException("Cursor gerado para outra ordenação");
+            }
+            return new KeysetCursor(parts[1], parts[3], Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Cursor inválido");
+        }
+    }
+
+    public static int clampSize(int size) {
+        return Math.clamp(size, 1, MAX_SIZE);
+    }
+
+    public static String requireSort(String sort, Set<String> allowed) {
+        if (!allowed.contains(sort)) {
+            throw new InvalidCursorException(STR."Ordenação não suportada: \{sort}. Use \{allowed}");
+        }
+        return sort;
+    }
+}
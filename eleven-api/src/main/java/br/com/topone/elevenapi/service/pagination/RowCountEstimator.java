@@ -0,0 +1,74 @@
+package br.com.topone.elevenapi.service.pagination;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Total aproximado de linhas de uma tabela para a paginação por cursor.
+ * <p>
+ * No PostgreSQL usa a estatística do planner ({@code pg_class.reltuples}), que não percorre a tabela.
+ * Nos demais bancos, ou enquanto a tabela ainda não foi analisada, usa o {@code COUNT(*)} exato
+ * guardado por alguns segundos ({@code pagination.count-cache-seconds}).
+ */
+@Component
+public class RowCountEstimator {
+
+    private static final Logger logger = LoggerFactory.getLogger(RowCountEstimator.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean postgres;
+    private final Cache<String, Long> counts;
+
+    public RowCountEstimator(JdbcTemplate jdbcTemplate,
+                             @Value("${pagination.count-cache-seconds}") long cacheSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.postgres = isPostgres(jdbcTemplate);
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(100)
+                .expireAfterWrite(Duration.ofSeconds(cacheSeconds))
+                .build();
+    }
+
+    /**
+     * Total conforme o modo pedido; {@code null} em {@link CountMode#NONE}.
+     */
+    public Long count(CountMode mode, String table, LongSupplier exactCount) {
+        return switch (mode) {
+            case NONE -> null;
+            case ESTIMATE -> estimate(table, exactCount);
+            case EXACT -> exactCount.getAsLong();
+        };
+    }
+
+    public long estimate(String table, LongSupplier exactCount) {
+        if (postgres) {
+            Long estimate = jdbcTemplate.queryForObject(
+                    "SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(?)", Long.class, table);
+            // -1 (ou 0) quando a tabela nunca passou por ANALYZE
+            if (estimate != null && estimate > 0) {
+                return estimate;
+            }
+        }
+        return counts.get(table, key -> exactCount.getAsLong());
+    }
+
+    private static boolean isPostgres(JdbcTemplate jdbcTemplate) {
+        try {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            return "PostgreSQL".equalsIgnoreCase(product);
+        } catch (RuntimeException e) {
+            logger.warn("Não foi possível identificar o banco; usando contagem em cache", e);
+            return false;
+        }
+    }
+}
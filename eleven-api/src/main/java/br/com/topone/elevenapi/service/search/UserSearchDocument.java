@@ -0,0 +1,30 @@
+package br.com.topone.elevenapi.service.search;
+
+import br.com.topone.elevenapi.entities.Address;
+import br.com.topone.elevenapi.entities.User;
+import br.com.topone.elevenapi.entities.UserProfile;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Campos de um usuário (e do seu perfil) indexados pela busca.
+ */
+public record UserSearchDocument(Long id, String name, String email, String cpf, String phone,
+                                 String motherName, String fatherName, List<String> cities) {
+
+    public static UserSearchDocument of(User user) {
+        UserProfile profile = user.getProfile();
+        if (profile == null) {
+            return new UserSearchDocument(user.getId(), user.getName(), user.getEmail(),
+                    null, null, null, null, List.of());
+        }
+        List<String> cities = profile.getAddresses() == null ? List.of() : profile.getAddresses().stream()
+                .map(Address::getCity)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        return new UserSearchDocument(user.getId(), user.getName(), user.getEmail(), profile.getCpf(),
+                profile.getPhone(), profile.getMotherName(), profile.getFatherName(), cities);
+    }
+}
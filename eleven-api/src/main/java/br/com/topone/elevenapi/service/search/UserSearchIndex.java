@@ -0,0 +1,355 @@
+package br.com.topone.elevenapi.service.search;
+
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.core.LowerCaseFilter;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.ngram.EdgeNGramTokenFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.MultiBits;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.Bits;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Índice Lucene de usuários e perfis. Nome, email, CPF, telefone, nomes dos pais e cidades são
+ * indexados sem acento e em minúsculas, com n-gramas de borda para a busca por prefixo; o
+ * resultado é ordenado por relevância (BM25), com o nome pesando mais que os demais campos.
+ * <p>
+ * Alterações ficam visíveis para a busca logo após a escrita (leitor near-real-time aberto a partir do
+ * {@link IndexWriter}, sem commit); o commit em disco é feito a cada {@code search.commit-interval-ms},
+ * ao fim de uma reconstrução e no shutdown. Durante uma reconstrução não há refresh nem commit.
+ * <p>
+ * Sem {@code search.index-dir} o índice fica em memória; de qualquer forma ele é reconstruído
+ * a partir do banco na inicialização.
+ */
+@Component
+public class UserSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserSearchIndex.class);
+
+    private static final String ID = "id";
+    private static final String ID_SORT = "id_sort";
+    private static final String NAME = "name";
+    private static final String NAME_PREFIX = "name_prefix";
+    private static final String ALL = "all";
+    private static final String ALL_PREFIX = "all_prefix";
+
+    private static final int MAX_PREFIX_LENGTH = 20;
+    private static final int MAX_RESULTS = 10_000;
+
+    // "123.456.789-00" e "(14) 99999-9999" viram uma sequência só de dígitos
+    private static final Pattern DIGIT_SEPARATORS = Pattern.compile("(?<=\\d)[.\\-/() ]+(?=\\d)");
+
+    private final Analyzer foldingAnalyzer = new FoldingAnalyzer(false);
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    // Serializa as escritas de index()/delete() com as da reconstrução
+    private final Object writeLock = new Object();
+    // Ids escritos por index()/delete() durante a reconstrução em andamento; null fora dela
+    private Set<String> writtenDuringRebuild;
+    private volatile boolean rebuilding;
+
+    public UserSearchIndex(@Value("${search.index-dir}") String indexDir) throws IOException {
+        this.directory = StringUtils.hasText(indexDir) ? FSDirectory.open(Path.of(indexDir)) : new ByteBuffersDirectory();
+        Analyzer prefixAnalyzer = new FoldingAnalyzer(true);
+        Analyzer analyzer = new PerFieldAnalyzerWrapper(foldingAnalyzer,
+                Map.of(NAME_PREFIX, prefixAnalyzer, ALL_PREFIX, prefixAnalyzer));
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    public void index(UserSearchDocument document) {
+        index(List.of(document));
+    }
+
+    /**
+     * Indexa os documentos e abre um único leitor novo para o lote inteiro.
+     */
+    public void index(Collection<UserSearchDocument> documents) {
+        try {
+            synchronized (writeLock) {
+                for (UserSearchDocument document : documents) {
+                    String id = document.id().toString();
+                    markWritten(id);
+                    writer.updateDocument(new Term(ID, id), toLucene(document));
+                }
+            }
+            refresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void delete(Long id) {
+        try {
+            synchronized (writeLock) {
+                markWritten(id.toString());
+                writer.deleteDocuments(new Term(ID, id.toString()));
+            }
+            refresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Substitui o conteúdo do índice. Os documentos vão direto para o {@link IndexWriter} à medida que o
+     * iterável os produz, cada um substituindo o do mesmo id; no fim, os que não vieram são removidos.
+     * A busca continua vendo o índice anterior até o fim.
+     * <p>
+     * Pode rodar com a aplicação já atendendo: um usuário gravado por {@link #index}/{@link #delete}
+     * durante a reconstrução mantém essa versão, mais nova que a lida pela reconstrução.
+     */
+    public synchronized void rebuild(Iterable<UserSearchDocument> documents) {
+        Set<String> rebuilt = new HashSet<>();
+        int count = 0;
+        synchronized (writeLock) {
+            writtenDuringRebuild = new HashSet<>();
+            rebuilding = true;
+        }
+        try {
+            for (UserSearchDocument document : documents) {
+                String id = document.id().toString();
+                rebuilt.add(id);
+                count++;
+                synchronized (writeLock) {
+                    if (!writtenDuringRebuild.contains(id)) {
+                        writer.updateDocument(new Term(ID, id), toLucene(document));
+                    }
+                }
+            }
+            synchronized (writeLock) {
+                rebuilt.addAll(writtenDuringRebuild);
+                deleteAllExcept(rebuilt);
+                endRebuild();
+            }
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+            logger.info("Índice de busca de usuários reconstruído com {} documentos", count);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            synchronized (writeLock) {
+                endRebuild();
+            }
+        }
+    }
+
+    /**
+     * Busca os ids dos usuários que contêm todos os termos (por prefixo), em ordem de relevância.
+     */
+    public Page<Long> search(String text, Pageable pageable) {
+        List<String> terms = analyze(normalizeDigits(text));
+        if (terms.isEmpty() || pageable.getOffset() >= MAX_RESULTS) {
+            return Page.empty(pageable);
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String term : terms) {
+            query.add(termQuery(term), BooleanClause.Occur.MUST);
+        }
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                Query built = query.build();
+                int limit = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), MAX_RESULTS);
+                Sort sort = new Sort(SortField.FIELD_SCORE, new SortField(ID_SORT, SortField.Type.LONG));
+                TopDocs topDocs = searcher.search(built, limit, sort);
+
+                List<Long> ids = new ArrayList<>();
+                ScoreDoc[] hits = topDocs.scoreDocs;
+                for (int i = (int) pageable.getOffset(); i < hits.length; i++) {
+                    ids.add(searcher.storedFields().document(hits[i].doc).getField(ID).numericValue().longValue());
+                }
+                return new PageImpl<>(ids, pageable, searcher.count(built));
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${search.commit-interval-ms}", initialDelayString = "${search.commit-interval-ms}")
+    public void commit() {
+        try {
+            // Um commit no meio da reconstrução gravaria um índice pela metade
+            if (!rebuilding && writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        commit();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    // Durante a reconstrução a busca fica no leitor anterior; o refresh final publica tudo de uma vez
+    private void refresh() throws IOException {
+        if (!rebuilding) {
+            searcherManager.maybeRefreshBlocking();
+        }
+    }
+
+    private void markWritten(String id) {
+        if (writtenDuringRebuild != null) {
+            writtenDuringRebuild.add(id);
+        }
+    }
+
+    private void endRebuild() {
+        writtenDuringRebuild = null;
+        rebuilding = false;
+    }
+
+    // Remove os documentos de usuários que não existem mais; o leitor usado aqui não é publicado para a busca
+    private void deleteAllExcept(Set<String> ids) throws IOException {
+        try (DirectoryReader reader = DirectoryReader.open(writer)) {
+            StoredFields storedFields = reader.storedFields();
+            Bits liveDocs = MultiBits.getLiveDocs(reader);
+            for (int doc = 0; doc < reader.maxDoc(); doc++) {
+                if (liveDocs != null && !liveDocs.get(doc)) {
+                    continue;
+                }
+                String id = String.valueOf(storedFields.document(doc).getField(ID).numericValue());
+                if (!ids.contains(id)) {
+                    writer.deleteDocuments(new Term(ID, id));
+                }
+            }
+        }
+    }
+
+    // Cada termo precisa aparecer em algum campo; no nome vale mais
+    private static Query termQuery(String term) {
+        return new BooleanQuery.Builder()
+                .add(new BoostQuery(new TermQuery(new Term(NAME, term)), 4f), BooleanClause.Occur.SHOULD)
+                .add(new BoostQuery(new TermQuery(new Term(NAME_PREFIX, term)), 2f), BooleanClause.Occur.SHOULD)
+                .add(new TermQuery(new Term(ALL, term)), BooleanClause.Occur.SHOULD)
+                .add(new TermQuery(new Term(ALL_PREFIX, term)), BooleanClause.Occur.SHOULD)
+                .build();
+    }
+
+    private static Document toLucene(UserSearchDocument document) {
+        Document doc = new Document();
+        doc.add(new StoredField(ID, document.id()));
+        doc.add(new StringField(ID, document.id().toString(), Field.Store.NO));
+        doc.add(new NumericDocValuesField(ID_SORT, document.id()));
+
+        addText(doc, NAME, NAME_PREFIX, document.name());
+        addText(doc, ALL, ALL_PREFIX, document.email());
+        addText(doc, ALL, ALL_PREFIX, normalizeDigits(document.cpf()));
+        addText(doc, ALL, ALL_PREFIX, normalizeDigits(document.phone()));
+        addText(doc, ALL, ALL_PREFIX, document.motherName());
+        addText(doc, ALL, ALL_PREFIX, document.fatherName());
+        for (String city : document.cities()) {
+            addText(doc, ALL, ALL_PREFIX, city);
+        }
+        return doc;
+    }
+
+    private static void addText(Document doc, String field, String prefixField, String value) {
+        if (StringUtils.hasText(value)) {
+            doc.add(new TextField(field, value, Field.Store.NO));
+            doc.add(new TextField(prefixField, value, Field.Store.NO));
+        }
+    }
+
+    private static String normalizeDigits(String value) {
+        return value == null ? null : DIGIT_SEPARATORS.matcher(value).replaceAll("");
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (!StringUtils.hasText(text)) {
+            return terms;
+        }
+        try (TokenStream stream = foldingAnalyzer.tokenStream(ALL, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    private static final class FoldingAnalyzer extends Analyzer {
+
+        private final boolean edgeNGrams;
+
+        private FoldingAnalyzer(boolean edgeNGrams) {
+            this.edgeNGrams = edgeNGrams;
+        }
+
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            Tokenizer tokenizer = new StandardTokenizer();
+            TokenStream stream = new ASCIIFoldingFilter(new LowerCaseFilter(tokenizer));
+            if (edgeNGrams) {
+                stream = new EdgeNGramTokenFilter(stream, 1, MAX_PREFIX_LENGTH, true);
+            }
+            return new TokenStreamComponents(tokenizer, stream);
+        }
+    }
+}
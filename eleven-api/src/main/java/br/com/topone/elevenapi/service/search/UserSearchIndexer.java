@@ -0,0 +1,115 @@
+package br.com.topone.elevenapi.service.search;
+
+import br.com.topone.elevenapi.repositories.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Mantém o {@link UserSearchIndex} sincronizado com o banco: reconstrói o índice na inicialização
+ * e reindexa um usuário depois do commit de cada alteração de usuário ou perfil.
+ */
+@Component
+public class UserSearchIndexer {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserSearchIndexer.class);
+    private static final int REBUILD_PAGE_SIZE = 500;
+
+    private final UserSearchIndex index;
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public UserSearchIndexer(UserSearchIndex index, UserRepository userRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.index = index;
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // Chamado também em afterCommit, quando a transação original ainda está vinculada à thread
+        this.readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Uma página por vez (cursor por id), cada uma na sua transação: só a página corrente fica em memória
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Stream<UserSearchDocument> documents = Stream.iterate(loadPage(null), page -> !page.isEmpty(),
+                        page -> loadPage(page.getLast().id()))
+                .flatMap(List::stream);
+        index.rebuild(documents::iterator);
+    }
+
+    private List<UserSearchDocument> loadPage(Long afterId) {
+        Limit limit = Limit.of(REBUILD_PAGE_SIZE);
+        return readOnlyTransaction.execute(status -> (afterId == null
+                ? userRepository.findAllByOrderByIdAsc(limit)
+                : userRepository.findPageAfterId(afterId, limit)).stream()
+                .map(UserSearchDocument::of)
+                .toList());
+    }
+
+    /**
+     * Reindexa o usuário após o commit da transação corrente (ou imediatamente, fora de transação).
+     */
+    public void reindex(Long userId) {
+        afterCommit(() -> {
+            var document = readOnlyTransaction.execute(status -> userRepository.findById(userId)
+                    .map(UserSearchDocument::of)
+                    .orElse(null));
+            if (document == null) {
+                index.delete(userId);
+            } else {
+                index.index(document);
+            }
+        });
+    }
+
+    /**
+     * Reindexa vários usuários após o commit, lendo todos numa única consulta (importação em lote).
+     */
+    public void reindex(Collection<Long> userIds) {
+        List<Long> ids = List.copyOf(userIds);
+        afterCommit(() -> {
+            var documents = readOnlyTransaction.execute(status -> userRepository.findAllById(ids).stream()
+                    .map(UserSearchDocument::of)
+                    .toList());
+            index.index(documents);
+        });
+    }
+
+    public void remove(Long userId) {
+        afterCommit(() -> index.delete(userId));
+    }
+
+    private static void afterCommit(Runnable action) {
+        Runnable safeAction = () -> {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                // O índice é reconstruído no próximo restart; a operação no banco já foi confirmada
+                logger.error("Falha ao atualizar o índice de busca de usuários", e);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    safeAction.run();
+                }
+            });
+        } else {
+            safeAction.run();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package br.com.topone.elevenapi.service.usuario;
+
+import br.com.topone.elevenapi.repositories.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Índice em memória dos emails cadastrados, usado como pré-checagem de unicidade no cadastro e na importação.
+ * <p>
+ * Um filtro de Bloom com todos os emails responde "com certeza livre" sem ir ao banco; só quando ele
+ * indica que o email pode existir é feita a consulta ({@code existsByEmail}). Só serve onde um falso
+ * "livre" é barrado pela constraint: buscas que precisam achar o usuário consultam o banco direto.
+ * O filtro é montado na inicialização, recebe cada email gravado por esta instância e é reconstruído
+ * periodicamente ({@code users.email-index.rebuild-interval-ms}) para descartar emails removidos e
+ * acompanhar o crescimento da tabela. Emails cadastrados por outra instância só entram na próxima
+ * reconstrução; até lá a constraint única de {@code tb_user.email} continua sendo a garantia final.
+ */
+@Component
+public class EmailIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailIndex.class);
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long expectedSize;
+    private final double falsePositiveRate;
+
+    private final Object lock = new Object();
+    // null até a primeira carga: sem filtro, toda consulta vai ao banco
+    private volatile EmailBloomFilter current;
+    // Filtro em construção; gravações feitas durante a reconstrução entram nos dois
+    private EmailBloomFilter building;
+
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder queried = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    public EmailIndex(UserRepository userRepository,
+                      PlatformTransactionManager transactionManager,
+                      @Value("${users.email-index.enabled}") boolean enabled,
+                      @Value("${users.email-index.expected-size}") long expectedSize,
+                      @Value("${users.email-index.false-positive-rate}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.expectedSize = expectedSize;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    /**
+     * Indica se já existe um usuário com o email.
+     */
+    public boolean exists(String email) {
+        if (isDefinitelyAbsent(email)) {
+            return false;
+        }
+        boolean exists = userRepository.existsByEmail(normalize(email));
+        countQuery(exists);
+        return exists;
+    }
+
+    /**
+     * {@code false} quando o email com certeza não está cadastrado; {@code true} exige confirmar no banco.
+     */
+    public boolean mightExist(String email) {
+        return !isDefinitelyAbsent(email);
+    }
+
+    /**
+     * Registra um email gravado. Entra no filtro já (antes do commit, uma checagem concorrente passa a ir
+     * ao banco) e de novo após o commit, para não se perder numa reconstrução que esteja em andamento.
+     */
+    public void add(String email) {
+        if (!enabled || email == null) {
+            return;
+        }
+        String normalized = normalize(email);
+        put(normalized);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(normalized);
+                }
+            });
+        }
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${users.email-index.rebuild-interval-ms}",
+            initialDelayString = "${users.email-index.rebuild-interval-ms}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        long users = userRepository.count();
+        // Folga para o crescimento até a próxima reconstrução, sem cair abaixo do tamanho configurado
+        var filter = new EmailBloomFilter(Math.max(expectedSize, users * 2), falsePositiveRate);
+        synchronized (lock) {
+            building = filter;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<String> emails = userRepository.streamAllEmails()) {
+                    emails.forEach(email -> filter.put(normalize(email)));
+                }
+            });
+            synchronized (lock) {
+                current = filter;
+            }
+        } finally {
+            synchronized (lock) {
+                building = null;
+            }
+        }
+        logger.info("Índice de emails carregado: {} emails, {} bits, {} hashes em {} ms",
+                filter.insertions(), filter.bitCount(), filter.hashCount(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public EmailIndexStats stats() {
+        EmailBloomFilter filter = current;
+        return new EmailIndexStats(
+                filter == null ? 0 : filter.insertions(),
+                filter == null ? 0 : filter.capacity(),
+                filter == null ? 0 : filter.bitCount(),
+                filter == null ? 0 : filter.expectedFalsePositiveRate(),
+                skipped.sum(), queried.sum(), falsePositives.sum());
+    }
+
+    private boolean isDefinitelyAbsent(String email) {
+        if (email == null) {
+            return true;
+        }
+        EmailBloomFilter filter = current;
+        if (!enabled || filter == null) {
+            return false;
+        }
+        if (filter.mightContain(normalize(email))) {
+            return false;
+        }
+        skipped.increment();
+        return true;
+    }
+
+    private void countQuery(boolean found) {
+        queried.increment();
+        if (!found && current != null) {
+            falsePositives.increment();
+        }
+    }
+
+    private void put(String normalized) {
+        synchronized (lock) {
+            EmailBloomFilter filter = current;
+            if (filter != null) {
+                filter.put(normalized);
+            }
+            if (building != null) {
+                building.put(normalized);
+            }
+        }
+    }
+
+    // Emails são gravados em minúsculas (UserService, importação)
+    private static String normalize(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param emails            emails inseridos no filtro atual
+     * @param capacity          capacidade para a qual o filtro foi dimensionado
+     * @param bits              tamanho do filtro em bits
+     * @param falsePositiveRate taxa de falso positivo esperada com o volume atual
+     * @param skipped           verificações respondidas sem consultar o banco
+     * @param queried           verificações que consultaram o banco
+     * @param falsePositives    consultas ao banco em que o email não existia
+     */
+    public record EmailIndexStats(long emails, long capacity, long bits, double falsePositiveRate,
+                                  long skipped, long queried, long falsePositives) {
+    }
+}
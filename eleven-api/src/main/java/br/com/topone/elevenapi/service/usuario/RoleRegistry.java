@@ -0,0 +1,77 @@
+package br.com.topone.elevenapi.service.usuario;
+
+import br.com.topone.elevenapi.entities.Role;
+import br.com.topone.elevenapi.entities.RoleTable;
+import br.com.topone.elevenapi.repositories.RoleRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Carrega as roles de {@code tb_role} na {@link RoleTable} na inicialização e a recarrega após o
+ * commit de cada alteração ({@link RoleTable.Changed}, publicado pelo listener JPA de {@link Role}).
+ */
+@Component
+public class RoleRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoleRegistry.class);
+
+    private final RoleRepository roleRepository;
+
+    public RoleRegistry(RoleRepository roleRepository) {
+        this.roleRepository = roleRepository;
+    }
+
+    @PostConstruct
+    public synchronized void reload() {
+        // Bits já atribuídos não mudam, pois máscaras calculadas antes continuam em uso
+        Map<Long, Integer> bitById = new HashMap<>(RoleTable.bitById());
+        List<Role> roles = roleRepository.findAll(Sort.by("id"));
+        for (Role role : roles) {
+            if (!bitById.containsKey(role.getId())) {
+                if (bitById.size() >= RoleTable.MAX_ROLES) {
+                    throw new IllegalStateException(STR."Limite de \{RoleTable.MAX_ROLES} roles excedido");
+                }
+                bitById.put(role.getId(), bitById.size());
+            }
+        }
+
+        Role[] byBit = new Role[bitById.size()];
+        Map<String, Integer> bitByAuthority = new HashMap<>();
+        for (Role role : roles) {
+            int bit = bitById.get(role.getId());
+            byBit[bit] = new Role(role.getId(), role.getAuthority());
+            bitByAuthority.put(role.getAuthority(), bit);
+        }
+        RoleTable.install(bitById, bitByAuthority, byBit);
+        logger.info("Registro de roles carregado: {}", bitByAuthority.keySet());
+    }
+
+    @EventListener
+    public void roleChanged(RoleTable.Changed event) {
+        reloadAfterCommit();
+    }
+
+    // Recarrega depois do commit da transação que alterou tb_role (ou já, fora de transação)
+    public void reloadAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reload();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reload();
+            }
+        });
+    }
+}
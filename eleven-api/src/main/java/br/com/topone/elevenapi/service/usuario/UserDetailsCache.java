@@ -0,0 +1,115 @@
+package br.com.topone.elevenapi.service.usuario;
+
+import br.com.topone.elevenapi.entities.RoleTable;
+import br.com.topone.elevenapi.entities.User;
+import br.com.topone.elevenapi.projections.UserDetailsProjection;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Cache limitado (tamanho + TTL) das credenciais e roles usadas no login.
+ * Guarda apenas um snapshot imutável; cada chamada recebe um {@link User} novo.
+ */
+@Component
+public class UserDetailsCache {
+
+    private final Cache<String, CachedUser> cache;
+
+    @Autowired
+    public UserDetailsCache(@Value("${security.user-cache.max-size}") long maxSize,
+                            @Value("${security.user-cache.ttl-seconds}") long ttlSeconds) {
+        this(maxSize, ttlSeconds, Ticker.systemTicker());
+    }
+
+    // Relógio substituível nos testes
+    UserDetailsCache(long maxSize, long ttlSeconds, Ticker ticker) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Retorna o usuário do cache ou carrega as linhas do banco via {@code loader}.
+     * Resultados vazios não são armazenados.
+     */
+    public User get(String username, Function<String, List<UserDetailsProjection>> loader) {
+        CachedUser cached = cache.get(username, key -> {
+            List<UserDetailsProjection> rows = loader.apply(key);
+            return rows.isEmpty() ? null : CachedUser.of(key, rows);
+        });
+        return cached == null ? null : cached.toUser();
+    }
+
+    /**
+     * Remove o usuário após o commit da transação corrente (ou na hora, fora de transação).
+     * Invalidar antes do commit deixaria uma leitura concorrente repovoar o cache com dados
+     * antigos; num rollback a entrada continua válida e é mantida.
+     */
+    public void invalidate(String username) {
+        if (username == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.invalidate(username);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.invalidate(username);
+            }
+        });
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private record CachedRole(Long id, String authority) {
+    }
+
+    private record CachedUser(Long id, String username, String password, boolean active, List<CachedRole> roles) {
+
+        static CachedUser of(String username, List<UserDetailsProjection> rows) {
+            UserDetailsProjection first = rows.getFirst();
+            List<CachedRole> roles = rows.stream()
+                    .map(row -> new CachedRole(row.getRoleId(), row.getAuthority()))
+                    .toList();
+            return new CachedUser(first.getId(), username, first.getPassword(), first.getActive(), roles);
+        }
+
+        User toUser() {
+            var user = new User();
+            user.setId(id);
+            user.setEmail(username);
+            user.setPassword(password);
+            user.setActive(active);
+            for (CachedRole role : roles) {
+                user.addRole(RoleTable.canonical(role.id(), role.authority()));
+            }
+            return user;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package br.com.topone.elevenapi.service.usuario;
+
+import br.com.topone.elevenapi.records.AddressRecord;
+import br.com.topone.elevenapi.records.UserWithProfileRecord;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Escreve a exportação de usuários com perfil registro a registro, sem montar o arquivo em memória.
+ * <ul>
+ *     <li>NDJSON: um {@link UserWithProfileRecord} por linha, com os endereços aninhados.</li>
+ *     <li>CSV: uma linha por endereço, repetindo os dados do usuário; quem não tem endereço ocupa uma linha
+ *     com as colunas de endereço vazias.</li>
+ * </ul>
+ * O stream de saída não é fechado aqui; quem o abriu decide.
+ */
+public class UserExportWriter implements Flushable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final List<String> CSV_COLUMNS = List.of(
+            "id", "name", "email", "active", "createdAt", "updatedAt",
+            "profileId", "cpf", "birthDate", "phone", "motherName", "fatherName",
+            "addressId", "zipCode", "street", "number", "complement", "district", "city", "uf");
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String mediaType;
+        private final String extension;
+
+        Format(String mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public String mediaType() {
+            return mediaType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+    }
+
+    private final Format format;
+    private final Writer writer;
+    private final JsonGenerator json;
+    private final ObjectWriter objectWriter;
+
+    public UserExportWriter(OutputStream output, Format format, ObjectMapper objectMapper) throws IOException {
+        this.format = format;
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+        if (format == Format.NDJSON) {
+            // Sem flush a cada registro: o envio acontece no flush() de cada bloco
+            this.objectWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            this.json = objectMapper.getFactory().createGenerator(writer)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        } else {
+            this.objectWriter = null;
+            this.json = null;
+            writeCsvLine(CSV_COLUMNS.toArray(String[]::new));
+        }
+    }
+
+    public void write(UserWithProfileRecord user) throws IOException {
+        if (format == Format.NDJSON) {
+            objectWriter.writeValue(json, user);
+            json.writeRaw('\n');
+            return;
+        }
+        List<AddressRecord> addresses = user.addresses() == null || user.addresses().isEmpty()
+                ? Collections.<AddressRecord>singletonList(null)
+                : user.addresses();
+        for (AddressRecord address : addresses) {
+            writeCsvLine(
+                    text(user.id()), user.name(), user.email(), text(user.active()),
+                    text(user.createdAt()), text(user.updatedAt()),
+                    text(user.userProfileId()), user.cpf(), text(user.birthDate()), user.phone(),
+                    user.motherName(), user.fatherName(),
+                    address == null ? null : text(address.id()),
+                    address == null ? null : address.zipCode(),
+                    address == null ? null : address.street(),
+                    address == null ? null : address.number(),
+                    address == null ? null : address.complement(),
+                    address == null ? null : address.district(),
+                    address == null ? null : address.city(),
+                    address == null ? null : address.uf());
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (json != null) {
+            json.flush();
+        }
+        writer.flush();
+    }
+
+    private void writeCsvLine(String... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeCsvValue(values[i]);
+        }
+        writer.write("\r\n");
+    }
+
+    // Aspas só quando necessário (RFC 4180); null vira campo vazio
+    private void writeCsvValue(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static String text(Object value) {
+        return value == null ? null : value.toString();
+    }
+}
@@ -0,0 +1,194 @@
+package br.com.topone.elevenapi.service.usuario;
+
+import br.com.topone.elevenapi.service.exceptions.InvalidImportException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Lê o arquivo de importação linha a linha, sem carregá-lo inteiro.
+ * <ul>
+ *     <li>CSV: cabeçalho com {@code name,email,password} e, opcionalmente, {@code active} e {@code roles}
+ *     (separadas por {@code |}). Campos entre aspas podem conter vírgulas, mas não quebras de linha.</li>
+ *     <li>NDJSON: um objeto por linha com os mesmos campos; {@code roles} é uma lista.</li>
+ * </ul>
+ * Uma linha mal formada vira um {@link Row} com erro, e a leitura continua.
+ */
+public class UserImportReader implements Closeable {
+
+    public enum Format {
+        CSV, NDJSON;
+
+        public static Format from(String contentType) {
+            String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+            if (type.startsWith("text/csv")) {
+                return CSV;
+            }
+            if (type.startsWith("application/x-ndjson") || type.startsWith("application/jsonl")) {
+                return NDJSON;
+            }
+            throw new InvalidImportException(STR."Formato não suportado: \{contentType}. Use text/csv ou application/x-ndjson");
+        }
+    }
+
+    public record Row(long line, String name, String email, String password, boolean active,
+                      List<String> roles, String error) {
+
+        static Row invalid(long line, String error) {
+            return new Row(line, null, null, null, false, List.of(), error);
+        }
+    }
+
+    private final BufferedReader reader;
+    private final Format format;
+    private final ObjectMapper objectMapper;
+    private Map<String, Integer> columns;
+    private long lineNumber;
+
+    public UserImportReader(InputStream input, Format format, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Próxima linha do arquivo, ignorando linhas em branco; {@code null} no fim.
+     */
+    public Row next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            lineNumber++;
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        if (format == Format.NDJSON) {
+            return parseJson(line);
+        }
+        if (columns == null) {
+            readHeader(line);
+            return next();
+        }
+        return parseCsv(line);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void readHeader(String line) {
+        // Ignora o BOM que alguns editores gravam no início do arquivo
+        List<String> names = splitCsv(line.replace("\uFEFF", ""));
+        if (names == null) {
+            throw new InvalidImportException("Cabeçalho CSV inválido");
+        }
+        columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("name", "email", "password")) {
+            if (!columns.containsKey(required)) {
+                throw new InvalidImportException(STR."Coluna obrigatória ausente no cabeçalho: \{required}");
+            }
+        }
+    }
+
+    private Row parseCsv(String line) {
+        List<String> values = splitCsv(line);
+        if (values == null) {
+            return Row.invalid(lineNumber, "Aspas não fechadas");
+        }
+        String active = column(values, "active");
+        String roles = column(values, "roles");
+        return new Row(lineNumber,
+                column(values, "name"),
+                column(values, "email"),
+                column(values, "password"),
+                active == null || active.isBlank() || parseBoolean(active),
+                roles == null || roles.isBlank() ? List.of() : List.of(roles.split("\\|")),
+                null);
+    }
+
+    private Row parseJson(String line) {
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            if (!node.isObject()) {
+                return Row.invalid(lineNumber, "Linha não é um objeto JSON");
+            }
+            List<String> roles = new ArrayList<>();
+            node.path("roles").forEach(role -> roles.add(role.asText()));
+            return new Row(lineNumber,
+                    text(node, "name"),
+                    text(node, "email"),
+                    text(node, "password"),
+                    !node.hasNonNull("active") || node.get("active").asBoolean(),
+                    roles,
+                    null);
+        } catch (JsonProcessingException e) {
+            return Row.invalid(lineNumber, "JSON inválido");
+        }
+    }
+
+    private String column(List<String> values, String name) {
+        Integer index = columns.get(name);
+        return index == null || index >= values.size() ? null : values.get(index).trim();
+    }
+
+    private static String text(JsonNode node, String field) {
+        return node.hasNonNull(field) ? node.get(field).asText() : null;
+    }
+
+    private static boolean parseBoolean(String value) {
+        return switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "false", "0", "n", "nao", "não" -> false;
+            default -> true;
+        };
+    }
+
+    // Divide uma linha CSV respeitando aspas ("" dentro de aspas é uma aspa); null se as aspas não fecham
+    private static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        values.add(current.toString());
+        return values;
+    }
+}
@@ -0,0 +1,290 @@
+package br.com.topone.elevenapi.service.usuario;
+
+import br.com.topone.elevenapi.dtos.user.UserInsertDTO;
+import br.com.topone.elevenapi.entities.Role;
+import br.com.topone.elevenapi.entities.RoleTable;
+import br.com.topone.elevenapi.entities.User;
+import br.com.topone.elevenapi.records.UserImportErrorRecord;
+import br.com.topone.elevenapi.records.UserImportResultRecord;
+import br.com.topone.elevenapi.repositories.RoleRepository;
+import br.com.topone.elevenapi.repositories.UserRepository;
+import br.com.topone.elevenapi.service.EmailOutboxService;
+import br.com.topone.elevenapi.service.PasswordHashingService;
+import br.com.topone.elevenapi.service.exceptions.InvalidImportException;
+import br.com.topone.elevenapi.service.exceptions.ServiceUnavailableException;
+import br.com.topone.elevenapi.service.search.UserSearchIndexer;
+import br.com.topone.elevenapi.service.validation.EmailDomainResolver;
+import br.com.topone.elevenapi.util.CapitalizeUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Importação em lote de usuários a partir de CSV ou NDJSON.
+ * <p>
+ * O arquivo é lido em streaming e processado em blocos de {@code users.import.chunk-size} linhas.
+ * Em cada bloco a validação é feita em conjunto (domínios distintos consultados em paralelo, uma única
+ * consulta para os emails já cadastrados), os hashes são gerados em paralelo no pool do BCrypt e a gravação
+ * usa insert em lote do JDBC numa transação por bloco. Uma linha inválida não interrompe a importação:
+ * ela é registrada no resultado com o número da linha e o motivo.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+    private static final String DEFAULT_ROLE = "ROLE_OPERATOR";
+
+    private final UserRepository repository;
+    private final RoleRepository roleRepository;
+    private final PasswordHashingService passwordEncoder;
+    private final EmailOutboxService emailOutboxService;
+    private final EmailDomainResolver emailDomainResolver;
+    private final UserSearchIndexer userSearchIndexer;
+    private final EmailIndex emailIndex;
+    private final CapitalizeUtil formatToTitleCase;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxErrors;
+
+    // Uma importação por vez: cada uma já ocupa o pool de hashing
+    private final Semaphore running = new Semaphore(1);
+
+    public UserImportService(UserRepository repository,
+                             RoleRepository roleRepository,
+                             PasswordHashingService passwordEncoder,
+                             EmailOutboxService emailOutboxService,
+                             EmailDomainResolver emailDomainResolver,
+                             UserSearchIndexer userSearchIndexer,
+                             EmailIndex emailIndex,
+                             CapitalizeUtil formatToTitleCase,
+                             Validator validator,
+                             ObjectMapper objectMapper,
+                             EntityManager entityManager,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${users.import.chunk-size}") int chunkSize,
+                             @Value("${users.import.max-errors}") int maxErrors) {
+        this.repository = repository;
+        this.roleRepository = roleRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.emailOutboxService = emailOutboxService;
+        this.emailDomainResolver = emailDomainResolver;
+        this.userSearchIndexer = userSearchIndexer;
+        this.emailIndex = emailIndex;
+        this.formatToTitleCase = formatToTitleCase;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+    }
+
+    public UserImportResultRecord importUsers(InputStream input, UserImportReader.Format format, boolean sendWelcome) {
+        if (!running.tryAcquire()) {
+            throw new ServiceUnavailableException("Já existe uma importação em andamento");
+        }
+        var progress = new Progress(maxErrors);
+        try (var reader = new UserImportReader(input, format, objectMapper)) {
+            Set<String> seenEmails = new HashSet<>();
+            List<UserImportReader.Row> chunk = new ArrayList<>(chunkSize);
+            UserImportReader.Row row;
+            while ((row = reader.next()) != null) {
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    processChunk(chunk, seenEmails, sendWelcome, progress);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                processChunk(chunk, seenEmails, sendWelcome, progress);
+            }
+        } catch (IOException e) {
+            throw new InvalidImportException(STR."Não foi possível ler o arquivo: \{e.getMessage()}");
+        } finally {
+            running.release();
+        }
+        logger.info("Importação de usuários: {} linhas, {} importados, {} com erro",
+                progress.total, progress.imported, progress.failed);
+        return progress.toRecord();
+    }
+
+    private void processChunk(List<UserImportReader.Row> rows, Set<String> seenEmails, boolean sendWelcome,
+                              Progress progress) {
+        progress.total += rows.size();
+        warmUpDomains(rows);
+
+        List<ValidRow> valid = new ArrayList<>(rows.size());
+        for (UserImportReader.Row row : rows) {
+            String error = row.error() != null ? row.error() : validate(row);
+            List<Role> roles = error == null ? resolveRoles(row) : List.of();
+            if (error == null && roles == null) {
+                error = STR."Role desconhecida: \{row.roles()}";
+            }
+            if (error == null && !seenEmails.add(normalizeEmail(row.email()))) {
+                error = "Email repetido no arquivo";
+            }
+            if (error != null) {
+                progress.fail(row, error);
+            } else {
+                valid.add(new ValidRow(row, normalizeEmail(row.email()), roles));
+            }
+        }
+
+        // Só os emails que o índice não descarta vão para a consulta
+        List<String> candidates = valid.stream().map(ValidRow::email).filter(emailIndex::mightExist).toList();
+        Set<String> existing = candidates.isEmpty() ? Set.of() : repository.findExistingEmails(candidates);
+        valid.removeIf(candidate -> {
+            if (existing.contains(candidate.email())) {
+                progress.fail(candidate.row(), "Já existe um usuário com este email");
+                return true;
+            }
+            return false;
+        });
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        List<String> hashes = passwordEncoder.encodeAll(valid.stream().map(candidate -> candidate.row().password()).toList());
+        try {
+            persist(valid, hashes, sendWelcome);
+            progress.imported += valid.size();
+        } catch (DataAccessException e) {
+            // Uma linha rejeitada pelo banco desfaz o bloco todo; grava uma a uma para isolar o problema
+            logger.warn("Bloco da importação rejeitado, gravando linha a linha: {}",
+                    NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            for (int i = 0; i < valid.size(); i++) {
+                try {
+                    persist(List.of(valid.get(i)), List.of(hashes.get(i)), sendWelcome);
+                    progress.imported++;
+                } catch (DataAccessException rowFailure) {
+                    progress.fail(valid.get(i).row(), "Não foi possível gravar o usuário");
+                }
+            }
+        }
+    }
+
+    private void persist(List<ValidRow> rows, List<String> hashes, boolean sendWelcome) {
+        transactionTemplate.executeWithoutResult(status -> {
+            // Não popula o cache de segundo nível com os usuários importados
+            entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+            List<User> users = new ArrayList<>(rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                ValidRow candidate = rows.get(i);
+                var user = new User();
+                user.setName(formatToTitleCase.capitalize(candidate.row().name()));
+                user.setEmail(candidate.email());
+                user.setPassword(hashes.get(i));
+                user.setActive(candidate.row().active());
+                for (Role role : candidate.roles()) {
+                    user.addRole(roleRepository.getReferenceById(role.getId()));
+                }
+                users.add(user);
+            }
+            repository.saveAll(users);
+            users.forEach(user -> emailIndex.add(user.getEmail()));
+
+            if (sendWelcome) {
+                users.forEach(user -> emailOutboxService.enqueueWelcome(user.getId(), user.getEmail()));
+            }
+            userSearchIndexer.reindex(users.stream().map(User::getId).toList());
+        });
+    }
+
+    // Mesmas regras de campo do POST /users; a unicidade do email é verificada em conjunto
+    private String validate(UserImportReader.Row row) {
+        List<String> messages = new ArrayList<>();
+        addViolations(messages, validator.validateValue(UserInsertDTO.class, "name", row.name()));
+        addViolations(messages, validator.validateValue(UserInsertDTO.class, "email", row.email()));
+        addViolations(messages, validator.validateValue(UserInsertDTO.class, "password", row.password()));
+        return messages.isEmpty() ? null : String.join("; ", messages);
+    }
+
+    private static void addViolations(List<String> messages, Set<ConstraintViolation<UserInsertDTO>> violations) {
+        violations.forEach(violation -> messages.add(violation.getMessage()));
+    }
+
+    // Consulta cada domínio distinto do bloco uma vez, em paralelo; a validação por linha usa o cache do resolver
+    private void warmUpDomains(List<UserImportReader.Row> rows) {
+        Set<String> domains = new HashSet<>();
+        for (UserImportReader.Row row : rows) {
+            String email = row.email();
+            int at = email == null ? -1 : email.lastIndexOf('@');
+            if (at > 0 && at < email.length() - 1) {
+                domains.add(email.substring(at + 1).toLowerCase(Locale.ROOT));
+            }
+        }
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            domains.forEach(domain -> executor.submit(() -> emailDomainResolver.isValidDomain(domain)));
+        }
+    }
+
+    // null quando alguma role não existe
+    private static List<Role> resolveRoles(UserImportReader.Row row) {
+        List<String> names = row.roles().isEmpty() ? List.of(DEFAULT_ROLE) : row.roles();
+        List<Role> roles = new ArrayList<>(names.size());
+        for (String name : names) {
+            Role role = RoleTable.findByAuthority(name.trim().toUpperCase(Locale.ROOT));
+            if (role == null) {
+                return null;
+            }
+            roles.add(role);
+        }
+        return roles;
+    }
+
+    private static String normalizeEmail(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record ValidRow(UserImportReader.Row row, String email, List<Role> roles) {
+    }
+
+    private static class Progress {
+
+        private final int maxErrors;
+        private final List<UserImportErrorRecord> errors = new ArrayList<>();
+        private long total;
+        private long imported;
+        private long failed;
+
+        Progress(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        void fail(UserImportReader.Row row, String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(new UserImportErrorRecord(row.line(), row.email(), message));
+            }
+        }
+
+        UserImportResultRecord toRecord() {
+            return new UserImportResultRecord(total, imported, failed, List.copyOf(errors), failed > errors.size());
+        }
+    }
+}
@@ -1,25 +1,36 @@
 package br.com.topone.elevenapi.service.usuario;
 
 import br.com.topone.elevenapi.entities.Address;
-import br.com.topone.elevenapi.entities.User;
 import br.com.topone.elevenapi.entities.UserProfile;
+import br.com.topone.elevenapi.records.AddressRecord;
+import br.com.topone.elevenapi.records.CursorPage;
 import br.com.topone.elevenapi.records.UserProfileRecord;
 import br.com.topone.elevenapi.repositories.AddressRepository;
-import br.com.topone.elevenapi.repositories.RoleRepository;
 import br.com.topone.elevenapi.repositories.UserProfileRepository;
+import br.com.topone.elevenapi.repositories.UserRepository;
 import br.com.topone.elevenapi.service.AuthService;
 import br.com.topone.elevenapi.service.exceptions.DatabaseException;
 import br.com.topone.elevenapi.service.exceptions.ResourceNotFoundException;
+import br.com.topone.elevenapi.service.pagination.CountMode;
+import br.com.topone.elevenapi.service.pagination.KeysetCursor;
+import br.com.topone.elevenapi.service.pagination.RowCountEstimator;
+import br.com.topone.elevenapi.service.search.UserSearchIndexer;
 import jakarta.persistence.EntityNotFoundException;
-import org.springframework.beans.BeanUtils;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,26 +38,46 @@ public class UserProfileService {
     
     private final UserProfileRepository repository;
     private final AuthService authService;
-    private final RoleRepository roleRepository;
+    private final UserRepository userRepository;
     private final AddressRepository addressRepository;
+    private final UserSearchIndexer userSearchIndexer;
+    private final RowCountEstimator rowCountEstimator;
     
     public UserProfileService(UserProfileRepository repository, 
                               AuthService authService, 
-                              RoleRepository roleRepository, 
-                              AddressRepository addressRepository) {
+                              UserRepository userRepository, 
+                              AddressRepository addressRepository,
+                              UserSearchIndexer userSearchIndexer,
+                              RowCountEstimator rowCountEstimator) {
         this.repository = repository;
         this.authService = authService;
-        this.roleRepository = roleRepository;
+        this.userRepository = userRepository;
         this.addressRepository = addressRepository;
+        this.userSearchIndexer = userSearchIndexer;
+        this.rowCountEstimator = rowCountEstimator;
     }
     
     // Find all users paginated
     @Transactional(readOnly = true)
     public Page<UserProfileRecord> findAllPaged(Pageable pageable) {
-        Page<UserProfile> list = repository.findAll(pageable);
+        Page<UserProfile> list = repository.findPageWithUser(pageable);
         return list.map(UserProfileRecord::new);
     }
     
+    // paginação por cursor sobre o id (que é o id do usuário, via @MapsId)
+    @Transactional(readOnly = true)
+    public CursorPage<UserProfileRecord> findAllByCursor(String cursor, int size, CountMode countMode) {
+        int pageSize = KeysetCursor.clampSize(size);
+        KeysetCursor after = KeysetCursor.decode(cursor, "id");
+        var limit = Limit.of(pageSize + 1);
+        List<UserProfile> rows = after == null
+                ? repository.findAllByOrderByIdAsc(limit)
+                : repository.findPageAfterId(after.id(), limit);
+        Long total = rowCountEstimator.count(countMode, "tb_user_profile", repository::count);
+        return CursorPage.of(rows, pageSize, profile -> new KeysetCursor("id", null, profile.getId()),
+                UserProfileRecord::new, total);
+    }
+    
     // Find user by id
     @Transactional(readOnly = true)
     public UserProfileRecord findById(Long id) {
@@ -62,25 +93,22 @@ public class UserProfileService {
         if (repository.existsByUserId(dto.user().getId())) {
             throw new DatabaseException("Usuário já possui um perfil");
         }
+        var user = userRepository.findById(dto.user().getId())
+                .orElseThrow(() -> new ResourceNotFoundException(STR."Usuário não encontrado: \{dto.user().getId()}"));
         var entity = new UserProfile();
         copyDtoToEntity(dto, entity);
-    
-        // Salvar o UserProfile primeiro
+        entity.setUser(user);
+        entity.setAddresses(new HashSet<>());
         entity = repository.save(entity);
-    
-        // Salvar endereços e associá-los ao UserProfile
-        UserProfile finalEntity = entity;
-        Set<Address> savedAddresses = dto.address().stream()
-            .map(addressDto -> {
-                Address address = new Address();
-                BeanUtils.copyProperties(addressDto, address);
-                address.setUserProfile(finalEntity);
-                return addressRepository.save(address);
-            }).collect(Collectors.toSet());
-    
-        entity.setAddresses(savedAddresses);
-        entity = repository.save(entity); // Salvar novamente para atualizar a relação
-    
+
+        // Perfil e endereços vão no mesmo flush, com os inserts de endereço em lote
+        List<Address> addresses = new ArrayList<>();
+        for (AddressRecord addressDto : addressesOf(dto)) {
+            addresses.add(newAddress(addressDto, entity));
+        }
+        addToProfile(entity, addresses);
+        userSearchIndexer.reindex(entity.getId());
+
         return new UserProfileRecord(entity);
     }
 
@@ -92,7 +120,8 @@ public class UserProfileService {
             var entity = repository.findById(id)
                                 .orElseThrow(() -> new ResourceNotFoundException(STR."Id não encontrado \{id}"));            
             copyDtoToEntity(dto, entity);
-            entity = repository.save(entity);
+            updateAddresses(entity, addressesOf(dto));
+            userSearchIndexer.reindex(entity.getId());
             return new UserProfileRecord(entity);
         } catch (EntityNotFoundException e) {
             throw new ResourceNotFoundException(STR."Entidade não encontrada com ID: \{id}");
@@ -105,31 +134,74 @@ public class UserProfileService {
             var entity = repository.findById(id).orElseThrow(() ->
                     new ResourceNotFoundException(STR."Id não encontrado \{id}"));
             repository.delete(entity);
+            userSearchIndexer.reindex(id);
         } catch (DataIntegrityViolationException e) {
             throw new DatabaseException("Violação de integridade");
         }
     }    
     
-    // Copy DTO to Entity    
+    // Copy DTO to Entity (o usuário do perfil não muda: o id do perfil é o id do usuário)
     private void copyDtoToEntity(UserProfileRecord dto, UserProfile entity) {
-        BeanUtils.copyProperties(dto, entity, "id", "user", "address");
-    
-        User userEntity = new User();
-        BeanUtils.copyProperties(dto.user(), userEntity);
-        userEntity.getRoles().clear();
-        dto.user().getRoles().forEach(roleDTO -> {
-            var role = roleRepository.getReferenceById(roleDTO.getId());
-            userEntity.getRoles().add(role);
-        });
-        entity.setUser(userEntity);
-    
-        entity.setAddresses(dto.address().stream()
-                .map(addressRecord -> {
-                    Address address = new Address();
-                    BeanUtils.copyProperties(addressRecord, address);
-                    return address;
-                })
-                .collect(Collectors.toSet()));
+        entity.setCpf(dto.cpf());
+        entity.setBirthDate(dto.birthDate());
+        entity.setPhone(dto.phone());
+        entity.setMotherName(dto.motherName());
+        entity.setFatherName(dto.fatherName());
+    }
+
+    /**
+     * Aplica a lista de endereços do DTO sobre os endereços atuais: os que vêm com id são atualizados no lugar
+     * (o dirty checking só emite UPDATE para o que mudou), os sem id são inseridos e os ausentes são removidos
+     * pelo orphanRemoval.
+     */
+    private void updateAddresses(UserProfile entity, Collection<AddressRecord> dtos) {
+        if (entity.getAddresses() == null) {
+            entity.setAddresses(new HashSet<>());
+        }
+        Map<Long, Address> current = entity.getAddresses().stream()
+                .collect(Collectors.toMap(Address::getId, Function.identity()));
+        Set<Long> kept = new HashSet<>();
+        List<Address> added = new ArrayList<>();
+        for (AddressRecord addressDto : dtos) {
+            if (addressDto.id() == null) {
+                added.add(newAddress(addressDto, entity));
+                continue;
+            }
+            Address address = current.get(addressDto.id());
+            if (address == null) {
+                throw new ResourceNotFoundException(STR."Endereço \{addressDto.id()} não pertence ao perfil \{entity.getId()}");
+            }
+            copyAddress(addressDto, address);
+            kept.add(address.getId());
+        }
+        entity.getAddresses().removeIf(address -> !kept.contains(address.getId()));
+        addToProfile(entity, added);
+    }
+
+    // Endereços novos recebem o id (da sequence, em blocos) antes de entrar no Set: o equals de Address é por id
+    private void addToProfile(UserProfile entity, List<Address> addresses) {
+        entity.getAddresses().addAll(addressRepository.saveAll(addresses));
+    }
+
+    private static Address newAddress(AddressRecord dto, UserProfile profile) {
+        var address = new Address();
+        copyAddress(dto, address);
+        address.setUserProfile(profile);
+        return address;
+    }
+
+    private static void copyAddress(AddressRecord dto, Address address) {
+        address.setZipCode(dto.zipCode());
+        address.setStreet(dto.street());
+        address.setNumber(dto.number());
+        address.setComplement(dto.complement());
+        address.setDistrict(dto.district());
+        address.setCity(dto.city());
+        address.setUf(dto.uf());
+    }
+
+    private static Collection<AddressRecord> addressesOf(UserProfileRecord dto) {
+        return dto.address() == null ? List.of() : dto.address();
     }
     
 }
@@ -4,28 +4,31 @@ import br.com.topone.elevenapi.dtos.RoleDTO;
 import br.com.topone.elevenapi.dtos.user.UserDTO;
 import br.com.topone.elevenapi.dtos.user.UserInsertDTO;
 import br.com.topone.elevenapi.dtos.user.UserUpdateDTO;
-import br.com.topone.elevenapi.entities.Role;
 import br.com.topone.elevenapi.entities.User;
-import br.com.topone.elevenapi.projections.UserDetailsProjection;
+import br.com.topone.elevenapi.records.CursorPage;
 import br.com.topone.elevenapi.records.UserWithProfileRecord;
 import br.com.topone.elevenapi.repositories.RoleRepository;
 import br.com.topone.elevenapi.repositories.UserRepository;
 import br.com.topone.elevenapi.service.AuthService;
-import br.com.topone.elevenapi.service.EmailService;
+import br.com.topone.elevenapi.service.EmailOutboxService;
 import br.com.topone.elevenapi.service.exceptions.DatabaseException;
-import br.com.topone.elevenapi.service.exceptions.EmailException;
 import br.com.topone.elevenapi.service.exceptions.ResourceNotFoundException;
+import br.com.topone.elevenapi.service.pagination.CountMode;
+import br.com.topone.elevenapi.service.pagination.KeysetCursor;
+import br.com.topone.elevenapi.service.pagination.RowCountEstimator;
+import br.com.topone.elevenapi.service.search.UserSearchIndex;
+import br.com.topone.elevenapi.service.search.UserSearchIndexer;
 import br.com.topone.elevenapi.util.CapitalizeUtil;
-import jakarta.mail.MessagingException;
-import jakarta.mail.SendFailedException;
 import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import org.springframework.mail.MailSendException;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -33,55 +36,80 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
+    private static final Set<String> CURSOR_SORTS = Set.of("id", "name");
 
     private final UserRepository repository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
-    private EmailService emailService;
+    private final EmailOutboxService emailOutboxService;
     private AuthService authService;
     private final CapitalizeUtil formatToTitleCase;
+    private final UserDetailsCache userDetailsCache;
+    private final UserSearchIndex userSearchIndex;
+    private final UserSearchIndexer userSearchIndexer;
+    private final RowCountEstimator rowCountEstimator;
+    private final EmailIndex emailIndex;
 
     public UserService(
             UserRepository repository,
             RoleRepository roleRepository,
             PasswordEncoder passwordEncoder,
-            EmailService emailService,
+            EmailOutboxService emailOutboxService,
             AuthService authService,
-            CapitalizeUtil formatToTitleCase) {
+            CapitalizeUtil formatToTitleCase,
+            UserDetailsCache userDetailsCache,
+            UserSearchIndex userSearchIndex,
+            UserSearchIndexer userSearchIndexer,
+            RowCountEstimator rowCountEstimator,
+            EmailIndex emailIndex) {
         this.repository = repository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
-        this.emailService = emailService;
+        this.emailOutboxService = emailOutboxService;
         this.authService = authService;
         this.formatToTitleCase = formatToTitleCase;
+        this.userDetailsCache = userDetailsCache;
+        this.userSearchIndex = userSearchIndex;
+        this.userSearchIndexer = userSearchIndexer;
+        this.rowCountEstimator = rowCountEstimator;
+        this.emailIndex = emailIndex;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        List<UserDetailsProjection> result = repository.searchUserAndRolesByEmail(username);
-        if (result.isEmpty()) {
+        var user = userDetailsCache.get(username, repository::searchUserAndRolesByEmail);
+        if (user == null) {
             throw new UsernameNotFoundException("Usuário não encontrado");
         }
-
-        var user = new User();
-        user.setEmail(username);
-        user.setPassword(result.getFirst().getPassword());
-        user.setActive(result.getFirst().getActive());
-        for (UserDetailsProjection projection : result) {
-            user.addRole(new Role(projection.getRoleId(), projection.getAuthority()));
-        }
-
         return user;
 
     }
 
+    // Atualiza o hash da senha (ex.: custo do BCrypt alterado) sem passar pelo DTO
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        var entity = repository.findByEmail(user.getUsername());
+        if (entity == null) {
+            throw new UsernameNotFoundException("Usuário não encontrado");
+        }
+        entity.setPassword(newPassword);
+        repository.save(entity);
+        userDetailsCache.invalidate(entity.getEmail());
+        return entity;
+    }
+
     // find all paged
     @Transactional(readOnly = true)
     public Page<UserDTO> findAllPaged(Pageable pageable) {
@@ -89,6 +117,18 @@ public class UserService implements UserDetailsService {
         return list.map(UserDTO::new);
     }
     
+    // paginação por cursor (id ou name), custo constante em qualquer profundidade
+    @Transactional(readOnly = true)
+    public CursorPage<UserDTO> findAllByCursor(String cursor, String sort, int size, CountMode countMode) {
+        KeysetCursor.requireSort(sort, CURSOR_SORTS);
+        int pageSize = KeysetCursor.clampSize(size);
+        List<User> rows = repository.findPage(sort, KeysetCursor.decode(cursor, sort), Limit.of(pageSize + 1));
+        Long total = rowCountEstimator.count(countMode, "tb_user", repository::count);
+        return CursorPage.of(rows, pageSize,
+                user -> new KeysetCursor(sort, "name".equals(sort) ? user.getName() : null, user.getId()),
+                UserDTO::new, total);
+    }
+    
     // buscar usuários por parte do nome
     @Transactional(readOnly = true)
     public Page<UserDTO> findByName(String name, Pageable pageable) {
@@ -96,6 +136,21 @@ public class UserService implements UserDetailsService {
         return list.map(UserDTO::new);
     }
 
+    // busca no índice de texto (nome, email e dados do perfil), sem acento e por prefixo
+    @Transactional(readOnly = true)
+    public Page<UserDTO> search(String query, Pageable pageable) {
+        Page<Long> ids = userSearchIndex.search(query, pageable);
+        Map<Long, User> users = repository.findAllById(ids.getContent()).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        // Mantém a ordem de relevância do índice
+        List<UserDTO> content = ids.getContent().stream()
+                .map(users::get)
+                .filter(Objects::nonNull)
+                .map(UserDTO::new)
+                .toList();
+        return new PageImpl<>(content, pageable, ids.getTotalElements());
+    }
+
     // find by id
     @Transactional(readOnly = true)
     public UserDTO findById(Long id) {
@@ -113,26 +168,21 @@ public class UserService implements UserDetailsService {
 
     // Insert new user
     @Transactional
-    public UserDTO insert(UserInsertDTO dto) throws MessagingException {
+    public UserDTO insert(UserInsertDTO dto) {
         var entity = new User();
         copyDtoToEntity(dto, entity);
         entity.setPassword(passwordEncoder.encode(dto.getPassword()));
-        entity = repository.save(entity);
-
         try {
-            emailService.sendWelcomeEmail(entity.getEmail(), entity.getName(), entity.getEmail(), dto.getPassword());
-        } catch (MailSendException e) {
-            Throwable cause = e.getCause();
-            if (cause instanceof SendFailedException) {
-                logger.error("Falha ao enviar e-mail de acesso", e);
-                throw new EmailException("Falha ao enviar e-mail. O endereço de e-mail é inválido ou a caixa de correio não existe.", e);
-            } else {
-                logger.error("Erro de mensagem ao enviar e-mail de acesso", e);
-                throw new EmailException("Falha ao enviar e-mail. Verifique as configurações de e-mail e tente novamente.", e);
-            }
-        } catch (MessagingException e) {
-            throw new RuntimeException(e);
+            // O UserInsertValidator consulta o EmailIndex; a constraint única de email é a garantia final
+            entity = repository.saveAndFlush(entity);
+        } catch (DataIntegrityViolationException e) {
+            throw new DatabaseException("Já existe um usuário com este email");
         }
+        emailIndex.add(entity.getEmail());
+
+        // Enviado pelo EmailOutboxDispatcher após o commit; falha de SMTP não desfaz o cadastro
+        emailOutboxService.enqueueWelcome(entity.getId(), entity.getEmail());
+        userSearchIndexer.reindex(entity.getId());
 
         return new UserDTO(entity);
     }
@@ -142,13 +192,17 @@ public class UserService implements UserDetailsService {
     public UserDTO update(Long id, UserUpdateDTO dto) {
         try {
             var entity = repository.getReferenceById(id);
+            userDetailsCache.invalidate(entity.getEmail());
             copyDtoToEntity(dto, entity);
+            userDetailsCache.invalidate(entity.getEmail());
             
             if (dto.getPassword() != null && !dto.getPassword().isEmpty()) {
                 entity.setPassword(passwordEncoder.encode(dto.getPassword()));
             }
             
             entity = repository.save(entity);
+            emailIndex.add(entity.getEmail());
+            userSearchIndexer.reindex(entity.getId());
             return new UserDTO(entity);
         } catch (EntityNotFoundException e) {
             throw new ResourceNotFoundException(STR."Id não encontrado \{id}");
@@ -161,6 +215,8 @@ public class UserService implements UserDetailsService {
             var entity = repository.findById(id).orElseThrow(() ->
                     new ResourceNotFoundException(STR."Id não encontrado \{id}"));
             repository.delete(entity);
+            userDetailsCache.invalidate(entity.getEmail());
+            userSearchIndexer.remove(id);
         } catch (DataIntegrityViolationException e) {
             throw new DatabaseException("Violacão de integridade");
         }
@@ -171,10 +227,10 @@ public class UserService implements UserDetailsService {
         entity.setName(formatToTitleCase.capitalize(dto.getName()));
         entity.setEmail(dto.getEmail().toLowerCase());
         entity.setActive(dto.isActive());
-        entity.getRoles().clear();
+        entity.clearRoles();
         for (RoleDTO roleDTO : dto.getRoles()) {
-            var role = roleRepository.getReferenceById(roleDTO.getId());
-            entity.getRoles().add(role);
+            var role = roleRepository.getReferenceById(roleDTO.id());
+            entity.addRole(role);
         }
     }
 
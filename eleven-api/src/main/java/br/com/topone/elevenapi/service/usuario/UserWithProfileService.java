@@ -1,36 +1,151 @@
 package br.com.topone.elevenapi.service.usuario;
 
-import br.com.topone.elevenapi.entities.User;
+import br.com.topone.elevenapi.projections.AddressProjection;
+import br.com.topone.elevenapi.projections.UserWithProfileProjection;
+import br.com.topone.elevenapi.records.AddressRecord;
+import br.com.topone.elevenapi.records.CursorPage;
 import br.com.topone.elevenapi.records.UserWithProfileRecord;
+import br.com.topone.elevenapi.repositories.AddressRepository;
 import br.com.topone.elevenapi.repositories.UserRepository;
+import br.com.topone.elevenapi.service.pagination.CountMode;
+import br.com.topone.elevenapi.service.pagination.KeysetCursor;
+import br.com.topone.elevenapi.service.pagination.RowCountEstimator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+/**
+ * Leitura de usuários com perfil direto em projeções, sem carregar entidades:
+ * uma consulta para usuário + perfil (LEFT JOIN 1:1) e outra para os endereços da página inteira,
+ * independentemente do tamanho da página.
+ */
 @Service
 public class UserWithProfileService {
 
+    private static final Set<String> CURSOR_SORTS = Set.of("id", "name");
+    private static final int EXPORT_BATCH_SIZE = Integer.parseInt(UserRepository.STREAM_FETCH_SIZE);
+
     private final UserRepository userRepository;
+    private final AddressRepository addressRepository;
+    private final RowCountEstimator rowCountEstimator;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
 
-    public UserWithProfileService(UserRepository userRepository) {
+    public UserWithProfileService(UserRepository userRepository,
+                                  AddressRepository addressRepository,
+                                  RowCountEstimator rowCountEstimator,
+                                  EntityManager entityManager,
+                                  ObjectMapper objectMapper) {
         this.userRepository = userRepository;
+        this.addressRepository = addressRepository;
+        this.rowCountEstimator = rowCountEstimator;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
     }
 
     @Transactional(readOnly = true)
     public Page<UserWithProfileRecord> getAllUsersWithProfiles(Pageable pageable) {
-        return userRepository.findAll(pageable)
-                .map(UserWithProfileRecord::new);
+        Page<UserWithProfileProjection> rows = userRepository.findAllWithProfile(pageable);
+        Map<Long, List<AddressRecord>> addresses = addressesByProfile(rows.getContent());
+        return rows.map(row -> toRecord(row, addresses));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<UserWithProfileRecord> getUsersWithProfilesByCursor(String cursor, String sort, int size,
+                                                                         CountMode countMode) {
+        KeysetCursor.requireSort(sort, CURSOR_SORTS);
+        int pageSize = KeysetCursor.clampSize(size);
+        List<UserWithProfileProjection> rows = userRepository.findWithProfilePage(
+                sort, KeysetCursor.decode(cursor, sort), Limit.of(pageSize + 1));
+        Map<Long, List<AddressRecord>> addresses = addressesByProfile(rows);
+        Long total = rowCountEstimator.count(countMode, "tb_user", userRepository::count);
+        return CursorPage.of(rows, pageSize,
+                row -> new KeysetCursor(sort, "name".equals(sort) ? row.getName() : null, row.getId()),
+                row -> toRecord(row, addresses), total);
     }
 
     @Transactional(readOnly = true)
     public UserWithProfileRecord getUserWithProfileById(Long userId) {
-        User user = userRepository.findById(userId)
+        UserWithProfileProjection row = userRepository.findWithProfileById(userId)
                 .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
 
-        return new UserWithProfileRecord(user);
+        return toRecord(row, addressesByProfile(List.of(row)));
+    }
+
+    /**
+     * Escreve todos os usuários com perfil em ordem de id. As linhas vêm de um cursor do banco e são
+     * processadas em blocos do tamanho do fetch size: uma consulta de endereços por bloco, flush da saída
+     * e limpeza do contexto de persistência, de modo que a memória usada não depende do total exportado.
+     *
+     * @return quantidade de usuários exportados
+     */
+    @Transactional(readOnly = true)
+    public long exportUsersWithProfiles(OutputStream output, UserExportWriter.Format format) throws IOException {
+        var writer = new UserExportWriter(output, format, objectMapper);
+        long exported = 0;
+        try (Stream<UserWithProfileProjection> rows = userRepository.streamAllWithProfile()) {
+            List<UserWithProfileProjection> batch = new ArrayList<>(EXPORT_BATCH_SIZE);
+            Iterator<UserWithProfileProjection> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == EXPORT_BATCH_SIZE) {
+                    exported += writeBatch(writer, batch);
+                }
+            }
+            exported += writeBatch(writer, batch);
+        }
+        return exported;
+    }
+
+    private int writeBatch(UserExportWriter writer, List<UserWithProfileProjection> batch) throws IOException {
+        int size = batch.size();
+        if (size > 0) {
+            Map<Long, List<AddressRecord>> addresses = addressesByProfile(batch);
+            for (UserWithProfileProjection row : batch) {
+                writer.write(toRecord(row, addresses));
+            }
+            batch.clear();
+        }
+        writer.flush();
+        entityManager.clear();
+        return size;
+    }
+
+    // Uma única consulta com os endereços de todos os perfis da página
+    private Map<Long, List<AddressRecord>> addressesByProfile(Collection<UserWithProfileProjection> rows) {
+        List<Long> profileIds = rows.stream()
+                .map(UserWithProfileProjection::getProfileId)
+                .filter(Objects::nonNull)
+                .toList();
+        if (profileIds.isEmpty()) {
+            return Map.of();
+        }
+        return addressRepository.findByProfileIds(profileIds).stream()
+                .collect(Collectors.groupingBy(AddressProjection::getProfileId,
+                        Collectors.mapping(AddressRecord::new, Collectors.toList())));
+    }
+
+    private static UserWithProfileRecord toRecord(UserWithProfileProjection row,
+                                                  Map<Long, List<AddressRecord>> addresses) {
+        if (row.getProfileId() == null) {
+            return new UserWithProfileRecord(row, null);
+        }
+        return new UserWithProfileRecord(row, addresses.getOrDefault(row.getProfileId(), List.of()));
     }
-}
\ No newline at end of file
+}
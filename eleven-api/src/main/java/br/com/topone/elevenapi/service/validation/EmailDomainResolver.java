@@ -0,0 +1,175 @@
+package br.com.topone.elevenapi.service.validation;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.naming.NamingException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Decide se o domínio de um email existe, com cache do veredito (TTL diferente para
+ * domínios válidos e inválidos), prazo máximo por consulta e uma única consulta DNS
+ * em andamento por domínio. Domínios da allowlist não consultam o DNS.
+ * <p>
+ * Em caso de timeout ou falha temporária do DNS o domínio é aceito e nada é guardado:
+ * indisponibilidade do DNS não deve impedir cadastros.
+ */
+@Component
+public class EmailDomainResolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailDomainResolver.class);
+    public static final String LOOKUP_TIMER = "email.domain.lookup";
+
+    private final MxLookup mxLookup;
+    private final Set<String> allowlist;
+    private final long timeoutMs;
+    private final long positiveTtlNanos;
+    private final long negativeTtlNanos;
+    private final Cache<String, Boolean> verdicts;
+    private final Map<String, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService executor;
+    private final MeterRegistry meterRegistry;
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    public EmailDomainResolver(MxLookup mxLookup,
+                               @Value("${email.domain-validation.allowlist}") String allowlist,
+                               @Value("${email.domain-validation.timeout-ms}") long timeoutMs,
+                               @Value("${email.domain-validation.positive-ttl-seconds}") long positiveTtlSeconds,
+                               @Value("${email.domain-validation.negative-ttl-seconds}") long negativeTtlSeconds,
+                               @Value("${email.domain-validation.max-size}") long maxSize,
+                               @Value("${email.domain-validation.lookup-threads}") int lookupThreads,
+                               MeterRegistry meterRegistry) {
+        this.mxLookup = mxLookup;
+        this.meterRegistry = meterRegistry;
+        this.allowlist = Arrays.stream(allowlist.split(","))
+                .map(EmailDomainResolver::normalize)
+                .filter(domain -> !domain.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        this.timeoutMs = timeoutMs;
+        this.positiveTtlNanos = TimeUnit.SECONDS.toNanos(positiveTtlSeconds);
+        this.negativeTtlNanos = TimeUnit.SECONDS.toNanos(negativeTtlSeconds);
+        this.verdicts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Boolean>() {
+                    @Override
+                    public long expireAfterCreate(String domain, Boolean valid, long currentTime) {
+                        return valid ? positiveTtlNanos : negativeTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String domain, Boolean valid, long currentTime, long currentDuration) {
+                        return expireAfterCreate(domain, valid, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String domain, Boolean valid, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(lookupThreads, runnable -> {
+            Thread thread = new Thread(runnable, "mx-lookup-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public boolean isValidDomain(String domain) {
+        String normalized = normalize(domain);
+        if (normalized.isEmpty()) {
+            return false;
+        }
+        if (allowlist.contains(normalized)) {
+            return true;
+        }
+        Boolean cached = verdicts.getIfPresent(normalized);
+        if (cached != null) {
+            return cached;
+        }
+
+        try {
+            return lookup(normalized).get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            logger.warn("Timeout na consulta MX de {}; domínio aceito sem cache", normalized);
+            return true;
+        } catch (ExecutionException e) {
+            logger.warn("Falha na consulta MX de {}: {}; domínio aceito sem cache", normalized, e.getCause().toString());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return true;
+        }
+    }
+
+    public DomainLookupStats stats() {
+        return new DomainLookupStats(verdicts.estimatedSize(), lookups.sum(), coalesced.sum(), timeouts.sum());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Uma consulta por domínio: quem chega enquanto ela está em andamento aguarda o mesmo resultado
+    private CompletableFuture<Boolean> lookup(String domain) {
+        CompletableFuture<Boolean> created = new CompletableFuture<>();
+        CompletableFuture<Boolean> existing = inFlight.putIfAbsent(domain, created);
+        if (existing != null) {
+            coalesced.increment();
+            return existing;
+        }
+
+        lookups.increment();
+        // Sai do inFlight antes de completar: quem for acordado e consultar de novo não reaproveita esta falha
+        executor.execute(() -> {
+            // Mede a consulta DNS em si; o timeout de quem espera é contado à parte
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                boolean valid = mxLookup.domainExists(domain);
+                sample.stop(meterRegistry.timer(LOOKUP_TIMER, "outcome", valid ? "valid" : "invalid"));
+                verdicts.put(domain, valid);
+                inFlight.remove(domain, created);
+                created.complete(valid);
+            } catch (NamingException | RuntimeException e) {
+                sample.stop(meterRegistry.timer(LOOKUP_TIMER, "outcome", "error"));
+                inFlight.remove(domain, created);
+                created.completeExceptionally(e);
+            }
+        });
+        return created;
+    }
+
+    private static String normalize(String domain) {
+        return domain == null ? "" : domain.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public record DomainLookupStats(long cachedDomains, long lookups, long coalesced, long timeouts) {
+    }
+}
@@ -3,12 +3,14 @@ package br.com.topone.elevenapi.service.validation;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
 
-import javax.naming.NamingException;
-import javax.naming.directory.InitialDirContext;
-import java.util.Hashtable;
-
 public class EmailDomainValidator implements ConstraintValidator<ValidEmailDomain, String> {
 
+    private final EmailDomainResolver emailDomainResolver;
+
+    public EmailDomainValidator(EmailDomainResolver emailDomainResolver) {
+        this.emailDomainResolver = emailDomainResolver;
+    }
+
     @Override
     public void initialize(ValidEmailDomain constraintAnnotation) {
         // Inicialização se necessário
@@ -21,14 +23,6 @@ public class EmailDomainValidator implements ConstraintValidator<ValidEmailDomai
         }
 
         String domain = email.substring(email.indexOf('@') + 1);
-        try {
-            Hashtable<String, String> env = new Hashtable<>();
-            env.put("java.naming.factory.initial", "com.sun.jndi.dns.DnsContextFactory");
-            InitialDirContext ctx = new InitialDirContext(env);
-            ctx.getAttributes(domain, new String[]{"MX"});
-            return true;
-        } catch (NamingException e) {
-            return false;
-        }
+        return emailDomainResolver.isValidDomain(domain);
     }
 }
@@ -0,0 +1,37 @@
+package br.com.topone.elevenapi.service.validation;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.naming.Context;
+import javax.naming.NameNotFoundException;
+import javax.naming.NamingException;
+import javax.naming.directory.DirContext;
+import javax.naming.directory.InitialDirContext;
+import java.util.Hashtable;
+
+@Component
+public class JndiMxLookup implements MxLookup {
+
+    private final Hashtable<String, String> environment = new Hashtable<>();
+
+    public JndiMxLookup(@Value("${email.domain-validation.timeout-ms}") long timeoutMs) {
+        environment.put(Context.INITIAL_CONTEXT_FACTORY, "com.sun.jndi.dns.DnsContextFactory");
+        // Tempo da primeira tentativa; sem novas tentativas, o prazo total fica com o resolver
+        environment.put("com.sun.jndi.dns.timeout.initial", String.valueOf(timeoutMs));
+        environment.put("com.sun.jndi.dns.timeout.retries", "1");
+    }
+
+    @Override
+    public boolean domainExists(String domain) throws NamingException {
+        DirContext ctx = new InitialDirContext(environment);
+        try {
+            ctx.getAttributes(domain, new String[]{"MX"});
+            return true;
+        } catch (NameNotFoundException e) {
+            return false;
+        } finally {
+            ctx.close();
+        }
+    }
+}
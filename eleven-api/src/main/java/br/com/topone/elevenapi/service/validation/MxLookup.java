@@ -0,0 +1,16 @@
+package br.com.topone.elevenapi.service.validation;
+
+import javax.naming.NamingException;
+
+/**
+ * Consulta de DNS usada pelo {@link EmailDomainResolver}.
+ */
+@FunctionalInterface
+public interface MxLookup {
+
+    /**
+     * @return true se o domínio existe, false se o DNS respondeu que ele não existe
+     * @throws NamingException em falhas temporárias (timeout, servidor indisponível)
+     */
+    boolean domainExists(String domain) throws NamingException;
+}
@@ -1,8 +1,8 @@
 package br.com.topone.elevenapi.service.validation;
 
 import br.com.topone.elevenapi.dtos.user.UserInsertDTO;
-import br.com.topone.elevenapi.repositories.UserRepository;
 import br.com.topone.elevenapi.resources.exceptions.FieldMessage;
+import br.com.topone.elevenapi.service.usuario.EmailIndex;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
 
@@ -12,10 +12,10 @@ import java.util.List;
 
 public class UserInsertValidator implements ConstraintValidator<UserInsertValid, UserInsertDTO> {
 
-    private final UserRepository userRepository;
+    private final EmailIndex emailIndex;
 
-    public UserInsertValidator(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public UserInsertValidator(EmailIndex emailIndex) {
+        this.emailIndex = emailIndex;
     }
 
     @Override
@@ -27,8 +27,7 @@ public class UserInsertValidator implements ConstraintValidator<UserInsertValid,
         List<FieldMessage> list = new ArrayList<>();
         // Coloque aqui seus testes de validação, acrescentando objetos FieldMessage à lista
 
-        var user = userRepository.findByEmail(dto.getEmail());
-        if (user != null) {
+        if (emailIndex.exists(dto.getEmail())) {
             list.add(new FieldMessage("email", "Já existe um usuário com este email"));
         }
 
@@ -10,6 +10,7 @@ import org.springframework.web.servlet.HandlerMapping;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 
@@ -37,8 +38,8 @@ public class UserUpdateValidator implements ConstraintValidator<UserUpdateValid,
         List<FieldMessage> list = new ArrayList<>();
         // Coloque aqui seus testes de validação, acrescentando objetos FieldMessage à lista
         
-        var user = userRepository.findByEmail(dto.getEmail());
-        if (user != null && userId != user.getId()) {
+        var existingId = userRepository.findIdByEmail(dto.getEmail().toLowerCase(Locale.ROOT));
+        if (existingId.isPresent() && userId != existingId.get()) {
             list.add(new FieldMessage("email", "Já existe um usuário com este email"));
         }
 
@@ -0,0 +1,45 @@
+package br.com.topone.elevenapi.util;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+public final class DigestUtil {
+
+    private DigestUtil() {
+    }
+
+    /**
+     * Calcula o SHA-256 do texto (UTF-8) em hexadecimal minúsculo.
+     * @param value O texto de entrada
+     * @return O hash com 64 caracteres
+     */
+    public static String sha256Hex(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    /**
+     * Calcula o HMAC-SHA256 do texto (UTF-8) em hexadecimal minúsculo.
+     * @param key A chave secreta
+     * @param value O texto de entrada
+     * @return O HMAC com 64 caracteres
+     */
+    public static String hmacSha256Hex(byte[] key, String value) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 indisponível", e);
+        }
+    }
+}
@@ -1,16 +1,16 @@
 -- Inserir dados na tabela tb_user
-INSERT INTO tb_user (name, email, password, active, created_at, updated_at) VALUES ('Rebekah Olivia', 'rebekah@gmail.com', '$2a$10$eACCYoNOHEqXve8aIWT8Nu3PkMXWBaOxJ9aORUYzfMQCbVBIhZ8tG', 1, NOW(), NOW());
-INSERT INTO tb_user (name, email, password, active, created_at, updated_at) VALUES ('Miriã Aquino', 'miria@gmail.com', '$2a$10$eACCYoNOHEqXve8aIWT8Nu3PkMXWBaOxJ9aORUYzfMQCbVBIhZ8tG', 1, NOW(), NOW());
-INSERT INTO tb_user (name, email, password, active, created_at, updated_at) VALUES ('Julio Coutinho', 'julio@gmail.com', '$2a$10$eACCYoNOHEqXve8aIWT8Nu3PkMXWBaOxJ9aORUYzfMQCbVBIhZ8tG', 1, NOW(), NOW());
-INSERT INTO tb_user (name, email, password, active, created_at, updated_at) VALUES ('Priscila Coutinho', 'priscila@gmail.com', '$2a$10$eACCYoNOHEqXve8aIWT8Nu3PkMXWBaOxJ9aORUYzfMQCbVBIhZ8tG', 0, NOW(), NOW());
-INSERT INTO tb_user (name, email, password, active, created_at, updated_at) VALUES ('Carlos Santos', 'carlos@gmail.com', '$2a$10$eACCYoNOHEqXve8aIWT8Nu3PkMXWBaOxJ9aORUYzfMQCbVBIhZ8tG', 1, NOW(), NOW());
-INSERT INTO tb_user (name, email, password, active, created_at, updated_at) VALUES ('Ana Beatriz', 'ana@gmail.com', '$2a$10$eACCYoNOHEqXve8aIWT8Nu3PkMXWBaOxJ9aORUYzfMQCbVBIhZ8tG', 1, NOW(), NOW());
-INSERT INTO tb_user (name, email, password, active, created_at, updated_at) VALUES ('Lucas Oliveira', 'lucas@gmail.com', '$2a$10$eACCYoNOHEqXve8aIWT8Nu3PkMXWBaOxJ9aORUYzfMQCbVBIhZ8tG', 1, NOW(), NOW());
-INSERT INTO tb_user (name, email, password, active, created_at, updated_at) VALUES ('Mariana Costa', 'mariana@gmail.com', '$2a$10$eACCYoNOHEqXve8aIWT8Nu3PkMXWBaOxJ9aORUYzfMQCbVBIhZ8tG', 1, NOW(), NOW());
-INSERT INTO tb_user (name, email, password, active, created_at, updated_at) VALUES ('Pedro Souza', 'pedro@gmail.com', '$2a$10$eACCYoNOHEqXve8aIWT8Nu3PkMXWBaOxJ9aORUYzfMQCbVBIhZ8tG', 1, NOW(), NOW());
-INSERT INTO tb_user (name, email, password, active, created_at, updated_at) VALUES ('Fernanda Lima', 'fernanda@gmail.com', '$2a$10$eACCYoNOHEqXve8aIWT8Nu3PkMXWBaOxJ9aORUYzfMQCbVBIhZ8tG', 0, NOW(), NOW());
-INSERT INTO tb_user (name, email, password, active, created_at, updated_at) VALUES ('Roberto Alves', 'roberto@gmail.com', '$2a$10$eACCYoNOHEqXve8aIWT8Nu3PkMXWBaOxJ9aORUYzfMQCbVBIhZ8tG', 1, NOW(), NOW());
-INSERT INTO tb_user (name, email, password, active, created_at, updated_at) VALUES ('Camila Pereira', 'camila@gmail.com', '$2a$10$eACCYoNOHEqXve8aIWT8Nu3PkMXWBaOxJ9aORUYzfMQCbVBIhZ8tG', 1, NOW(), NOW());
+INSERT INTO tb_user (id, name, email, password, active, created_at, updated_at) VALUES (1, 'Rebekah Olivia', 'rebekah@gmail.com', '$2a$10$eACCYoNOHEqXve8aIWT8Nu3PkMXWBaOxJ9aORUYzfMQCbVBIhZ8tG', 1, NOW(), NOW());
+INSERT INTO tb_user (id, name, email, password, active, created_at, updated_at) VALUES (2, 'Miriã Aquino', 'miria@gmail.com', '$2a$10$eACCYoNOHEqXve8aIWT8Nu3PkMXWBaOxJ9aORUYzfMQCbVBIhZ8tG', 1, NOW(), NOW());
+INSERT INTO tb_user (id, name, email, password, active, created_at, updated_at) VALUES (3, 'Julio Coutinho', 'julio@gmail.com', '$2a$10$eACCYoNOHEqXve8aIWT8Nu3PkMXWBaOxJ9aORUYzfMQCbVBIhZ8tG', 1, NOW(), NOW());
+INSERT INTO tb_user (id, name, email, password, active, created_at, updated_at) VALUES (4, 'Priscila Coutinho', 'priscila@gmail.com', '$2a$10$eACCYoNOHEqXve8aIWT8Nu3PkMXWBaOxJ9aORUYzfMQCbVBIhZ8tG', 0, NOW(), NOW());
+INSERT INTO tb_user (id, name, email, password, active, created_at, updated_at) VALUES (5, 'Carlos Santos', 'carlos@gmail.com', '$2a$10$eACCYoNOHEqXve8aIWT8Nu3PkMXWBaOxJ9aORUYzfMQCbVBIhZ8tG', 1, NOW(), NOW());
+INSERT INTO tb_user (id, name, email, password, active, created_at, updated_at) VALUES (6, 'Ana Beatriz', 'ana@gmail.com', '$2a$10$eACCYoNOHEqXve8aIWT8Nu3PkMXWBaOxJ9aORUYzfMQCbVBIhZ8tG', 1, NOW(), NOW());
+INSERT INTO tb_user (id, name, email, password, active, created_at, updated_at) VALUES (7, 'Lucas Oliveira', 'lucas@gmail.com', '$2a$10$eACCYoNOHEqXve8aIWT8Nu3PkMXWBaOxJ9aORUYzfMQCbVBIhZ8tG', 1, NOW(), NOW());
+INSERT INTO tb_user (id, name, email, password, active, created_at, updated_at) VALUES (8, 'Mariana Costa', 'mariana@gmail.com', '$2a$10$eACCYoNOHEqXve8aIWT8Nu3PkMXWBaOxJ9aORUYzfMQCbVBIhZ8tG', 1, NOW(), NOW());
+INSERT INTO tb_user (id, name, email, password, active, created_at, updated_at) VALUES (9, 'Pedro Souza', 'pedro@gmail.com', '$2a$10$eACCYoNOHEqXve8aIWT8Nu3PkMXWBaOxJ9aORUYzfMQCbVBIhZ8tG', 1, NOW(), NOW());
+INSERT INTO tb_user (id, name, email, password, active, created_at, updated_at) VALUES (10, 'Fernanda Lima', 'fernanda@gmail.com', '$2a$10$eACCYoNOHEqXve8aIWT8Nu3PkMXWBaOxJ9aORUYzfMQCbVBIhZ8tG', 0, NOW(), NOW());
+INSERT INTO tb_user (id, name, email, password, active, created_at, updated_at) VALUES (11, 'Roberto Alves', 'roberto@gmail.com', '$2a$10$eACCYoNOHEqXve8aIWT8Nu3PkMXWBaOxJ9aORUYzfMQCbVBIhZ8tG', 1, NOW(), NOW());
+INSERT INTO tb_user (id, name, email, password, active, created_at, updated_at) VALUES (12, 'Camila Pereira', 'camila@gmail.com', '$2a$10$eACCYoNOHEqXve8aIWT8Nu3PkMXWBaOxJ9aORUYzfMQCbVBIhZ8tG', 1, NOW(), NOW());
 
 -- Inserir dados na tabela tb_role
 INSERT INTO tb_role (authority) VALUES ('ROLE_OPERATOR');
@@ -45,16 +45,20 @@ INSERT INTO tb_user_profile (cpf, birth_date, phone, mother_name, father_name, u
 INSERT INTO tb_user_profile (cpf, birth_date, phone, mother_name, father_name, user_id) VALUES ('999.000.111-22', '1996-01-25', '(31) 98888-0000', 'Sandra Pereira', 'Fernando Pereira', 12); -- Perfil para Camila Pereira
     
 -- Inserir dados na tabela address
-INSERT INTO tb_address (zip_code, street, city, number, complement, district, uf, user_profile_id) VALUES ('12345-678', 'Rua 1', 'São Paulo', '123', 'Apto 101', 'Centro', 'SP', 1);  -- Endereço para Rebekah Olivia
-INSERT INTO tb_address (zip_code, street, city, number, complement, district, uf, user_profile_id) VALUES ('12345-678', 'Rua 2', 'São Paulo', '1234', 'Apto 102', 'Centro', 'SP', 2); -- Endereço para Miriã Aquino
-INSERT INTO tb_address (zip_code, street, city, number, complement, district, uf, user_profile_id) VALUES ('17012-345', 'Rua das Flores', 'Bauru', '456', 'Casa 2', 'Jardim América', 'SP', 3); -- Endereço para Julio Coutinho
-INSERT INTO tb_address (zip_code, street, city, number, complement, district, uf, user_profile_id) VALUES ('17012-346', 'Rua dos Lírios', 'Bauru', '789', 'Casa 3', 'Jardim Europa', 'SP', 4); -- Endereço para Priscila Coutinho
-INSERT INTO tb_address (zip_code, street, city, number, complement, district, uf, user_profile_id) VALUES ('01234-567', 'Avenida Paulista', 'São Paulo', '1000', 'Apto 501', 'Bela Vista', 'SP', 5); -- Endereço para Carlos Santos
-INSERT INTO tb_address (zip_code, street, city, number, complement, district, uf, user_profile_id) VALUES ('01234-568', 'Rua Augusta', 'São Paulo', '500', 'Apto 303', 'Consolação', 'SP', 6); -- Endereço para Ana Beatriz
-INSERT INTO tb_address (zip_code, street, city, number, complement, district, uf, user_profile_id) VALUES ('20000-001', 'Avenida Atlântica', 'Rio de Janeiro', '2000', 'Apto 1001', 'Copacabana', 'RJ', 7); -- Endereço para Lucas Oliveira
-INSERT INTO tb_address (zip_code, street, city, number, complement, district, uf, user_profile_id) VALUES ('20000-002', 'Rua Barata Ribeiro', 'Rio de Janeiro', '300', 'Apto 804', 'Copacabana', 'RJ', 8); -- Endereço para Mariana Costa
-INSERT INTO tb_address (zip_code, street, city, number, complement, district, uf, user_profile_id) VALUES ('13000-001', 'Avenida Norte Sul', 'Campinas', '1500', 'Casa 5', 'Cambuí', 'SP', 9); -- Endereço para Pedro Souza
-INSERT INTO tb_address (zip_code, street, city, number, complement, district, uf, user_profile_id) VALUES ('13000-002', 'Rua Carlos Gomes', 'Campinas', '400', 'Apto 205', 'Cambuí', 'SP', 10); -- Endereço para Fernanda Lima
-INSERT INTO tb_address (zip_code, street, city, number, complement, district, uf, user_profile_id) VALUES ('30000-001', 'Avenida Afonso Pena', 'Belo Horizonte', '2500', 'Apto 1202', 'Centro', 'MG', 11); -- Endereço para Roberto Alves
-INSERT INTO tb_address (zip_code, street, city, number, complement, district, uf, user_profile_id) VALUES ('30000-002', 'Rua da Bahia', 'Belo Horizonte', '800', 'Sala 301', 'Centro', 'MG', 12); -- Endereço para Camila Pereira
+INSERT INTO tb_address (id, zip_code, street, city, number, complement, district, uf, user_profile_id) VALUES (1, '12345-678', 'Rua 1', 'São Paulo', '123', 'Apto 101', 'Centro', 'SP', 1);  -- Endereço para Rebekah Olivia
+INSERT INTO tb_address (id, zip_code, street, city, number, complement, district, uf, user_profile_id) VALUES (2, '12345-678', 'Rua 2', 'São Paulo', '1234', 'Apto 102', 'Centro', 'SP', 2); -- Endereço para Miriã Aquino
+INSERT INTO tb_address (id, zip_code, street, city, number, complement, district, uf, user_profile_id) VALUES (3, '17012-345', 'Rua das Flores', 'Bauru', '456', 'Casa 2', 'Jardim América', 'SP', 3); -- Endereço para Julio Coutinho
+INSERT INTO tb_address (id, zip_code, street, city, number, complement, district, uf, user_profile_id) VALUES (4, '17012-346', 'Rua dos Lírios', 'Bauru', '789', 'Casa 3', 'Jardim Europa', 'SP', 4); -- Endereço para Priscila Coutinho
+INSERT INTO tb_address (id, zip_code, street, city, number, complement, district, uf, user_profile_id) VALUES (5, '01234-567', 'Avenida Paulista', 'São Paulo', '1000', 'Apto 501', 'Bela Vista', 'SP', 5); -- Endereço para Carlos Santos
+INSERT INTO tb_address (id, zip_code, street, city, number, complement, district, uf, user_profile_id) VALUES (6, '01234-568', 'Rua Augusta', 'São Paulo', '500', 'Apto 303', 'Consolação', 'SP', 6); -- Endereço para Ana Beatriz
+INSERT INTO tb_address (id, zip_code, street, city, number, complement, district, uf, user_profile_id) VALUES (7, '20000-001', 'Avenida Atlântica', 'Rio de Janeiro', '2000', 'Apto 1001', 'Copacabana', 'RJ', 7); -- Endereço para Lucas Oliveira
+INSERT INTO tb_address (id, zip_code, street, city, number, complement, district, uf, user_profile_id) VALUES (8, '20000-002', 'Rua Barata Ribeiro', 'Rio de Janeiro', '300', 'Apto 804', 'Copacabana', 'RJ', 8); -- Endereço para Mariana Costa
+INSERT INTO tb_address (id, zip_code, street, city, number, complement, district, uf, user_profile_id) VALUES (9, '13000-001', 'Avenida Norte Sul', 'Campinas', '1500', 'Casa 5', 'Cambuí', 'SP', 9); -- Endereço para Pedro Souza
+INSERT INTO tb_address (id, zip_code, street, city, number, complement, district, uf, user_profile_id) VALUES (10, '13000-002', 'Rua Carlos Gomes', 'Campinas', '400', 'Apto 205', 'Cambuí', 'SP', 10); -- Endereço para Fernanda Lima
+INSERT INTO tb_address (id, zip_code, street, city, number, complement, district, uf, user_profile_id) VALUES (11, '30000-001', 'Avenida Afonso Pena', 'Belo Horizonte', '2500', 'Apto 1202', 'Centro', 'MG', 11); -- Endereço para Roberto Alves
+INSERT INTO tb_address (id, zip_code, street, city, number, complement, district, uf, user_profile_id) VALUES (12, '30000-002', 'Rua da Bahia', 'Belo Horizonte', '800', 'Sala 301', 'Centro', 'MG', 12); -- Endereço para Camila Pereira
     
+
+-- Ids de tb_user e tb_address vêm de sequences (allocationSize 50); os registros acima usam ids fixos
+ALTER SEQUENCE tb_user_seq RESTART WITH 101;
+ALTER SEQUENCE tb_address_seq RESTART WITH 101;
@@ -0,0 +1,45 @@
+package br.com.topone.elevenapi;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Conta os comandos SQL preparados pela thread atual. Registrado em
+ * {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}; por ser por thread,
+ * as tarefas agendadas rodando em paralelo não interferem na contagem do teste.
+ * Um insert/update em lote do JDBC é preparado uma vez e conta como um comando.
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+    public static final String PROPERTY =
+            "spring.jpa.properties.hibernate.session_factory.statement_inspector=br.com.topone.elevenapi.StatementCounter";
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get().add(sql.toLowerCase(Locale.ROOT));
+        return sql;
+    }
+
+    public static void reset() {
+        STATEMENTS.get().clear();
+    }
+
+    public static int count() {
+        return STATEMENTS.get().size();
+    }
+
+    // Comandos que contêm o trecho (SQL em minúsculas)
+    public static int count(String fragment) {
+        return (int) STATEMENTS.get().stream().filter(sql -> sql.contains(fragment)).count();
+    }
+
+    // Sem as chamadas à sequence, que dependem de quantos ids do bloco (allocationSize) já foram usados
+    public static int countWithoutSequenceCalls() {
+        return count() - count("next value for");
+    }
+}
@@ -0,0 +1,155 @@
+package br.com.topone.elevenapi.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Executa os benchmarks JMH deste pacote (perfil {@code benchmark} do Maven) e compara o resultado com a
+ * baseline gravada em JSON (o formato do JMH, sem as amostras brutas).
+ * <p>
+ * Um benchmark regrediu quando piorou mais que a tolerância em relação à baseline e os intervalos de erro
+ * (score ± erro) não se sobrepõem. Com regressão o processo termina com código 1, o que falha o build.
+ * A baseline só vale para a máquina em que foi gravada: ao trocar de máquina, ou depois de uma mudança que
+ * altera o desempenho de propósito, grave de novo com {@code -Dbenchmark.update-baseline=true}.
+ * <p>
+ * Propriedades: {@code benchmark.include} (regex dos benchmarks), {@code benchmark.baseline},
+ * {@code benchmark.result}, {@code benchmark.tolerance} (fração, 0.15 = 15%) e {@code benchmark.update-baseline}.
+ * Argumentos de linha de comando são repassados ao JMH (ex.: {@code -p strength=12}).
+ */
+public class BenchmarkRunner {
+
+    private static final String DEFAULT_INCLUDE = "br\\.com\\.topone\\.elevenapi\\.benchmarks\\..*";
+
+    public static void main(String[] args) throws Exception {
+        String include = System.getProperty("benchmark.include", DEFAULT_INCLUDE);
+        Path baselinePath = Path.of(System.getProperty("benchmark.baseline", "benchmarks/baseline.json"));
+        Path resultPath = Path.of(System.getProperty("benchmark.result", "target/jmh-result.json"));
+        double tolerance = Double.parseDouble(System.getProperty("benchmark.tolerance", "0.15"));
+        boolean updateBaseline = Boolean.getBoolean("benchmark.update-baseline");
+
+        Files.createDirectories(resultPath.toAbsolutePath().getParent());
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(include)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultPath.toString())
+                .build()).run();
+
+        if (updateBaseline) {
+            writeBaseline(resultPath, baselinePath);
+            System.out.println(STR."Baseline gravada em \{baselinePath}");
+            return;
+        }
+        if (!Files.exists(baselinePath)) {
+            System.out.println(STR."Sem baseline em \{baselinePath}; grave uma com -Dbenchmark.update-baseline=true");
+            return;
+        }
+
+        List<String> regressions = compare(read(baselinePath), read(resultPath), tolerance);
+        if (!regressions.isEmpty()) {
+            System.out.println(STR."\{regressions.size()} benchmark(s) acima da tolerância de \{Math.round(tolerance * 100)}%:");
+            regressions.forEach(regression -> System.out.println(STR."  \{regression}"));
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Imprime a comparação de cada benchmark executado e devolve a descrição dos que regrediram.
+     */
+    static List<String> compare(Map<String, Score> baseline, Map<String, Score> current, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        System.out.println();
+        System.out.println(String.format(Locale.ROOT, "%-70s %14s %14s %9s  %s", "Benchmark", "Baseline", "Atual", "Variação", ""));
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.println(String.format(Locale.ROOT, "%-70s %14s %14.3f %9s  %s",
+                        entry.getKey(), "-", now.score(), "-", "novo, sem baseline"));
+                continue;
+            }
+            if (!before.unit().equals(now.unit()) || !before.mode().equals(now.mode())) {
+                System.out.println(STR."\{entry.getKey()}: unidade ou modo mudou (\{before.unit()} -> \{now.unit()}), grave a baseline de novo");
+                continue;
+            }
+            // Variação positiva = pior, nos dois sentidos de modo (tempo por operação ou operações por tempo)
+            double change = now.lowerIsBetter()
+                    ? (now.score() - before.score()) / before.score()
+                    : (before.score() - now.score()) / before.score();
+            boolean outsideError = now.lowerIsBetter()
+                    ? now.score() - now.error() > before.score() + before.error()
+                    : now.score() + now.error() < before.score() - before.error();
+            boolean regressed = change > tolerance && outsideError;
+            System.out.println(String.format(Locale.ROOT, "%-70s %14.3f %14.3f %+8.1f%%  %s %s",
+                    entry.getKey(), before.score(), now.score(), change * 100, now.unit(), regressed ? "REGRESSÃO" : ""));
+            if (regressed) {
+                regressions.add(String.format(Locale.ROOT, "%s: %.3f -> %.3f %s (%+.1f%%)",
+                        entry.getKey(), before.score(), now.score(), now.unit(), change * 100));
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * Grava o resultado como baseline sem as amostras brutas e sem o caminho/argumentos da JVM local,
+     * que só aumentariam o diff a cada nova gravação.
+     */
+    static void writeBaseline(Path resultPath, Path baselinePath) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode results = mapper.readTree(resultPath.toFile());
+        for (JsonNode result : results) {
+            ((ObjectNode) result).remove(List.of("jvm", "jvmArgs", "secondaryMetrics"));
+            ((ObjectNode) result.path("primaryMetric")).remove("rawData");
+        }
+        Files.createDirectories(baselinePath.toAbsolutePath().getParent());
+        mapper.writerWithDefaultPrettyPrinter().writeValue(baselinePath.toFile(), results);
+    }
+
+    // Chave: nome do benchmark + parâmetros (@Param), para comparar cada combinação separadamente
+    static Map<String, Score> read(Path path) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(path.toFile())) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+            JsonNode params = result.path("params");
+            if (params.isObject()) {
+                Map<String, String> sorted = new TreeMap<>();
+                for (Iterator<Map.Entry<String, JsonNode>> it = params.fields(); it.hasNext(); ) {
+                    Map.Entry<String, JsonNode> param = it.next();
+                    sorted.put(param.getKey(), param.getValue().asText());
+                }
+                key.append(sorted);
+            }
+            JsonNode metric = result.path("primaryMetric");
+            scores.put(key.toString().replace("br.com.topone.elevenapi.benchmarks.", ""), new Score(
+                    result.path("mode").asText(),
+                    metric.path("score").asDouble(),
+                    // Com poucas iterações o JMH grava "NaN" como erro
+                    metric.path("scoreError").isNumber() ? metric.path("scoreError").asDouble() : 0,
+                    metric.path("scoreUnit").asText()));
+        }
+        return scores;
+    }
+
+    record Score(String mode, double score, double error, String unit) {
+
+        boolean lowerIsBetter() {
+            return !"thrpt".equals(mode);
+        }
+    }
+}
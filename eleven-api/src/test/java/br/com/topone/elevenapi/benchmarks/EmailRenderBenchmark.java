@@ -0,0 +1,98 @@
+package br.com.topone.elevenapi.benchmarks;
+
+import br.com.topone.elevenapi.service.EmailService;
+import br.com.topone.elevenapi.service.EmailTemplateRenderer;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo por mensagem do email de boas-vindas: Thymeleaf + MimeMessageHelper multipart a cada envio
+ * (como era antes) contra {@link EmailService#createWelcomeMessage}, que usa o template pré-compilado do
+ * {@link EmailTemplateRenderer} com partes fixas pré-montadas. As duas variantes incluem o
+ * {@code saveChanges()} feito pelo envio.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class EmailRenderBenchmark {
+
+    private static final String TOKEN = "0b6c1a2e-5f3d-4e8a-9c7b-2d1f0e9a8b7c";
+    private static final String RECOVER_URI = "http://localhost:3000/recover-password/";
+
+    private SpringTemplateEngine templateEngine;
+    private EmailService emailService;
+    private Session session;
+
+    @Setup
+    public void setup() throws Exception {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+
+        // Fora do perfil test, para que createWelcomeMessage monte a mensagem
+        emailService = new EmailService(new JavaMailSenderImpl(), null, new EmailTemplateRenderer(templateEngine), "prod");
+        session = Session.getInstance(new Properties());
+    }
+
+    @Benchmark
+    public MimeMessage thymeleafPerMessage() throws Exception {
+        Context context = new Context();
+        context.setVariable("nome", "Maria <Souza>");
+        context.setVariable("email", "maria@gmail.com");
+        context.setVariable("token", TOKEN);
+        context.setVariable("recoverUri", RECOVER_URI);
+        context.setVariable("tokenHours", 72L);
+        String html = templateEngine.process("email_acesso", context);
+
+        MimeMessage message = new MimeMessage(session);
+        MimeMessageHelper helper = new MimeMessageHelper(message, MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED, "UTF-8");
+        helper.setTo("maria@gmail.com");
+        helper.setFrom("contato@toponesystem.com.br");
+        helper.setSubject("Bem-vindo ao Sistema Eleven");
+        helper.setText(html, true);
+        message.saveChanges();
+        return message;
+    }
+
+    @Benchmark
+    public MimeMessage precompiledTemplate() throws Exception {
+        MimeMessage message = emailService.createWelcomeMessage("maria@gmail.com", "Maria <Souza>", "maria@gmail.com",
+                TOKEN, RECOVER_URI, 72L);
+        message.saveChanges();
+        return message;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EmailRenderBenchmark.class.getSimpleName()).build()).run();
+    }
+}
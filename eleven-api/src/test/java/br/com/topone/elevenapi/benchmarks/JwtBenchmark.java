@@ -0,0 +1,91 @@
+package br.com.topone.elevenapi.benchmarks;
+
+import br.com.topone.elevenapi.config.SigningKeyManager;
+import br.com.topone.elevenapi.config.jwt.CachingJwtDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Assinatura e verificação de um access token com as mesmas claims do emitido no login, usando o
+ * {@link NimbusJwtEncoder} e o decoder de {@link SigningKeyManager#jwtDecoder()}, os mesmos da aplicação.
+ * {@code decode} é a verificação RSA de um token novo; {@code decodeCached} é o caminho das requisições
+ * seguintes com o mesmo token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class JwtBenchmark {
+
+    private NimbusJwtEncoder encoder;
+    private NimbusJwtDecoder decoder;
+    private CachingJwtDecoder cachingDecoder;
+    private JwtEncoderParameters parameters;
+    private String token;
+
+    @Setup
+    public void setup() {
+        // Sem keys-dir: chave RSA de 2048 bits gerada na hora, como em desenvolvimento
+        SigningKeyManager signingKeyManager = new SigningKeyManager("", "");
+        encoder = new NimbusJwtEncoder(signingKeyManager.signingJwkSource());
+
+        decoder = signingKeyManager.jwtDecoder();
+        cachingDecoder = new CachingJwtDecoder(decoder, 10_000);
+
+        Instant issuedAt = Instant.now();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer("http://localhost:8080")
+                .subject("julio@gmail.com")
+                .audience(List.of("myclientid"))
+                .issuedAt(issuedAt)
+                .notBefore(issuedAt)
+                .expiresAt(issuedAt.plus(1, ChronoUnit.DAYS))
+                .id(UUID.randomUUID().toString())
+                .claim("authorities", new ArrayList<>(List.of("ROLE_ADMIN", "ROLE_OPERATOR")))
+                .claim("username", "julio@gmail.com")
+                .claim("user_id", "3")
+                .build();
+        parameters = JwtEncoderParameters.from(JwsHeader.with(SignatureAlgorithm.RS256).build(), claims);
+        token = encoder.encode(parameters).getTokenValue();
+        cachingDecoder.decode(token);
+    }
+
+    @Benchmark
+    public Jwt encode() {
+        return encoder.encode(parameters);
+    }
+
+    @Benchmark
+    public Jwt decode() {
+        return decoder.decode(token);
+    }
+
+    @Benchmark
+    public Jwt decodeCached() {
+        return cachingDecoder.decode(token);
+    }
+}
@@ -0,0 +1,133 @@
+package br.com.topone.elevenapi.benchmarks;
+
+import br.com.topone.elevenapi.dtos.user.UserDTO;
+import br.com.topone.elevenapi.entities.Address;
+import br.com.topone.elevenapi.entities.Role;
+import br.com.topone.elevenapi.entities.User;
+import br.com.topone.elevenapi.entities.UserProfile;
+import br.com.topone.elevenapi.records.UserProfileRecord;
+import br.com.topone.elevenapi.records.UserWithProfileRecord;
+import br.com.topone.elevenapi.util.CapitalizeUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.BeanUtils;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversões feitas a cada requisição de usuário/perfil: {@link CapitalizeUtil}, os construtores de DTO/record a
+ * partir das entidades e a cópia do DTO para a entidade no {@code UserProfileService}. A cópia com
+ * {@link BeanUtils#copyProperties} é a que o serviço fazia antes de passar a copiar campo a campo; fica aqui
+ * como referência de custo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class MappingBenchmark {
+
+    private CapitalizeUtil capitalizeUtil;
+    private String name;
+    private User user;
+    private UserProfile profile;
+    private UserProfileRecord profileRecord;
+
+    @Setup
+    public void setup() {
+        capitalizeUtil = new CapitalizeUtil();
+        name = "maria DA silva-souza santos";
+
+        user = new User();
+        user.setId(3L);
+        user.setName("Maria da Silva Souza Santos");
+        user.setEmail("maria.souza@gmail.com");
+        user.setPassword("$2a$10$eACCYoNOHEqXve8aIWT8Nu3PkMXWBaOxJ9aORUYzfMQCbVBIhZ8tG");
+        user.setActive(true);
+        user.setCreatedAt(Instant.parse("2024-01-10T12:00:00Z"));
+        user.setUpdatedAt(Instant.parse("2024-06-01T08:30:00Z"));
+        user.addRole(new Role(1L, "ROLE_OPERATOR"));
+        user.addRole(new Role(2L, "ROLE_ADMIN"));
+
+        profile = new UserProfile();
+        profile.setId(3L);
+        profile.setCpf("123.456.789-09");
+        profile.setBirthDate(LocalDate.of(1990, 5, 17));
+        profile.setPhone("(14) 99999-9999");
+        profile.setMotherName("Ana da Silva");
+        profile.setFatherName("José Souza Santos");
+        profile.setUser(user);
+        profile.setAddresses(new HashSet<>());
+        for (long id = 1; id <= 2; id++) {
+            Address address = new Address();
+            address.setId(id);
+            address.setZipCode("17500-000");
+            address.setStreet(STR."Rua das Flores \{id}");
+            address.setNumber("100");
+            address.setComplement("Casa");
+            address.setDistrict("Centro");
+            address.setCity("Marília");
+            address.setUf("SP");
+            address.setUserProfile(profile);
+            profile.getAddresses().add(address);
+        }
+        user.setProfile(profile);
+
+        profileRecord = new UserProfileRecord(profile);
+    }
+
+    @Benchmark
+    public String capitalize() {
+        return capitalizeUtil.capitalize(name);
+    }
+
+    @Benchmark
+    public UserDTO userDto() {
+        return new UserDTO(user);
+    }
+
+    @Benchmark
+    public UserProfileRecord userProfileRecord() {
+        return new UserProfileRecord(profile);
+    }
+
+    @Benchmark
+    public UserWithProfileRecord userWithProfileRecord() {
+        return new UserWithProfileRecord(user);
+    }
+
+    // Mesma sequência de setters do UserProfileService.copyDtoToEntity
+    @Benchmark
+    public UserProfile copyDtoToEntity() {
+        UserProfile entity = new UserProfile();
+        entity.setCpf(profileRecord.cpf());
+        entity.setBirthDate(profileRecord.birthDate());
+        entity.setPhone(profileRecord.phone());
+        entity.setMotherName(profileRecord.motherName());
+        entity.setFatherName(profileRecord.fatherName());
+        return entity;
+    }
+
+    // Cópia anterior: propriedades do record e depois do UserDTO para um User novo, por reflexão
+    @Benchmark
+    public UserProfile copyDtoToEntityBeanUtils() {
+        UserProfile entity = new UserProfile();
+        BeanUtils.copyProperties(profileRecord, entity, "id", "user", "address");
+        User userEntity = new User();
+        BeanUtils.copyProperties(profileRecord.user(), userEntity);
+        entity.setUser(userEntity);
+        return entity;
+    }
+}
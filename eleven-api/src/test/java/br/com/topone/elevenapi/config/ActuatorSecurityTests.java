@@ -0,0 +1,65 @@
+package br.com.topone.elevenapi.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * O scrape do Prometheus usa credenciais próprias, que não valem para a API e vice-versa.
+ * {@link AutoConfigureObservability}: sem ela os testes não publicam o endpoint do Prometheus.
+ */
+@AutoConfigureObservability
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"security.metrics.username=scraper", "security.metrics.password=segredo-do-scrape"})
+class ActuatorSecurityTests {
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    void healthShouldBePublic() throws Exception {
+        assertEquals(200, get("/actuator/health", null).statusCode());
+    }
+
+    @Test
+    void prometheusShouldRequireTheMetricsCredentials() throws Exception {
+        assertEquals(401, get("/actuator/prometheus", null).statusCode());
+        assertEquals(401, get("/actuator/prometheus", basic("scraper", "senha-errada")).statusCode());
+
+        HttpResponse<String> response = get("/actuator/prometheus", basic("scraper", "segredo-do-scrape"));
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("hikaricp_connections"));
+        assertTrue(response.body().contains("jvm_memory_used_bytes"));
+    }
+
+    @Test
+    void metricsCredentialsShouldNotOpenTheApi() throws Exception {
+        assertEquals(401, get("/users", basic("scraper", "segredo-do-scrape")).statusCode());
+    }
+
+    private HttpResponse<String> get(String path, String authorization) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(STR."http://localhost:\{port}\{path}")).GET();
+        if (authorization != null) {
+            request.header("Authorization", authorization);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String basic(String username, String password) {
+        return "Basic " + Base64.getEncoder()
+                .encodeToString(STR."\{username}:\{password}".getBytes(StandardCharsets.UTF_8));
+    }
+}
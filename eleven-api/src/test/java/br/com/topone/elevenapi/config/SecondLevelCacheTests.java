@@ -0,0 +1,69 @@
+package br.com.topone.elevenapi.config;
+
+import br.com.topone.elevenapi.StatementCounter;
+import br.com.topone.elevenapi.entities.User;
+import br.com.topone.elevenapi.repositories.RoleRepository;
+import br.com.topone.elevenapi.repositories.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = StatementCounter.PROPERTY)
+class SecondLevelCacheTests {
+
+    // Espaço final para não contar as consultas em tb_user_profile e tb_user_role
+    private static final String FROM_USER = "from tb_user ";
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void roleQueriesShouldBeServedFromQueryCache() {
+        roleRepository.findAll();
+        roleRepository.findByAuthority("ROLE_ADMIN");
+
+        StatementCounter.reset();
+        assertEquals(2, roleRepository.findAll().size());
+        assertEquals(2L, roleRepository.findByAuthority("ROLE_ADMIN").getId());
+        assertEquals(0, StatementCounter.count());
+    }
+
+    @Test
+    void userUpdateShouldReplaceCachedEntry() {
+        Long id = 9L;
+        String original = transactionTemplate.execute(status -> userRepository.findById(id).orElseThrow().getName());
+        assertTrue(entityManagerFactory.getCache().contains(User.class, id));
+
+        // Segunda leitura em outra sessão: vem da região users, sem SELECT em tb_user
+        StatementCounter.reset();
+        transactionTemplate.execute(status -> userRepository.findById(id).orElseThrow());
+        assertEquals(0, StatementCounter.count(FROM_USER));
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    userRepository.findById(id).orElseThrow().setName("Nome Alterado"));
+
+            // O commit substitui a entrada em cache pela versão nova em vez de deixar a antiga
+            StatementCounter.reset();
+            User reloaded = transactionTemplate.execute(status -> userRepository.findById(id).orElseThrow());
+            assertEquals("Nome Alterado", reloaded.getName());
+            assertEquals(0, StatementCounter.count(FROM_USER));
+        } finally {
+            transactionTemplate.executeWithoutResult(status ->
+                    userRepository.findById(id).orElseThrow().setName(original));
+        }
+    }
+}
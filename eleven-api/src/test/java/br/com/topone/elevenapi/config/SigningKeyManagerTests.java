@@ -0,0 +1,123 @@
+package br.com.topone.elevenapi.config;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Chaves PEM gravadas num diretório temporário, no formato do {@code openssl genpkey}/{@code openssl pkey -pubout}.
+ */
+class SigningKeyManagerTests {
+
+    @TempDir
+    private Path keysDir;
+
+    @Test
+    void keysShouldBeLoadedFromTheDirectoryWithTheFileNameAsKid() throws Exception {
+        writePrivateKey("2024-01", rsa());
+        writePrivateKey("2024-06", rsa());
+        Files.writeString(keysDir.resolve("LEIA-ME.txt"), "não é chave");
+
+        var manager = new SigningKeyManager(keysDir.toString(), "");
+
+        // Sem active-key-id, assina a última privada em ordem alfabética
+        assertEquals("2024-06", sign(manager).getHeader().getKeyID());
+        List<JWK> published = publicKeys(manager);
+        assertEquals(List.of("2024-01", "2024-06"), published.stream().map(JWK::getKeyID).toList());
+        assertFalse(published.stream().anyMatch(JWK::isPrivate));
+    }
+
+    @Test
+    void activeKeyIdShouldChooseTheSigningKey() throws Exception {
+        writePrivateKey("2024-01", rsa());
+        writePrivateKey("2024-06", rsa());
+
+        assertEquals("2024-01", sign(new SigningKeyManager(keysDir.toString(), "2024-01")).getHeader().getKeyID());
+        assertThrows(IllegalStateException.class, () -> new SigningKeyManager(keysDir.toString(), "2023-12"));
+    }
+
+    @Test
+    void tokensSignedWithTheRetiredKeyShouldStillVerifyAfterRotation() throws Exception {
+        KeyPair old = rsa();
+        writePrivateKey("2024-01", old);
+        var before = new SigningKeyManager(keysDir.toString(), "");
+        String oldToken = sign(before).serialize();
+
+        // Rotação: a chave antiga fica só com a parte pública e uma nova passa a assinar
+        writePublicKey("2024-01", old);
+        writePrivateKey("2024-06", rsa());
+        var after = new SigningKeyManager(keysDir.toString(), "");
+        String newToken = sign(after).serialize();
+
+        assertEquals("julio@gmail.com", after.jwtDecoder().decode(oldToken).getSubject());
+        assertEquals("julio@gmail.com", after.jwtDecoder().decode(newToken).getSubject());
+        assertEquals(List.of("2024-01", "2024-06"), publicKeys(after).stream().map(JWK::getKeyID).toList());
+        // Instância ainda não atualizada não conhece o kid novo
+        assertThrows(BadJwtException.class, () -> before.jwtDecoder().decode(newToken));
+    }
+
+    @Test
+    void directoryWithoutPrivateKeyShouldBeRejected() throws Exception {
+        writePublicKey("2024-01", rsa());
+
+        assertThrows(IllegalStateException.class, () -> new SigningKeyManager(keysDir.toString(), ""));
+    }
+
+    private static KeyPair rsa() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+
+    private void writePrivateKey(String kid, KeyPair keyPair) throws Exception {
+        Files.writeString(keysDir.resolve(STR."\{kid}.pem"), pem("PRIVATE KEY", keyPair.getPrivate().getEncoded()));
+    }
+
+    private void writePublicKey(String kid, KeyPair keyPair) throws Exception {
+        Files.writeString(keysDir.resolve(STR."\{kid}.pem"), pem("PUBLIC KEY", keyPair.getPublic().getEncoded()));
+    }
+
+    private static String pem(String type, byte[] der) {
+        String body = Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(der);
+        return STR."-----BEGIN \{type}-----\n\{body}\n-----END \{type}-----\n";
+    }
+
+    private static SignedJWT sign(SigningKeyManager manager) throws Exception {
+        Instant now = Instant.now();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .subject("julio@gmail.com")
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(600))
+                .build();
+        String token = new NimbusJwtEncoder(manager.signingJwkSource())
+                .encode(JwtEncoderParameters.from(JwsHeader.with(SignatureAlgorithm.RS256).build(), claims))
+                .getTokenValue();
+        return SignedJWT.parse(token);
+    }
+
+    private static List<JWK> publicKeys(SigningKeyManager manager) throws Exception {
+        return manager.publicJwkSource().get(new JWKSelector(new JWKMatcher.Builder().build()), null);
+    }
+}
@@ -0,0 +1,86 @@
+package br.com.topone.elevenapi.config.authorization;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2RefreshToken;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BoundedInMemoryAuthorizationServiceTests {
+
+    private static final RegisteredClient CLIENT = RegisteredClient.withId("myclientid")
+            .clientId("myclientid")
+            .authorizationGrantType(AuthorizationGrantType.PASSWORD)
+            .authorizationGrantType(AuthorizationGrantType.REFRESH_TOKEN)
+            .build();
+
+    @Test
+    void tokensShouldBeFoundByValueAndType() {
+        var service = new BoundedInMemoryAuthorizationService(10);
+        service.save(authorization("a", Instant.now().plusSeconds(600)));
+
+        assertEquals("a", service.findByToken("access-a", OAuth2TokenType.ACCESS_TOKEN).getId());
+        assertEquals("a", service.findByToken("refresh-a", OAuth2TokenType.REFRESH_TOKEN).getId());
+        assertEquals("a", service.findByToken("refresh-a", null).getId());
+        assertNull(service.findByToken("access-a", OAuth2TokenType.REFRESH_TOKEN));
+        assertNull(service.findByToken("desconhecido", null));
+    }
+
+    @Test
+    void oldestAuthorizationsShouldBeEvictedAboveTheCap() {
+        var service = new BoundedInMemoryAuthorizationService(3);
+        Instant expiresAt = Instant.now().plusSeconds(600);
+        for (String id : new String[] {"a", "b", "c", "d", "e"}) {
+            service.save(authorization(id, expiresAt));
+        }
+        // Salvar de novo uma autorização existente (refresh) não conta como nova
+        service.save(authorization("c", expiresAt));
+
+        assertEquals(3, service.size());
+        assertNull(service.findById("a"));
+        assertNull(service.findByToken("access-b", OAuth2TokenType.ACCESS_TOKEN));
+        assertNotNull(service.findById("c"));
+        assertNotNull(service.findByToken("refresh-e", OAuth2TokenType.REFRESH_TOKEN));
+    }
+
+    @Test
+    void sweepShouldRemoveOnlyFullyExpiredAuthorizations() {
+        var service = new BoundedInMemoryAuthorizationService(10);
+        Instant now = Instant.now();
+        service.save(authorization("expirada", now.minusSeconds(1)));
+        service.save(authorization("valida", now.plusSeconds(600)));
+        // Access token vencido, refresh token ainda válido: continua utilizável para o refresh
+        service.save(OAuth2Authorization.from(authorization("refresh-valido", now.minusSeconds(1)))
+                .refreshToken(new OAuth2RefreshToken("refresh-refresh-valido", now.minusSeconds(60), now.plusSeconds(600)))
+                .build());
+
+        assertEquals(1, service.removeExpired());
+        assertEquals(2, service.size());
+        assertNull(service.findByToken("access-expirada", null));
+        assertNotNull(service.findById("valida"));
+        assertNotNull(service.findByToken("refresh-refresh-valido", OAuth2TokenType.REFRESH_TOKEN));
+    }
+
+    static OAuth2Authorization authorization(String id, Instant expiresAt) {
+        return authorization(CLIENT, id, expiresAt);
+    }
+
+    static OAuth2Authorization authorization(RegisteredClient client, String id, Instant expiresAt) {
+        Instant issuedAt = expiresAt.minusSeconds(60);
+        return OAuth2Authorization.withRegisteredClient(client)
+                .id(id)
+                .principalName("julio@gmail.com")
+                .authorizationGrantType(AuthorizationGrantType.PASSWORD)
+                .accessToken(new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, "access-" + id, issuedAt, expiresAt))
+                .refreshToken(new OAuth2RefreshToken("refresh-" + id, issuedAt, expiresAt))
+                .build();
+    }
+}
@@ -0,0 +1,125 @@
+package br.com.topone.elevenapi.config.authorization;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationService;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Store JDBC com a tabela criada pelo spring.sql.init: o login grava a autorização, o refresh a lê de
+ * volta do banco (desserializando o principal) e a varredura remove as expiradas em lotes.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "security.authorization-store.type=jdbc",
+        "security.authorization-store.sweep-chunk-size=2",
+        "security.authorization-store.sweep-interval-ms=3600000"})
+class ExpiringJdbcAuthorizationServiceTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${security.client-id}")
+    private String clientId;
+
+    @Value("${security.client-secret}")
+    private String clientSecret;
+
+    @Autowired
+    private OAuth2AuthorizationService authorizationService;
+
+    @Autowired
+    private RegisteredClientRepository registeredClientRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    void loginAndRefreshShouldRoundTripThroughTheTable() throws Exception {
+        assertInstanceOf(ExpiringJdbcAuthorizationService.class, authorizationService);
+
+        JsonNode login = token("grant_type=password&username=julio%40gmail.com&password=123456");
+        String accessToken = login.get("access_token").asText();
+        OAuth2Authorization stored = authorizationService.findByToken(accessToken, OAuth2TokenType.ACCESS_TOKEN);
+        assertNotNull(stored);
+        assertEquals(clientId, stored.getPrincipalName());
+
+        // sub continua sendo o client; o usuário vem das claims username e user_id
+        JsonNode claims = claims(accessToken);
+        assertEquals(clientId, claims.get("sub").asText());
+        assertEquals("julio@gmail.com", claims.get("username").asText());
+        assertEquals("3", claims.get("user_id").asText());
+
+        JsonNode refreshed = token("grant_type=refresh_token&refresh_token="
+                + URLEncoder.encode(login.get("refresh_token").asText(), StandardCharsets.UTF_8));
+        String newAccessToken = refreshed.get("access_token").asText();
+        assertNotEquals(accessToken, newAccessToken);
+        JsonNode refreshedClaims = claims(newAccessToken);
+        assertEquals(clientId, refreshedClaims.get("sub").asText());
+        assertEquals("julio@gmail.com", refreshedClaims.get("username").asText());
+        assertEquals("3", refreshedClaims.get("user_id").asText());
+        assertEquals(stored.getId(), authorizationService.findByToken(newAccessToken, OAuth2TokenType.ACCESS_TOKEN).getId());
+    }
+
+    @Test
+    void sweepShouldDeleteExpiredRowsInChunks() {
+        RegisteredClient client = registeredClientRepository.findByClientId(clientId);
+        Instant now = Instant.now();
+        for (int i = 0; i < 5; i++) {
+            authorizationService.save(BoundedInMemoryAuthorizationServiceTests.authorization(client, "expirada-" + i, now.minusSeconds(1)));
+        }
+        authorizationService.save(BoundedInMemoryAuthorizationServiceTests.authorization(client, "valida", now.plusSeconds(600)));
+
+        // Lotes de 2: a varredura só chega a 5 se continuar depois do primeiro lote
+        assertEquals(5, ((ExpiringJdbcAuthorizationService) authorizationService).removeExpired());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM oauth2_authorization WHERE id LIKE 'expirada-%'", Integer.class));
+        assertNull(authorizationService.findById("expirada-0"));
+        assertNotNull(authorizationService.findById("valida"));
+    }
+
+    private JsonNode token(String body) throws Exception {
+        String credentials = Base64.getEncoder()
+                .encodeToString(STR."\{clientId}:\{clientSecret}".getBytes(StandardCharsets.UTF_8));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(STR."http://localhost:\{port}/oauth2/token"))
+                .header("Authorization", "Basic " + credentials)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), response.body());
+        return objectMapper.readTree(response.body());
+    }
+
+    private JsonNode claims(String accessToken) throws Exception {
+        return objectMapper.readTree(Base64.getUrlDecoder().decode(accessToken.split("\\.")[1]));
+    }
+}
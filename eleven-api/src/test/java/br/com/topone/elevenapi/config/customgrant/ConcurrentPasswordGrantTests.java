@@ -0,0 +1,128 @@
+package br.com.topone.elevenapi.config.customgrant;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Dispara logins simultâneos de usuários diferentes e confere se cada token emitido
+ * pertence ao usuário que o solicitou e se o p99 fica abaixo de {@code -Dstress.max-p99-ms}.
+ * Quantidade e paralelismo podem ser ajustados com {@code -Dstress.logins} e {@code -Dstress.threads}.
+ * Fica fora do {@code mvn test} padrão; para rodar: {@code mvn test -Pstress -Dtest=ConcurrentPasswordGrantTests}.
+ */
+@Tag("stress")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"security.password.queue-depth=10000", "security.rate-limit.enabled=false"})
+class ConcurrentPasswordGrantTests {
+
+    private static final List<String> USERS = List.of(
+            "rebekah@gmail.com", "miria@gmail.com", "julio@gmail.com", "carlos@gmail.com",
+            "ana@gmail.com", "lucas@gmail.com", "mariana@gmail.com", "pedro@gmail.com",
+            "roberto@gmail.com", "camila@gmail.com");
+
+    private static final int LOGINS = Integer.getInteger("stress.logins", 200);
+    private static final int THREADS = Integer.getInteger("stress.threads", 32);
+    // Inclui a espera na fila do BCrypt; o padrão só pega travamentos, em máquina dedicada vale apertar
+    private static final long MAX_P99_MILLIS = Long.getLong("stress.max-p99-ms", 30_000);
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${security.client-id}")
+    private String clientId;
+
+    @Value("${security.client-secret}")
+    private String clientSecret;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    void concurrentLoginsShouldIssueTokensForTheRequestingUser() throws Exception {
+        AtomicInteger retries = new AtomicInteger();
+        List<Future<String>> mismatches = new ArrayList<>(LOGINS);
+        long[] latencies = new long[LOGINS];
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int i = 0; i < LOGINS; i++) {
+                String username = USERS.get(i % USERS.size());
+                int index = i;
+                mismatches.add(executor.submit(() -> {
+                    long start = System.nanoTime();
+                    String tokenUsername = login(username, retries);
+                    latencies[index] = System.nanoTime() - start;
+                    return username.equals(tokenUsername) ? null : username + " -> " + tokenUsername;
+                }));
+            }
+        }
+
+        List<String> errors = new ArrayList<>();
+        for (Future<String> mismatch : mismatches) {
+            try {
+                if (mismatch.get() != null) {
+                    errors.add(mismatch.get());
+                }
+            } catch (ExecutionException e) {
+                errors.add(e.getCause().getMessage());
+            }
+        }
+        assertTrue(errors.isEmpty(), STR."\{errors.size()} logins com erro ou token do usuário errado: \{errors}");
+
+        // Latência de cada login, incluindo as retentativas após 503
+        Arrays.sort(latencies);
+        long p99Millis = latencies[(int) Math.ceil(LOGINS * 0.99) - 1] / 1_000_000;
+        assertTrue(p99Millis <= MAX_P99_MILLIS,
+                STR."p99 de \{p99Millis} ms acima de \{MAX_P99_MILLIS} ms (\{THREADS} threads, \{retries.get()} retentativas)");
+    }
+
+    private String login(String username, AtomicInteger retries) throws Exception {
+        String credentials = Base64.getEncoder()
+                .encodeToString((clientId + ":" + clientSecret).getBytes(StandardCharsets.UTF_8));
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/oauth2/token"))
+                .header("Authorization", "Basic " + credentials)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("grant_type=password&username="
+                        + URLEncoder.encode(username, StandardCharsets.UTF_8) + "&password=123456"))
+                .build();
+
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        // 503 indica o pool de hashing saturado; o cliente deve tentar novamente
+        while (response.statusCode() == 503) {
+            retries.incrementAndGet();
+            Thread.sleep(50);
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        }
+        assertEquals(200, response.statusCode(), response.body());
+
+        String accessToken = objectMapper.readTree(response.body()).get("access_token").asText();
+        String payload = accessToken.split("\\.")[1];
+        JsonNode claims = objectMapper.readTree(Base64.getUrlDecoder().decode(payload));
+        return claims.get("username").asText();
+    }
+}
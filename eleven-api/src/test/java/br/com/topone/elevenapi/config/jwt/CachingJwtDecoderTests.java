@@ -0,0 +1,174 @@
+package br.com.topone.elevenapi.config.jwt;
+
+import br.com.topone.elevenapi.config.SigningKeyManager;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tokens assinados com a chave RSA do {@link SigningKeyManager} e verificados pelo {@link NimbusJwtDecoder};
+ * cada chamada ao decoder real é contada para saber quando a verificação foi evitada.
+ */
+class CachingJwtDecoderTests {
+
+    private static final SigningKeyManager KEYS = new SigningKeyManager("", "");
+    private static final NimbusJwtEncoder ENCODER = new NimbusJwtEncoder(KEYS.signingJwkSource());
+
+    private final AtomicReference<Instant> clock = new AtomicReference<>(Instant.now());
+    private final AtomicInteger verifications = new AtomicInteger();
+    private JwtDecoder verifyingDecoder;
+
+    @BeforeEach
+    void setUp() {
+        // Montado como no AuthorizationServerConfig
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(KEYS.verificationKeySelector());
+        NimbusJwtDecoder nimbus = new NimbusJwtDecoder(jwtProcessor);
+        verifyingDecoder = token -> {
+            verifications.incrementAndGet();
+            return nimbus.decode(token);
+        };
+    }
+
+    @Test
+    void repeatedTokenShouldSkipSignatureVerification() {
+        var decoder = decoder(100);
+        String token = token("julio@gmail.com", Duration.ofHours(1));
+
+        Jwt first = decoder.decode(token);
+        Jwt second = decoder.decode(token);
+        Jwt third = decoder.decode(token);
+
+        assertEquals(1, verifications.get());
+        assertSame(first, second);
+        assertSame(first, third);
+        assertEquals("julio@gmail.com", third.getClaimAsString("username"));
+    }
+
+    @Test
+    void tamperedTokenShouldBeRejectedAndNeverCached() {
+        var decoder = decoder(100);
+        String token = token("julio@gmail.com", Duration.ofHours(1));
+        String[] parts = token.split("\\.");
+        String tampered = STR."\{parts[0]}.\{token("maria@gmail.com", Duration.ofHours(1)).split("\\.")[1]}.\{parts[2]}";
+
+        assertThrows(BadJwtException.class, () -> decoder.decode(tampered));
+        assertThrows(BadJwtException.class, () -> decoder.decode(tampered));
+
+        assertEquals(2, verifications.get());
+        assertEquals(0, decoder.stats().size());
+    }
+
+    @Test
+    void cachedTokenShouldExpireAtItsExp() {
+        var decoder = decoder(100);
+        String token = token("julio@gmail.com", Duration.ofMinutes(5));
+        decoder.decode(token);
+
+        clock.set(clock.get().plus(Duration.ofMinutes(5)).minusSeconds(1));
+        decoder.decode(token);
+        assertEquals(1, verifications.get());
+
+        // No exp o cache não responde mais; a verificação real decide (aqui o token ainda é válido no relógio do sistema)
+        clock.set(clock.get().plusSeconds(1));
+        decoder.decode(token);
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void cacheShouldStayWithinItsMaximumSize() {
+        var decoder = decoder(3);
+        List<String> tokens = List.of(
+                token("a@gmail.com", Duration.ofHours(1)), token("b@gmail.com", Duration.ofHours(1)),
+                token("c@gmail.com", Duration.ofHours(1)), token("d@gmail.com", Duration.ofHours(1)),
+                token("e@gmail.com", Duration.ofHours(1)));
+        tokens.forEach(decoder::decode);
+
+        assertEquals(3, decoder.stats().size());
+        assertEquals(5, verifications.get());
+    }
+
+    @Test
+    void statsShouldEstimateTheVerificationTimeSaved() {
+        var decoder = decoder(100);
+        String token = token("julio@gmail.com", Duration.ofHours(1));
+        for (int i = 0; i < 4; i++) {
+            decoder.decode(token);
+        }
+
+        CachingJwtDecoder.JwtCacheStats stats = decoder.stats();
+        assertEquals(1, stats.size());
+        assertEquals(3, stats.hits());
+        assertEquals(1, stats.misses());
+        assertTrue(stats.avgDecodeNanos() > 0);
+        assertEquals(3 * stats.avgDecodeNanos(), stats.savedNanos());
+    }
+
+    @Test
+    void authoritiesShouldBeConvertedOncePerJwtInstance() {
+        var decoder = decoder(100);
+        AtomicInteger conversions = new AtomicInteger();
+        var converter = new CachingJwtAuthoritiesConverter(jwt -> {
+            conversions.incrementAndGet();
+            return jwt.getClaimAsStringList("authorities").stream()
+                    .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                    .toList();
+        }, 100);
+        String token = token("julio@gmail.com", Duration.ofHours(1));
+
+        Collection<GrantedAuthority> first = converter.convert(decoder.decode(token));
+        Collection<GrantedAuthority> second = converter.convert(decoder.decode(token));
+        assertSame(first, second);
+        assertEquals(1, conversions.get());
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_ADMIN"), new SimpleGrantedAuthority("ROLE_OPERATOR")),
+                List.copyOf(first));
+
+        // Chave por identidade: um Jwt igual mas de outra decodificação é convertido de novo
+        Jwt other = verifyingDecoder.decode(token);
+        assertNotSame(first, converter.convert(other));
+        assertEquals(2, conversions.get());
+    }
+
+    private CachingJwtDecoder decoder(long maxSize) {
+        return new CachingJwtDecoder(verifyingDecoder, maxSize, clock::get, Runnable::run);
+    }
+
+    private String token(String username, Duration validity) {
+        Instant issuedAt = clock.get();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer("http://localhost:8080")
+                .subject(username)
+                .issuedAt(issuedAt)
+                .expiresAt(issuedAt.plus(validity))
+                .claim("authorities", List.of("ROLE_ADMIN", "ROLE_OPERATOR"))
+                .claim("username", username)
+                .build();
+        return ENCODER.encode(JwtEncoderParameters.from(JwsHeader.with(SignatureAlgorithm.RS256).build(), claims))
+                .getTokenValue();
+    }
+}
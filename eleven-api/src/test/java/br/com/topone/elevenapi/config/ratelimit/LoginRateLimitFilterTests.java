@@ -0,0 +1,46 @@
+package br.com.topone.elevenapi.config.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * O limite por IP usa o IP do cliente informado pelo proxy confiável (o teste chega pelo loopback,
+ * que está entre os proxies confiáveis padrão), e não o IP do proxy.
+ * Sem credenciais do client: o filtro conta a tentativa antes da autenticação, e a resposta é 401 até o limite.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"security.rate-limit.ip.capacity=2", "security.rate-limit.username.capacity=100"})
+class LoginRateLimitFilterTests {
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    void ipLimitShouldApplyPerForwardedClient() throws Exception {
+        assertEquals(401, login("203.0.113.10", 1));
+        assertEquals(401, login("203.0.113.10", 2));
+        assertEquals(429, login("203.0.113.10", 3));
+
+        assertNotEquals(429, login("203.0.113.20", 4));
+    }
+
+    private int login(String clientIp, int attempt) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(STR."http://localhost:\{port}/oauth2/token"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .header("X-Forwarded-For", clientIp)
+                .POST(HttpRequest.BodyPublishers.ofString(STR."grant_type=password&username=limite\{attempt}@gmail.com&password=x"))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
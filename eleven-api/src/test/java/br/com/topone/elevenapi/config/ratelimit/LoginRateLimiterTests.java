@@ -0,0 +1,26 @@
+package br.com.topone.elevenapi.config.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginRateLimiterTests {
+
+    @Test
+    void attemptRejectedByTheUsernameShouldNotSpendTheIpToken() {
+        // Usuário: 1 tentativa; IP: 3 tentativas, ambos com reposição de 1 por minuto
+        var limiter = new LoginRateLimiter(true, 1, 1, 3, 1, 100, 600);
+
+        assertEquals(0, limiter.tryAcquire("10.0.0.1", "julio@gmail.com"));
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire("10.0.0.1", "julio@gmail.com") > 0);
+        }
+
+        // As recusas pelo usuário não consumiram o IP: ainda restam 2 tentativas para outros usuários
+        assertEquals(0, limiter.tryAcquire("10.0.0.1", "miria@gmail.com"));
+        assertEquals(0, limiter.tryAcquire("10.0.0.1", "carlos@gmail.com"));
+        assertTrue(limiter.tryAcquire("10.0.0.1", "rebekah@gmail.com") > 0);
+        assertEquals(3, limiter.ipStats().allowed());
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.topone.elevenapi.config.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketRateLimiterTests {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void emptyBucketShouldRefillAtTheConfiguredRate() {
+        // 2 tentativas de capacidade, 1 token a cada 30 s
+        var limiter = new TokenBucketRateLimiter(2, 2, 100, clock::get);
+
+        assertTrue(limiter.tryAcquire("julio@gmail.com"));
+        assertTrue(limiter.tryAcquire("julio@gmail.com"));
+        assertFalse(limiter.tryAcquire("julio@gmail.com"));
+        assertEquals(30, limiter.retryAfterSeconds());
+
+        advance(29);
+        assertFalse(limiter.tryAcquire("julio@gmail.com"));
+        advance(1);
+        assertTrue(limiter.tryAcquire("julio@gmail.com"));
+        assertFalse(limiter.tryAcquire("julio@gmail.com"));
+
+        // Outra chave tem o próprio bucket
+        assertTrue(limiter.tryAcquire("maria@gmail.com"));
+        assertEquals(new TokenBucketRateLimiter.RateLimiterStats(2, 4, 3, 0), limiter.stats());
+    }
+
+    @Test
+    void idleBucketsShouldBeEvicted() {
+        var limiter = new TokenBucketRateLimiter(5, 5, 100, clock::get);
+        limiter.tryAcquire("10.0.0.1");
+        advance(300);
+        limiter.tryAcquire("10.0.0.2");
+        advance(400);
+
+        assertEquals(1, limiter.evictIdle(TimeUnit.SECONDS.toNanos(600)));
+        assertEquals(1, limiter.stats().keys());
+        assertTrue(limiter.tryAcquire("10.0.0.2"));
+    }
+
+    @Test
+    void fullMapShouldEvictTheLeastRecentlyUsedBucket() {
+        var limiter = new TokenBucketRateLimiter(2, 1, 3, clock::get);
+        for (int i = 1; i <= 3; i++) {
+            assertTrue(limiter.tryAcquire(STR."usuario\{i}@gmail.com"));
+            advance(1);
+        }
+        // usuario1 volta a ser o mais recente; usuario2 passa a ser o mais antigo
+        assertTrue(limiter.tryAcquire("usuario1@gmail.com"));
+        advance(1);
+
+        // A chave nova é atendida e só o bucket menos usado recentemente sai
+        assertTrue(limiter.tryAcquire("usuario4@gmail.com"));
+        assertEquals(new TokenBucketRateLimiter.RateLimiterStats(3, 5, 0, 1), limiter.stats());
+
+        // usuario1 manteve o estado (bucket vazio); usuario2 recomeça com um bucket cheio
+        assertFalse(limiter.tryAcquire("usuario1@gmail.com"));
+        advance(1);
+        assertTrue(limiter.tryAcquire("usuario2@gmail.com"));
+        assertTrue(limiter.tryAcquire("usuario2@gmail.com"));
+        assertEquals(2, limiter.stats().evicted());
+    }
+
+    @Test
+    void refundShouldReturnTheTokenWithoutExceedingTheCapacity() {
+        var limiter = new TokenBucketRateLimiter(2, 1, 100, clock::get);
+        assertTrue(limiter.tryAcquire("10.0.0.1"));
+        assertTrue(limiter.tryAcquire("10.0.0.1"));
+        assertFalse(limiter.tryAcquire("10.0.0.1"));
+
+        limiter.refund("10.0.0.1");
+        assertTrue(limiter.tryAcquire("10.0.0.1"));
+
+        limiter.refund("10.0.0.1");
+        limiter.refund("10.0.0.1");
+        limiter.refund("10.0.0.1");
+        assertTrue(limiter.tryAcquire("10.0.0.1"));
+        assertTrue(limiter.tryAcquire("10.0.0.1"));
+        assertFalse(limiter.tryAcquire("10.0.0.1"));
+    }
+
+    private void advance(long seconds) {
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+}
@@ -0,0 +1,77 @@
+package br.com.topone.elevenapi.service;
+
+import br.com.topone.elevenapi.StatementCounter;
+import br.com.topone.elevenapi.service.exceptions.ForbiddenException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Usuário logado lido das claims do token: com {@code user_id} não há consulta ao banco;
+ * tokens antigos, sem a claim, resolvem o id pelo email.
+ */
+@SpringBootTest(properties = StatementCounter.PROPERTY)
+class AuthServiceTests {
+
+    @Autowired
+    private AuthService authService;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void userIdClaimShouldAuthorizeWithoutQueries() {
+        authenticate(jwt("rebekah@gmail.com", "1", "ROLE_OPERATOR"));
+        StatementCounter.reset();
+
+        assertDoesNotThrow(() -> authService.validateSelfOrAdmin(1L));
+        assertThrows(ForbiddenException.class, () -> authService.validateSelfOrAdmin(2L));
+
+        authenticate(jwt("julio@gmail.com", "3", "ROLE_OPERATOR", "ROLE_ADMIN"));
+        assertDoesNotThrow(() -> authService.validateSelfOrAdmin(1L));
+
+        assertEquals(0, StatementCounter.count());
+    }
+
+    @Test
+    void tokenWithoutUserIdShouldFallBackToTheEmailLookup() {
+        authenticate(jwt("rebekah@gmail.com", null, "ROLE_OPERATOR"));
+        StatementCounter.reset();
+
+        assertDoesNotThrow(() -> authService.validateSelfOrAdmin(1L));
+        assertEquals(1, StatementCounter.count());
+        assertThrows(ForbiddenException.class, () -> authService.validateSelfOrAdmin(2L));
+
+        authenticate(jwt("naoexiste@gmail.com", null, "ROLE_ADMIN"));
+        assertThrows(UsernameNotFoundException.class, () -> authService.validateSelfOrAdmin(1L));
+    }
+
+    private static Jwt jwt(String username, String userId, String... authorities) {
+        var builder = Jwt.withTokenValue("token")
+                .header("alg", "none")
+                .subject("myclientid")
+                .claim("username", username)
+                .claim("authorities", List.of(authorities));
+        if (userId != null) {
+            builder.claim("user_id", userId);
+        }
+        return builder.build();
+    }
+
+    private static void authenticate(Jwt jwt) {
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+    }
+}
@@ -0,0 +1,203 @@
+package br.com.topone.elevenapi.service;
+
+import br.com.topone.elevenapi.entities.EmailOutbox;
+import br.com.topone.elevenapi.records.EmailRecord;
+import br.com.topone.elevenapi.repositories.EmailOutboxRepository;
+import br.com.topone.elevenapi.repositories.PasswordRecoverRepository;
+import br.com.topone.elevenapi.util.DigestUtil;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.Multipart;
+import jakarta.mail.Part;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Dispatcher contra um servidor SMTP embutido (GreenMail): entrega, retentativa com backoff e DEAD.
+ * Banco próprio, para que o agendamento de outros contextos de teste não dispute as linhas da outbox;
+ * o agendamento deste contexto fica parado e {@code dispatch()} é chamado pelo teste.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outboxdb",
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025",
+        "spring.mail.username=eleven",
+        "spring.mail.password=segredo-do-smtp",
+        "spring.mail.properties.mail.smtp.ssl.enable=false",
+        "email.outbox.poll-interval-ms=3600000",
+        "email.outbox.max-attempts=3",
+        "email.outbox.backoff-initial-seconds=60",
+        "email.outbox.backoff-max-seconds=3600"})
+class EmailOutboxDispatcherTests {
+
+    private static final Pattern TOKEN = Pattern.compile("token=([0-9a-f]{64})");
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withUser("eleven", "segredo-do-smtp"));
+
+    @Autowired
+    private EmailOutboxDispatcher dispatcher;
+
+    @Autowired
+    private EmailOutboxRepository repository;
+
+    @Autowired
+    private PasswordRecoverRepository passwordRecoverRepository;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void dispatchShouldDeliverTheRecoveryEmailWithATokenMintedAtSendTime() throws Exception {
+        EmailOutbox queued = enqueueRecovery("julio@gmail.com");
+        assertFalse(queued.getPayload().contains("token"));
+
+        dispatcher.dispatch();
+
+        assertTrue(greenMail.waitForIncomingEmail(5_000, 1));
+        MimeMessage received = greenMail.getReceivedMessages()[0];
+        assertEquals("julio@gmail.com", received.getAllRecipients()[0].toString());
+        Matcher matcher = TOKEN.matcher(text(received));
+        assertTrue(matcher.find());
+        assertTrue(passwordRecoverRepository.searchValidToken(DigestUtil.sha256Hex(matcher.group(1)), Instant.now())
+                .isPresent());
+
+        EmailOutbox sent = repository.findById(queued.getId()).orElseThrow();
+        assertEquals(EmailOutbox.Status.SENT, sent.getStatus());
+        assertEquals(queued.getPayload(), sent.getPayload());
+    }
+
+    @Test
+    void failuresShouldBeRetriedWithExponentialBackoffUntilDead() {
+        EmailOutbox queued = enqueueRecovery("rebekah@gmail.com");
+        greenMail.stop();
+
+        Instant before = Instant.now();
+        dispatcher.dispatch();
+        EmailOutbox failed = repository.findById(queued.getId()).orElseThrow();
+        assertEquals(EmailOutbox.Status.PENDING, failed.getStatus());
+        assertEquals(1, failed.getAttempts());
+        assertDelay(before, failed.getNextAttemptAt(), Duration.ofSeconds(60));
+
+        makeDue(queued.getId());
+        before = Instant.now();
+        dispatcher.dispatch();
+        failed = repository.findById(queued.getId()).orElseThrow();
+        assertEquals(EmailOutbox.Status.PENDING, failed.getStatus());
+        assertEquals(2, failed.getAttempts());
+        assertDelay(before, failed.getNextAttemptAt(), Duration.ofSeconds(120));
+
+        makeDue(queued.getId());
+        dispatcher.dispatch();
+        failed = repository.findById(queued.getId()).orElseThrow();
+        assertEquals(EmailOutbox.Status.DEAD, failed.getStatus());
+        assertEquals(3, failed.getAttempts());
+        assertTrue(failed.getLastError() != null && !failed.getLastError().isBlank());
+        // Um único token registrado para as três tentativas
+        assertEquals(1, tokensOf("rebekah@gmail.com"));
+
+        // Linha morta não é mais reservada
+        makeDue(queued.getId());
+        dispatcher.dispatch();
+        assertEquals(3, repository.findById(queued.getId()).orElseThrow().getAttempts());
+    }
+
+    @Test
+    void retryShouldResendTheTokenRegisteredOnTheFirstAttempt() throws Exception {
+        EmailOutbox queued = enqueueRecovery("miria@gmail.com");
+        greenMail.stop();
+        dispatcher.dispatch();
+        assertEquals(1, repository.findById(queued.getId()).orElseThrow().getAttempts());
+        assertEquals(1, tokensOf("miria@gmail.com"));
+
+        greenMail.start();
+        makeDue(queued.getId());
+        dispatcher.dispatch();
+
+        assertTrue(greenMail.waitForIncomingEmail(5_000, 1));
+        Matcher matcher = TOKEN.matcher(text(greenMail.getReceivedMessages()[0]));
+        assertTrue(matcher.find());
+        assertTrue(passwordRecoverRepository.searchValidToken(DigestUtil.sha256Hex(matcher.group(1)), Instant.now())
+                .isPresent());
+        assertEquals(1, tokensOf("miria@gmail.com"));
+        assertEquals(EmailOutbox.Status.SENT, repository.findById(queued.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void welcomeWithoutMessageShouldNotRegisterAToken() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                emailOutboxService.enqueueWelcome(5L, "carlos@gmail.com"));
+        EmailOutbox queued = latest("carlos@gmail.com");
+
+        dispatcher.dispatch();
+
+        EmailOutbox sent = repository.findById(queued.getId()).orElseThrow();
+        assertEquals(EmailOutbox.Status.SENT, sent.getStatus());
+        assertNull(sent.getTokenIssuedAt());
+        assertEquals(0, tokensOf("carlos@gmail.com"));
+    }
+
+    private EmailOutbox enqueueRecovery(String email) {
+        authService.createRecoveryToken(new EmailRecord(email));
+        return latest(email);
+    }
+
+    private EmailOutbox latest(String email) {
+        return repository.findAll().stream()
+                .filter(entity -> entity.getRecipient().equals(email))
+                .max(Comparator.comparing(EmailOutbox::getId))
+                .orElseThrow();
+    }
+
+    private long tokensOf(String email) {
+        return passwordRecoverRepository.findAll().stream().filter(token -> token.getEmail().equals(email)).count();
+    }
+
+    // Adianta o relógio da linha em vez de esperar o backoff
+    private void makeDue(Long id) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                repository.findById(id).orElseThrow().setNextAttemptAt(Instant.now().minusSeconds(1)));
+    }
+
+    // Texto da mensagem, decodificado e com as partes concatenadas
+    private static String text(Part part) throws Exception {
+        if (part.getContent() instanceof Multipart multipart) {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < multipart.getCount(); i++) {
+                text.append(text(multipart.getBodyPart(i)));
+            }
+            return text.toString();
+        }
+        return String.valueOf(part.getContent());
+    }
+
+    private static void assertDelay(Instant before, Instant nextAttemptAt, Duration expected) {
+        Duration delay = Duration.between(before, nextAttemptAt);
+        assertTrue(delay.compareTo(expected) >= 0 && delay.compareTo(expected.plusSeconds(5)) < 0,
+                STR."atraso de \{delay}, esperado \{expected}");
+    }
+}
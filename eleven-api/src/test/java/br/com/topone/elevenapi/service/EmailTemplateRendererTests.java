@@ -0,0 +1,74 @@
+package br.com.topone.elevenapi.service;
+
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import org.thymeleaf.templateresolver.StringTemplateResolver;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * O template pré-compilado precisa gerar exatamente o HTML do Thymeleaf, inclusive no escape.
+ */
+class EmailTemplateRendererTests {
+
+    private static final String HOSTILE = "<b>Ana & \"Bia\"</b> d'Ávila";
+
+    private final SpringTemplateEngine templateEngine = templateEngine();
+    private final EmailTemplateRenderer renderer = new EmailTemplateRenderer(templateEngine);
+
+    @Test
+    void welcomeShouldMatchTheThymeleafOutput() {
+        assertSameOutput("email_acesso", Map.of("nome", HOSTILE, "email", "ana+'x'@gmail.com",
+                "token", "a<b>&\"'", "recoverUri", "http://localhost:3000/recover?x=1&y='2'", "tokenHours", 72L));
+    }
+
+    @Test
+    void recoveryShouldMatchTheThymeleafOutput() {
+        assertSameOutput("recuperacao_email_acesso", Map.of("nome", HOSTILE, "email", "ana@gmail.com",
+                "token", "\"><script>alert(1)</script>", "recoverUri", "http://localhost:3000/recover",
+                "tokenMinutes", 30L));
+    }
+
+    @Test
+    void variablesOutsideTextAndHrefShouldBeRejected() {
+        var engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(new StringTemplateResolver());
+        var stringRenderer = new EmailTemplateRenderer(engine);
+
+        assertEquals("<a href=\"http://x/?t=a&amp;b\">&lt;ok&gt;</a>", stringRenderer.render(
+                "<a th:href=\"${uri} + '?t=' + ${token}\" th:text=\"${nome}\">x</a>",
+                Map.of("uri", "http://x/", "token", "a&b", "nome", "<ok>")));
+
+        var error = assertThrows(IllegalStateException.class, () -> stringRenderer.render(
+                "<p th:style=\"'color:' + ${cor}\">x</p>", Map.of("cor", "red")));
+        assertTrue(error.getMessage().contains("cor"));
+        assertThrows(IllegalStateException.class, () -> stringRenderer.render(
+                "<img th:src=\"${foto}\" src=\"x.png\">", Map.of("foto", "http://x/foto.png")));
+        assertThrows(IllegalStateException.class, () -> stringRenderer.render(
+                "<a th:attr=\"onclick=${acao}\" href=\"#\">x</a>", Map.of("acao", "abrir()")));
+    }
+
+    private void assertSameOutput(String template, Map<String, Object> variables) {
+        assertEquals(templateEngine.process(template, new Context(null, variables)), renderer.render(template, variables));
+        // Segunda chamada usa o template já compilado
+        assertEquals(templateEngine.process(template, new Context(null, variables)), renderer.render(template, variables));
+    }
+
+    private static SpringTemplateEngine templateEngine() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        return engine;
+    }
+}
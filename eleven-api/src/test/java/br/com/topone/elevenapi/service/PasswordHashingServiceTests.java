@@ -0,0 +1,251 @@
+package br.com.topone.elevenapi.service;
+
+import br.com.topone.elevenapi.repositories.UserRepository;
+import br.com.topone.elevenapi.service.exceptions.ServiceUnavailableException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pool do BCrypt: com a fila cheia a chamada é recusada na hora (503 na API e temporarily_unavailable
+ * no /oauth2/token), o lote mantém a ordem e o login regrava o hash de custo antigo. O encoder da
+ * aplicação é substituído por um de 1 thread e fila 1, com uma trava para ocupar o pool.
+ * O re-hash grava no banco, por isso o teste usa um banco só seu.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:hashingdb", "security.rate-limit.enabled=false",
+        "spring.main.allow-bean-definition-overriding=true"})
+class PasswordHashingServiceTests {
+
+    // Maior que o custo 10 dos hashes do import.sql, para forçar o re-hash no login
+    private static final int STRENGTH = 11;
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${security.client-id}")
+    private String clientId;
+
+    @Value("${security.client-secret}")
+    private String clientSecret;
+
+    @Autowired
+    private PasswordHashingService passwordEncoder;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @TestConfiguration
+    static class GatedEncoderConfig {
+
+        // Mesmo nome do bean do AppConfig: o Authorization Server exige um único PasswordEncoder
+        @Bean(destroyMethod = "shutdown")
+        PasswordHashingService passwordEncoder(MeterRegistry meterRegistry) {
+            return new PasswordHashingService(new GatedEncoder(new BCryptPasswordEncoder(STRENGTH)), 1, 1, meterRegistry);
+        }
+    }
+
+    @Test
+    void saturatedPoolShouldRejectImmediately() throws Exception {
+        String token = authService.issuePasswordToken("rebekah@gmail.com", Duration.ofMinutes(30));
+        long rejectedBefore = passwordEncoder.stats().rejected();
+
+        GatedEncoder.close();
+        List<CompletableFuture<String>> occupying = List.of(
+                CompletableFuture.supplyAsync(() -> passwordEncoder.encode("ocupa-thread")),
+                CompletableFuture.supplyAsync(() -> passwordEncoder.encode("ocupa-fila")));
+        try {
+            awaitSaturation();
+
+            assertThrows(ServiceUnavailableException.class, () -> passwordEncoder.matches("123456", "hash"));
+
+            HttpResponse<String> newPassword = send(HttpRequest.newBuilder(uri("/auth/new-password"))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(
+                            STR."{\"token\":\"\{token}\",\"password\":\"novaSenha123\"}")));
+            assertEquals(503, newPassword.statusCode(), newPassword.body());
+            assertEquals("1", newPassword.headers().firstValue("Retry-After").orElseThrow());
+
+            HttpResponse<String> login = login("miria@gmail.com");
+            assertEquals(503, login.statusCode(), login.body());
+            assertEquals("1", login.headers().firstValue("Retry-After").orElseThrow());
+            assertEquals("temporarily_unavailable", objectMapper.readTree(login.body()).get("error").asText());
+
+            assertEquals(rejectedBefore + 3, passwordEncoder.stats().rejected());
+        } finally {
+            GatedEncoder.open();
+        }
+        for (CompletableFuture<String> future : occupying) {
+            assertTrue(future.get(30, TimeUnit.SECONDS).startsWith("$2a$"));
+        }
+    }
+
+    @Test
+    void wrongClientSecretShouldStayUnauthorized() throws Exception {
+        String credentials = Base64.getEncoder()
+                .encodeToString(STR."\{clientId}:errada".getBytes(StandardCharsets.UTF_8));
+        HttpResponse<String> login = send(HttpRequest.newBuilder(uri("/oauth2/token"))
+                .header("Authorization", "Basic " + credentials)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("grant_type=password&username=miria%40gmail.com&password=123456")));
+
+        assertEquals(401, login.statusCode(), login.body());
+        assertEquals("invalid_client", objectMapper.readTree(login.body()).get("error").asText());
+    }
+
+    @Test
+    void encodeAllShouldKeepTheInputOrder() {
+        var encoder = new PasswordHashingService(new RandomDelayEncoder(), 4, 4, new SimpleMeterRegistry());
+        try {
+            List<String> raw = IntStream.range(0, 25).mapToObj(i -> "senha-" + i).toList();
+
+            assertEquals(raw.stream().map(password -> "hash:" + password).toList(), encoder.encodeAll(raw));
+        } finally {
+            encoder.shutdown();
+        }
+    }
+
+    @Test
+    void loginShouldPersistTheUpgradedHash() throws Exception {
+        String before = userRepository.findByEmail("carlos@gmail.com").getPassword();
+        assertTrue(before.startsWith("$2a$10$"));
+
+        HttpResponse<String> login = login("carlos@gmail.com");
+        assertEquals(200, login.statusCode(), login.body());
+
+        String after = userRepository.findByEmail("carlos@gmail.com").getPassword();
+        assertTrue(after.startsWith(STR."$2a$\{STRENGTH}$"), after);
+        assertTrue(passwordEncoder.matches("123456", after));
+
+        // Com o hash atualizado o login seguinte não regrava
+        assertEquals(200, login("carlos@gmail.com").statusCode());
+        assertEquals(after, userRepository.findByEmail("carlos@gmail.com").getPassword());
+    }
+
+    // Thread do pool presa na trava e uma tarefa na fila
+    private void awaitSaturation() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (passwordEncoder.stats().active() < 1 || passwordEncoder.stats().queued() < 1) {
+            assertTrue(System.nanoTime() < deadline, "pool não saturou");
+            Thread.sleep(10);
+        }
+    }
+
+    private HttpResponse<String> login(String username) throws Exception {
+        String credentials = Base64.getEncoder()
+                .encodeToString(STR."\{clientId}:\{clientSecret}".getBytes(StandardCharsets.UTF_8));
+        return send(HttpRequest.newBuilder(uri("/oauth2/token"))
+                .header("Authorization", "Basic " + credentials)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        STR."grant_type=password&username=\{username.replace("@", "%40")}&password=123456")));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create(STR."http://localhost:\{port}\{path}");
+    }
+
+    // Segura o BCrypt enquanto a trava estiver fechada
+    static class GatedEncoder implements PasswordEncoder {
+
+        private static volatile CountDownLatch gate = new CountDownLatch(0);
+
+        private final PasswordEncoder delegate;
+
+        GatedEncoder(PasswordEncoder delegate) {
+            this.delegate = delegate;
+        }
+
+        static void close() {
+            gate = new CountDownLatch(1);
+        }
+
+        static void open() {
+            gate.countDown();
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            await();
+            return delegate.encode(rawPassword);
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            await();
+            return delegate.matches(rawPassword, encodedPassword);
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            return delegate.upgradeEncoding(encodedPassword);
+        }
+
+        private static void await() {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    // Tempos diferentes por senha, para os hashes terminarem fora de ordem
+    static class RandomDelayEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            try {
+                Thread.sleep(ThreadLocalRandom.current().nextInt(1, 15));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hash:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
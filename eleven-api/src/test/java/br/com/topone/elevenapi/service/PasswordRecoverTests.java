@@ -0,0 +1,119 @@
+package br.com.topone.elevenapi.service;
+
+import br.com.topone.elevenapi.StatementCounter;
+import br.com.topone.elevenapi.entities.PasswordRecover;
+import br.com.topone.elevenapi.records.NewPasswordRecord;
+import br.com.topone.elevenapi.repositories.PasswordRecoverRepository;
+import br.com.topone.elevenapi.repositories.UserRepository;
+import br.com.topone.elevenapi.service.exceptions.ResourceNotFoundException;
+import br.com.topone.elevenapi.util.DigestUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tokens de definição/recuperação de senha: só o hash é gravado, o uso é único e os expirados são
+ * removidos em lotes. O purger grava em transações próprias, por isso o teste usa um banco só seu.
+ */
+@SpringBootTest(properties = {StatementCounter.PROPERTY, "spring.datasource.url=jdbc:h2:mem:recoverdb",
+        "email.password-recover.purge.chunk-size=3"})
+class PasswordRecoverTests {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private PasswordRecoverPurger purger;
+
+    @Autowired
+    private PasswordRecoverRepository repository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void issuedTokenShouldBeFoundOnlyByItsHashWhileValid() {
+        String token = authService.issuePasswordToken("rebekah@gmail.com", Duration.ofMinutes(30));
+
+        PasswordRecover stored = repository.searchValidToken(DigestUtil.sha256Hex(token), Instant.now()).orElseThrow();
+        assertEquals("rebekah@gmail.com", stored.getEmail());
+        assertNotEquals(token, stored.getTokenHash());
+        assertTrue(repository.searchValidToken(token, Instant.now()).isEmpty());
+        assertTrue(repository.searchValidToken(DigestUtil.sha256Hex(token), Instant.now().plus(Duration.ofMinutes(31)))
+                .isEmpty());
+    }
+
+    @Test
+    void newPasswordShouldConsumeEveryPendingTokenOfTheEmail() {
+        String first = authService.issuePasswordToken("miria@gmail.com", Duration.ofMinutes(30));
+        String second = authService.issuePasswordToken("miria@gmail.com", Duration.ofMinutes(30));
+
+        authService.saveNewPassword(new NewPasswordRecord(first, "NovaSenha2024"));
+
+        assertTrue(passwordEncoder.matches("NovaSenha2024", userRepository.findByEmail("miria@gmail.com").getPassword()));
+        assertThrows(ResourceNotFoundException.class,
+                () -> authService.saveNewPassword(new NewPasswordRecord(first, "OutraSenha2024")));
+        assertThrows(ResourceNotFoundException.class,
+                () -> authService.saveNewPassword(new NewPasswordRecord(second, "OutraSenha2024")));
+        assertTrue(passwordEncoder.matches("NovaSenha2024", userRepository.findByEmail("miria@gmail.com").getPassword()));
+    }
+
+    @Test
+    void expiredTokensShouldBePurgedInBoundedChunks() {
+        // 7 expirados e 2 ainda válidos
+        saveTokens("julio@gmail.com", 7, 2);
+
+        StatementCounter.reset();
+        assertEquals(7, purger.purgeExpired());
+
+        // Lotes de 3: 3 + 3 + 1, cada um com uma consulta de ids e um delete
+        assertEquals(3, StatementCounter.count("delete from tb_password_recover"));
+        assertEquals(3, StatementCounter.count("select"));
+        assertEquals(2, repository.findAll().stream().filter(token -> token.getEmail().equals("julio@gmail.com")).count());
+        assertEquals(0, purger.purgeExpired());
+    }
+
+    // Lotes acima de 127 não cabem no cache de Integer: o laço não pode depender de comparar referências
+    @Test
+    void purgeShouldKeepGoingWithChunksLargerThanTheIntegerCache() {
+        saveTokens("carlos@gmail.com", 450, 0);
+        var largeChunks = new PasswordRecoverPurger(repository, transactionManager, 200);
+
+        StatementCounter.reset();
+        assertEquals(450, largeChunks.purgeExpired());
+
+        // 200 + 200 + 50
+        assertEquals(3, StatementCounter.count("delete from tb_password_recover"));
+        assertTrue(repository.findAll().stream().noneMatch(token -> token.getEmail().equals("carlos@gmail.com")));
+    }
+
+    private void saveTokens(String email, int expired, int valid) {
+        List<PasswordRecover> tokens = new ArrayList<>();
+        for (int i = 0; i < expired + valid; i++) {
+            var entity = new PasswordRecover();
+            entity.setEmail(email);
+            entity.setTokenHash(DigestUtil.sha256Hex(STR."\{email}-token-\{i}"));
+            entity.setExpiration(Instant.now().plus(Duration.ofMinutes(i < expired ? -1 : 30)));
+            tokens.add(entity);
+        }
+        repository.saveAll(tokens);
+    }
+}
@@ -0,0 +1,121 @@
+package br.com.topone.elevenapi.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pool contra um servidor SMTP embutido (GreenMail): entrega de lotes concorrentes reaproveitando
+ * as conexões. Quantidade ajustável com {@code -Dsmtp.messages}.
+ */
+class SmtpTransportPoolTests {
+
+    private static final int MESSAGES = Integer.getInteger("smtp.messages", 100);
+    private static final int MAX_CONNECTIONS = 4;
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private JavaMailSenderImpl mailSender;
+    private SmtpTransportPool pool;
+
+    @BeforeEach
+    void setUp() {
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        pool = new SmtpTransportPool(mailSender, MAX_CONNECTIONS, 5000, 60, 0, 100, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void pooledBatchesShouldReuseConnectionsAndDeliverEveryMessage() throws Exception {
+        List<Future<Map<MimeMessage, MessagingException>>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(MAX_CONNECTIONS * 2)) {
+            for (int batch = 0; batch < MESSAGES; batch += 50) {
+                List<MimeMessage> messages = new ArrayList<>();
+                for (int i = batch; i < Math.min(batch + 50, MESSAGES); i++) {
+                    messages.add(message(i));
+                }
+                results.add(executor.submit(() -> pool.sendBatch(messages)));
+            }
+        }
+
+        for (Future<Map<MimeMessage, MessagingException>> result : results) {
+            assertTrue(result.get().isEmpty());
+        }
+        assertTrue(greenMail.waitForIncomingEmail(10_000, MESSAGES));
+
+        // Sem o pool seria uma conexão por mensagem
+        assertTrue(pool.stats().connectionsOpened() <= MAX_CONNECTIONS * (MESSAGES / 100 + 1));
+        assertEquals(MESSAGES, pool.stats().messagesSent());
+    }
+
+    @Test
+    void brokenIdleConnectionShouldBeReplaced() throws Exception {
+        pool.send(message(1));
+        greenMail.stop();
+        greenMail.start();
+
+        pool.send(message(2));
+
+        assertTrue(greenMail.waitForIncomingEmail(5_000, 1));
+        assertEquals(2, pool.stats().connectionsOpened());
+    }
+
+    @Test
+    void failedReconnectMidBatchShouldFailOnlyTheRemainingMessages() throws Exception {
+        // Só a primeira conexão vai para o GreenMail; as seguintes apontam para uma porta fechada
+        JavaMailSenderImpl flakySender = new JavaMailSenderImpl() {
+            private int connects;
+
+            @Override
+            public int getPort() {
+                return connects++ == 0 ? ServerSetupTest.SMTP.getPort() : 1;
+            }
+        };
+        flakySender.setHost("localhost");
+        SmtpTransportPool smallPool = new SmtpTransportPool(flakySender, 1, 5000, 60, 0, 2, new SimpleMeterRegistry());
+        List<MimeMessage> messages = List.of(message(1), message(2), message(3));
+
+        Map<MimeMessage, MessagingException> failures = smallPool.sendBatch(messages);
+        smallPool.shutdown();
+
+        assertEquals(List.of(messages.get(2)), new ArrayList<>(failures.keySet()));
+        assertTrue(greenMail.waitForIncomingEmail(5_000, 2));
+        assertEquals(2, greenMail.getReceivedMessages().length);
+        assertEquals(1, smallPool.stats().availablePermits());
+    }
+
+    private MimeMessage message(int index) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        message.setFrom(new InternetAddress("contato@toponesystem.com.br"));
+        message.setRecipients(Message.RecipientType.TO, InternetAddress.parse("user" + index + "@example.com"));
+        message.setSubject("Mensagem " + index);
+        message.setText("<p>Olá</p>", "UTF-8", "html");
+        return message;
+    }
+}
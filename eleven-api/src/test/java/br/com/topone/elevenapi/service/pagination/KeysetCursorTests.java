@@ -0,0 +1,73 @@
+package br.com.topone.elevenapi.service.pagination;
+
+import br.com.topone.elevenapi.service.exceptions.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeysetCursorTests {
+
+    @Test
+    void cursorShouldRoundTripKeysWithSeparatorsAndAccents() {
+        var cursor = new KeysetCursor("name", "João: da Silva/Souza", 42);
+
+        String token = cursor.encode();
+
+        assertEquals(cursor, KeysetCursor.decode(token, "name"));
+        // Base64 URL-safe sem padding: vai na query string sem escape
+        assertEquals(token, token.replaceAll("[^A-Za-z0-9_-]", ""));
+    }
+
+    @Test
+    void cursorWithoutKeyShouldRoundTripAsEmptyKey() {
+        assertEquals(new KeysetCursor("id", "", 7), KeysetCursor.decode(new KeysetCursor("id", null, 7).encode(), "id"));
+    }
+
+    @Test
+    void missingCursorShouldMeanTheFirstPage() {
+        assertNull(KeysetCursor.decode(null, "id"));
+        assertNull(KeysetCursor.decode(" ", "id"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"não-é-base64!", "1:id:7", "2:id:7:", "1:id:sete:", "1:id", "1:id:99999999999999999999:"})
+    void tamperedCursorShouldBeRejected(String raw) {
+        String token = raw.startsWith("não") ? raw
+                : Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+
+        var e = assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode(token, "id"));
+        assertEquals("Cursor inválido", e.getMessage());
+    }
+
+    @Test
+    void cursorShouldOnlyBeAcceptedForTheSortItWasIssuedFor() {
+        String token = new KeysetCursor("name", "Ana", 1).encode();
+
+        var e = assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode(token, "id"));
+        assertEquals("Cursor gerado para outra ordenação", e.getMessage());
+    }
+
+    @Test
+    void sortAndSizeShouldBeValidated() {
+        assertEquals("name", KeysetCursor.requireSort("name", Set.of("id", "name")));
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.requireSort("email", Set.of("id", "name")));
+        assertEquals(1, KeysetCursor.clampSize(0));
+        assertEquals(100, KeysetCursor.clampSize(1000));
+    }
+
+    @Test
+    void countModeShouldDefaultToNoneAndRejectUnknownValues() {
+        assertEquals(CountMode.NONE, CountMode.from(null));
+        assertEquals(CountMode.ESTIMATE, CountMode.from(" Estimate "));
+        assertEquals(CountMode.EXACT, CountMode.from("exact"));
+        assertThrows(InvalidCursorException.class, () -> CountMode.from("approx"));
+    }
+}
@@ -0,0 +1,138 @@
+package br.com.topone.elevenapi.service.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UserSearchIndexTests {
+
+    private UserSearchIndex index;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        index = new UserSearchIndex("");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        index.close();
+    }
+
+    @Test
+    void accentsAndCaseShouldBeIgnoredOnBothSides() {
+        index.index(document(1L, "Miriã Conceição", null, List.of("Marília")));
+
+        assertEquals(List.of(1L), search("miria"));
+        assertEquals(List.of(1L), search("CONCEICAO marilia"));
+        assertEquals(List.of(1L), search("Miriâ"));
+    }
+
+    @Test
+    void termsShouldMatchByPrefixIncludingFormattedDigits() {
+        index.index(List.of(
+                document(1L, "Julio Cesar", "123.456.789-09", List.of()),
+                document(2L, "Juliana Prado", "987.654.321-00", List.of())));
+
+        assertEquals(List.of(1L, 2L), search("jul"));
+        assertEquals(List.of(1L), search("julio"));
+        assertEquals(List.of(1L), search("123456"));
+        assertEquals(List.of(2L), search("jul 987.654"));
+        assertEquals(List.of(), search("julio prado"));
+    }
+
+    @Test
+    void wholeTermsAndNameMatchesShouldRankFirst() {
+        index.index(List.of(
+                document(1L, "Carlos Silva", null, List.of(), "Ana Silva"),
+                document(2L, "Anabela Costa", null, List.of()),
+                document(3L, "Ana Paula", null, List.of())));
+
+        // Termo completo no nome, termo completo em outro campo (nome da mãe), só prefixo no nome
+        assertEquals(List.of(3L, 1L, 2L), search("ana"));
+        assertEquals(List.of(2L), search("anab"));
+    }
+
+    @Test
+    void writesShouldBeVisibleWithoutACommit() {
+        index.index(document(1L, "Pedro Alves", null, List.of()));
+        assertEquals(List.of(1L), search("pedro"));
+
+        index.index(document(1L, "Paulo Alves", null, List.of()));
+        assertEquals(List.of(), search("pedro"));
+        assertEquals(List.of(1L), search("paulo"));
+
+        index.delete(1L);
+        assertEquals(List.of(), search("alves"));
+    }
+
+    @Test
+    void rebuildShouldReplaceTheIndexFromASinglePassSource() {
+        index.index(document(9L, "Removido Depois", null, List.of()));
+
+        Stream<UserSearchDocument> documents = Stream.of(
+                document(1L, "Bruna Lima", null, List.of()),
+                document(2L, "Bruno Lima", null, List.of()));
+        index.rebuild(documents::iterator);
+
+        assertEquals(List.of(), search("removido"));
+        assertEquals(List.of(1L, 2L), search("lima"));
+    }
+
+    @Test
+    void writesDuringARebuildShouldKeepTheirVersionAndStayHiddenUntilItEnds() {
+        index.index(List.of(
+                document(1L, "Bruna Lima", null, List.of()),
+                document(9L, "Removido Depois", null, List.of())));
+
+        // A reconstrução lê versões antigas; enquanto ela roda, a aplicação grava o 2 e o 4 e remove o 3
+        Iterator<UserSearchDocument> source = List.of(
+                document(1L, "Bruna Lima", null, List.of()),
+                document(2L, "Bruno Lima", null, List.of()),
+                document(3L, "Carla Lima", null, List.of())).iterator();
+        Iterable<UserSearchDocument> documents = () -> new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return source.hasNext();
+            }
+
+            @Override
+            public UserSearchDocument next() {
+                UserSearchDocument document = source.next();
+                if (document.id() == 2L) {
+                    index.index(document(2L, "Bruno Souza", null, List.of()));
+                    index.index(document(4L, "Diego Lima", null, List.of()));
+                    index.delete(3L);
+                    assertEquals(List.of(1L), search("lima"));
+                    assertEquals(List.of(9L), search("removido"));
+                }
+                return document;
+            }
+        };
+        index.rebuild(documents);
+
+        assertEquals(List.of(1L, 4L), search("lima"));
+        assertEquals(List.of(2L), search("bruno"));
+        assertEquals(List.of(), search("carla"));
+        assertEquals(List.of(), search("removido"));
+    }
+
+    private List<Long> search(String text) {
+        return index.search(text, PageRequest.of(0, 20)).getContent();
+    }
+
+    private static UserSearchDocument document(Long id, String name, String cpf, List<String> cities) {
+        return document(id, name, cpf, cities, null);
+    }
+
+    private static UserSearchDocument document(Long id, String name, String cpf, List<String> cities, String motherName) {
+        return new UserSearchDocument(id, name, STR."usuario\{id}@gmail.com", cpf, null, motherName, null, cities);
+    }
+}
@@ -0,0 +1,99 @@
+package br.com.topone.elevenapi.service.usuario;
+
+import br.com.topone.elevenapi.StatementCounter;
+import br.com.topone.elevenapi.dtos.user.UserInsertDTO;
+import br.com.topone.elevenapi.records.EmailRecord;
+import br.com.topone.elevenapi.service.AuthService;
+import br.com.topone.elevenapi.service.exceptions.DatabaseException;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Transactional
+@SpringBootTest(properties = StatementCounter.PROPERTY)
+class EmailIndexTests {
+
+    @Autowired
+    private EmailIndex emailIndex;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void filterShouldNeverMissAnInsertedEmailAndStayNearTheTargetRate() {
+        int emails = 100_000;
+        var filter = new EmailBloomFilter(emails, 0.01);
+        for (int i = 0; i < emails; i++) {
+            filter.put(STR."usuario\{i}@empresa.com.br");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < emails; i++) {
+            assertTrue(filter.mightContain(STR."usuario\{i}@empresa.com.br"));
+            if (filter.mightContain(STR."outro\{i}@empresa.com.br")) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < emails * 0.02, STR."\{falsePositives} falsos positivos em \{emails}");
+    }
+
+    @Test
+    void freeEmailShouldBeAnsweredWithoutQueryingTheDatabase() {
+        StatementCounter.reset();
+
+        assertFalse(emailIndex.exists("ninguem.cadastrado@gmail.com"));
+        assertFalse(emailIndex.mightExist("Ninguem.Cadastrado@gmail.com"));
+        assertEquals(0, StatementCounter.count());
+    }
+
+    @Test
+    void existingEmailShouldBeConfirmedWithLeanQueries() {
+        StatementCounter.reset();
+
+        assertTrue(emailIndex.exists("julio@gmail.com"));
+        assertTrue(emailIndex.exists("Julio@Gmail.com"));
+        assertEquals(2, StatementCounter.count());
+        assertEquals(0, StatementCounter.count("tb_user_role"));
+    }
+
+    @Test
+    void addedEmailShouldReachTheDatabaseCheckBeforeTheNextRebuild() {
+        assertFalse(emailIndex.mightExist("recem.cadastrado@gmail.com"));
+
+        emailIndex.add("Recem.Cadastrado@gmail.com");
+
+        assertTrue(emailIndex.mightExist("recem.cadastrado@gmail.com"));
+    }
+
+    // Cadastrado por outra instância: ainda fora do filtro até a próxima reconstrução
+    @Test
+    void emailMissingFromTheFilterShouldStillBeFoundAndRejectedByTheDatabase() {
+        entityManager.createNativeQuery("""
+                INSERT INTO tb_user (id, name, email, password, active, created_at, updated_at)
+                VALUES (900001, 'Outra Instância', 'outra.instancia@gmail.com', 'x', TRUE, NOW(), NOW())
+                """).executeUpdate();
+        assertFalse(emailIndex.mightExist("outra.instancia@gmail.com"));
+
+        assertDoesNotThrow(() -> authService.createRecoveryToken(new EmailRecord("outra.instancia@gmail.com")));
+
+        var dto = new UserInsertDTO();
+        dto.setName("Outra Instância");
+        dto.setEmail("outra.instancia@gmail.com");
+        dto.setPassword("12345678");
+        assertThrows(DatabaseException.class, () -> userService.insert(dto));
+    }
+}
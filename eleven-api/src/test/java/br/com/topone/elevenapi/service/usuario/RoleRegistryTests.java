@@ -0,0 +1,64 @@
+package br.com.topone.elevenapi.service.usuario;
+
+import br.com.topone.elevenapi.StatementCounter;
+import br.com.topone.elevenapi.dtos.RoleDTO;
+import br.com.topone.elevenapi.dtos.user.UserDTO;
+import br.com.topone.elevenapi.entities.Role;
+import br.com.topone.elevenapi.entities.RoleTable;
+import br.com.topone.elevenapi.entities.User;
+import br.com.topone.elevenapi.repositories.RoleRepository;
+import br.com.topone.elevenapi.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = StatementCounter.PROPERTY)
+class RoleRegistryTests {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void loadedUserShouldUseRegistryBits() {
+        User admin = userRepository.findByEmail("julio@gmail.com");
+        User operator = userRepository.findByEmail("rebekah@gmail.com");
+
+        assertTrue(admin.hasRole("ROLE_ADMIN"));
+        assertFalse(operator.hasRole("ROLE_ADMIN"));
+        assertTrue(operator.hasRole("ROLE_OPERATOR"));
+
+        // a instância canônica da role é compartilhada entre usuários; o DTO de exibição é imutável
+        User otherOperator = userRepository.findByEmail("carlos@gmail.com");
+        assertSame(RoleTable.roles(operator.roleMask()).getFirst(), RoleTable.roles(otherOperator.roleMask()).getFirst());
+        assertEquals(Set.of(new RoleDTO(1L, "OPERADOR")), new UserDTO(otherOperator).getRoles());
+    }
+
+    @Test
+    void roleWritesShouldRefreshRegistryAfterCommit() {
+        Role created = transactionTemplate.execute(status -> roleRepository.save(new Role(null, "ROLE_AUDITOR")));
+        try {
+            long mask = RoleTable.maskOf(List.of(created));
+            assertTrue(RoleTable.hasRole(mask, "ROLE_AUDITOR"));
+            assertEquals(List.of("AUDITOR"),
+                    RoleTable.roles(mask).stream().map(role -> new RoleDTO(role).authority()).toList());
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> roleRepository.deleteById(created.getId()));
+        }
+        assertFalse(RoleTable.hasRole(RoleTable.maskOf(List.of(created)), "ROLE_AUDITOR"));
+    }
+}
@@ -0,0 +1,187 @@
+package br.com.topone.elevenapi.service.usuario;
+
+import br.com.topone.elevenapi.StatementCounter;
+import br.com.topone.elevenapi.dtos.user.UserDTO;
+import br.com.topone.elevenapi.entities.Role;
+import br.com.topone.elevenapi.entities.User;
+import br.com.topone.elevenapi.records.CursorPage;
+import br.com.topone.elevenapi.repositories.UserRepository;
+import br.com.topone.elevenapi.service.pagination.CountMode;
+import br.com.topone.elevenapi.service.pagination.RowCountEstimator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Paginação por cursor de {@code /users/cursor}: percurso completo pelas duas ordenações, desempate por id
+ * entre nomes iguais, os modos de contagem e a resposta 400 para cursor adulterado.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = StatementCounter.PROPERTY)
+class UserCursorPaginationTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${security.client-id}")
+    private String clientId;
+
+    @Value("${security.client-secret}")
+    private String clientSecret;
+
+    @Autowired
+    private UserService service;
+
+    @Autowired
+    private UserRepository repository;
+
+    @Autowired
+    private RowCountEstimator rowCountEstimator;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Test
+    @Transactional
+    void nameSortShouldBreakTiesOnIdAcrossPageBoundaries() {
+        List<Long> tied = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            tied.add(newUser("Ana Empate", STR."ana.empate\{i}@gmail.com").getId());
+        }
+
+        List<UserDTO> visited = readAll("name", 2);
+
+        List<Long> expected = repository.findAll(Sort.by("name", "id")).stream().map(User::getId).toList();
+        assertEquals(expected, visited.stream().map(UserDTO::getId).toList());
+        assertEquals(tied, visited.stream().filter(user -> user.getName().equals("Ana Empate")).map(UserDTO::getId).toList());
+    }
+
+    @Test
+    @Transactional
+    void idSortShouldVisitEveryUserOnce() {
+        List<UserDTO> visited = readAll("id", 5);
+
+        List<Long> expected = repository.findAll(Sort.by("id")).stream().map(User::getId).toList();
+        assertEquals(expected, visited.stream().map(UserDTO::getId).toList());
+    }
+
+    @Test
+    @Transactional
+    void countModesShouldControlTheTotal() {
+        long users = repository.count();
+
+        StatementCounter.reset();
+        assertNull(service.findAllByCursor(null, "id", 5, CountMode.NONE).totalElements());
+        assertEquals(0, StatementCounter.count("count("));
+
+        StatementCounter.reset();
+        assertEquals(users, service.findAllByCursor(null, "id", 5, CountMode.EXACT).totalElements());
+        assertEquals(users, service.findAllByCursor(null, "id", 5, CountMode.EXACT).totalElements());
+        assertEquals(2, StatementCounter.count("count("));
+
+        // Fora do PostgreSQL a estimativa é o COUNT(*) exato guardado por alguns segundos
+        AtomicInteger exactCounts = new AtomicInteger();
+        assertEquals(42, rowCountEstimator.count(CountMode.ESTIMATE, "tb_estimativa", () -> exactCounts.incrementAndGet() * 42L));
+        assertEquals(42, rowCountEstimator.count(CountMode.ESTIMATE, "tb_estimativa", () -> exactCounts.incrementAndGet() * 42L));
+        assertEquals(1, exactCounts.get());
+        assertTrue(service.findAllByCursor(null, "id", 5, CountMode.ESTIMATE).totalElements() > 0);
+    }
+
+    @Test
+    void tamperedCursorShouldBeAnsweredWithBadRequest() throws Exception {
+        String accessToken = login();
+
+        HttpResponse<String> first = get("/users/cursor?size=2", accessToken);
+        assertEquals(200, first.statusCode());
+        String nextCursor = objectMapper.readTree(first.body()).get("nextCursor").asText();
+
+        // Id trocado por texto dentro de um Base64 válido
+        String raw = new String(Base64.getUrlDecoder().decode(nextCursor), StandardCharsets.UTF_8);
+        String tampered = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.replaceFirst(":\\d+:", ":x:").getBytes(StandardCharsets.UTF_8));
+        for (String cursor : List.of(tampered, "lixo!", new StringBuilder(nextCursor).reverse().toString())) {
+            HttpResponse<String> response = get(STR."/users/cursor?size=2&cursor=\{cursor}", accessToken);
+            assertEquals(400, response.statusCode(), cursor);
+            assertEquals("Invalid pagination parameter", objectMapper.readTree(response.body()).get("error").asText());
+        }
+
+        // Cursor de uma ordenação usado em outra
+        HttpResponse<String> wrongSort = get(STR."/users/cursor?size=2&sort=name&cursor=\{nextCursor}", accessToken);
+        assertEquals(400, wrongSort.statusCode());
+        assertEquals(400, get("/users/cursor?count=aproximado", accessToken).statusCode());
+    }
+
+    private List<UserDTO> readAll(String sort, int size) {
+        List<UserDTO> visited = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<UserDTO> page = service.findAllByCursor(cursor, sort, size, CountMode.NONE);
+            assertTrue(page.content().size() <= size);
+            visited.addAll(page.content());
+            assertEquals(page.hasNext(), page.nextCursor() != null);
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        assertFalse(visited.isEmpty());
+        return visited;
+    }
+
+    private User newUser(String name, String email) {
+        var user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        user.setPassword("x");
+        user.setActive(true);
+        user.addRole(entityManager.getReference(Role.class, 1L));
+        entityManager.persist(user);
+        entityManager.flush();
+        return user;
+    }
+
+    private String login() throws Exception {
+        String credentials = Base64.getEncoder()
+                .encodeToString(STR."\{clientId}:\{clientSecret}".getBytes(StandardCharsets.UTF_8));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(STR."http://localhost:\{port}/oauth2/token"))
+                .header("Authorization", "Basic " + credentials)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("grant_type=password&username=julio%40gmail.com&password=123456"))
+                .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), response.body());
+        JsonNode body = objectMapper.readTree(response.body());
+        return body.get("access_token").asText();
+    }
+
+    private HttpResponse<String> get(String path, String accessToken) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(STR."http://localhost:\{port}\{path}"))
+                .header("Authorization", STR."Bearer \{accessToken}")
+                .GET()
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,139 @@
+package br.com.topone.elevenapi.service.usuario;
+
+import br.com.topone.elevenapi.StatementCounter;
+import br.com.topone.elevenapi.dtos.RoleDTO;
+import br.com.topone.elevenapi.dtos.user.UserUpdateDTO;
+import br.com.topone.elevenapi.entities.User;
+import br.com.topone.elevenapi.projections.UserDetailsProjection;
+import br.com.topone.elevenapi.records.NewPasswordRecord;
+import br.com.topone.elevenapi.repositories.UserRepository;
+import br.com.topone.elevenapi.service.AuthService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cache das credenciais do login: acerto sem SQL, expiração pelo TTL e invalidação só após o commit.
+ * Os testes gravam e removem usuários, por isso usam um banco só deles.
+ */
+@SpringBootTest(properties = {StatementCounter.PROPERTY, "spring.datasource.url=jdbc:h2:mem:usercachedb"})
+class UserDetailsCacheTests {
+
+    @Autowired
+    private UserDetailsCache cache;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository repository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        cache.invalidateAll();
+    }
+
+    @Test
+    void cachedUserShouldBeServedWithoutSql() {
+        userService.loadUserByUsername("rebekah@gmail.com");
+
+        StatementCounter.reset();
+        var user = (User) userService.loadUserByUsername("rebekah@gmail.com");
+
+        assertEquals(0, StatementCounter.count());
+        assertEquals(1L, user.getId());
+        assertTrue(user.hasRole("ROLE_OPERATOR"));
+    }
+
+    @Test
+    void entryShouldExpireAfterTheTtl() {
+        var now = new AtomicLong();
+        var expiring = new UserDetailsCache(10, 60, now::get);
+        var loads = new AtomicInteger();
+        Function<String, List<UserDetailsProjection>> loader = email -> {
+            loads.incrementAndGet();
+            return repository.searchUserAndRolesByEmail(email);
+        };
+
+        expiring.get("rebekah@gmail.com", loader);
+        now.addAndGet(Duration.ofSeconds(59).toNanos());
+        expiring.get("rebekah@gmail.com", loader);
+        assertEquals(1, loads.get());
+
+        now.addAndGet(Duration.ofSeconds(2).toNanos());
+        expiring.get("rebekah@gmail.com", loader);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void updateShouldInvalidateOnlyAfterCommit() {
+        assertInvalidatedOnlyAfterCommit("lucas@gmail.com", () -> {
+            var dto = new UserUpdateDTO();
+            dto.setName("Lucas Oliveira");
+            dto.setEmail("lucas@gmail.com");
+            dto.setActive(false);
+            dto.getRoles().add(new RoleDTO(1L, "ROLE_OPERATOR"));
+            userService.update(7L, dto);
+        });
+    }
+
+    @Test
+    void deleteShouldInvalidateOnlyAfterCommit() {
+        assertInvalidatedOnlyAfterCommit("ana@gmail.com", () -> userService.delete(6L));
+    }
+
+    @Test
+    void newPasswordShouldInvalidateOnlyAfterCommit() {
+        assertInvalidatedOnlyAfterCommit("fernanda@gmail.com", () -> {
+            String token = authService.issuePasswordToken("fernanda@gmail.com", Duration.ofMinutes(30));
+            authService.saveNewPassword(new NewPasswordRecord(token, "novaSenha123"));
+        });
+    }
+
+    // Roda a operação numa transação desfeita (a entrada continua) e depois numa confirmada (a entrada sai)
+    private void assertInvalidatedOnlyAfterCommit(String email, Runnable operation) {
+        cache.get(email, repository::searchUserAndRolesByEmail);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            operation.run();
+            assertTrue(isCached(email));
+            status.setRollbackOnly();
+        });
+        assertTrue(isCached(email));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            operation.run();
+            assertTrue(isCached(email));
+        });
+        assertFalse(isCached(email));
+    }
+
+    // Loader vazio: o resultado não é armazenado, então a consulta não altera o cache
+    private boolean isCached(String email) {
+        var loaded = new AtomicBoolean();
+        cache.get(email, key -> {
+            loaded.set(true);
+            return List.of();
+        });
+        return !loaded.get();
+    }
+}
@@ -0,0 +1,74 @@
+package br.com.topone.elevenapi.service.usuario;
+
+import br.com.topone.elevenapi.service.exceptions.InvalidImportException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UserImportReaderTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void csvShouldMapColumnsByHeaderAndKeepLineNumbers() throws IOException {
+        List<UserImportReader.Row> rows = readAll(UserImportReader.Format.CSV, """
+                \uFEFFEmail,Name,Password,Roles,Active
+                ana@gmail.com,ana,12345678,,
+                
+                bruno@gmail.com,"Silva, Bruno",12345678,ROLE_ADMIN|ROLE_OPERATOR,false
+                """);
+
+        assertEquals(2, rows.size());
+        assertEquals(2, rows.get(0).line());
+        assertEquals("ana", rows.get(0).name());
+        assertEquals(List.of(), rows.get(0).roles());
+        assertEquals(4, rows.get(1).line());
+        assertEquals("Silva, Bruno", rows.get(1).name());
+        assertEquals(List.of("ROLE_ADMIN", "ROLE_OPERATOR"), rows.get(1).roles());
+        assertFalse(rows.get(1).active());
+    }
+
+    @Test
+    void csvWithoutRequiredColumnShouldBeRejected() {
+        assertThrows(InvalidImportException.class,
+                () -> readAll(UserImportReader.Format.CSV, "name,password\nana,12345678\n"));
+    }
+
+    @Test
+    void invalidJsonLineShouldBecomeRowErrorWithoutStoppingTheFile() throws IOException {
+        List<UserImportReader.Row> rows = readAll(UserImportReader.Format.NDJSON, """
+                {"name":"ana","email":"ana@gmail.com","password":"12345678","roles":["ROLE_ADMIN"]}
+                {quebrado
+                {"name":"bruno","email":"bruno@gmail.com","password":"12345678"}
+                """);
+
+        assertEquals(3, rows.size());
+        assertNull(rows.get(0).error());
+        assertEquals(List.of("ROLE_ADMIN"), rows.get(0).roles());
+        assertNotNull(rows.get(1).error());
+        assertEquals(3, rows.get(2).line());
+    }
+
+    private List<UserImportReader.Row> readAll(UserImportReader.Format format, String content) throws IOException {
+        List<UserImportReader.Row> rows = new ArrayList<>();
+        try (var reader = new UserImportReader(
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), format, objectMapper)) {
+            UserImportReader.Row row;
+            while ((row = reader.next()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
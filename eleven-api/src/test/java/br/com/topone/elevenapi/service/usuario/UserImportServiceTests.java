@@ -0,0 +1,143 @@
+package br.com.topone.elevenapi.service.usuario;
+
+import br.com.topone.elevenapi.StatementCounter;
+import br.com.topone.elevenapi.entities.EmailOutbox;
+import br.com.topone.elevenapi.records.UserImportErrorRecord;
+import br.com.topone.elevenapi.records.UserImportResultRecord;
+import br.com.topone.elevenapi.repositories.EmailOutboxRepository;
+import br.com.topone.elevenapi.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A importação grava em transações próprias, por isso o teste usa um banco só seu e emails distintos por caso.
+ */
+@SpringBootTest(properties = {StatementCounter.PROPERTY, "spring.datasource.url=jdbc:h2:mem:importdb"})
+class UserImportServiceTests {
+
+    @Autowired
+    private UserImportService importService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private EmailIndex emailIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void invalidRowsShouldBeReportedWithLineAndReasonWithoutStoppingTheImport() {
+        UserImportResultRecord result = importCsv("""
+                email,name,password,roles
+                linha.ok@gmail.com,linha ok,12345678,
+                ,sem email,12345678,
+                senha.curta@gmail.com,senha curta,123,
+                papel@gmail.com,papel desconhecido,12345678,ROLE_CHEFE
+                Linha.OK@gmail.com,repetida,12345678,
+                julio@gmail.com,julio de novo,12345678,
+                outra.linha@gmail.com,outra linha,12345678,ROLE_ADMIN|ROLE_OPERATOR
+                """, false);
+
+        assertEquals(7, result.total());
+        assertEquals(2, result.imported());
+        assertEquals(5, result.failed());
+        assertFalse(result.errorsTruncated());
+
+        Map<Long, String> errors = result.errors().stream()
+                .collect(Collectors.toMap(UserImportErrorRecord::line, UserImportErrorRecord::message));
+        assertEquals(List.of(3L, 4L, 5L, 6L, 7L), errors.keySet().stream().sorted().toList());
+        assertEquals("A senha deve ter no mínimo 8 caracteres", errors.get(4L));
+        assertEquals("Role desconhecida: [ROLE_CHEFE]", errors.get(5L));
+        assertEquals("Email repetido no arquivo", errors.get(6L));
+        assertEquals("Já existe um usuário com este email", errors.get(7L));
+
+        assertTrue(userRepository.findIdByEmail("linha.ok@gmail.com").isPresent());
+        assertTrue(userRepository.findIdByEmail("outra.linha@gmail.com").isPresent());
+        assertEquals("Julio Coutinho", jdbcTemplate.queryForObject(
+                "SELECT name FROM tb_user WHERE email = 'julio@gmail.com'", String.class));
+    }
+
+    @Test
+    void validRowsShouldBeInsertedInOneJdbcBatchPerTable() {
+        StringBuilder csv = new StringBuilder("email,name,password\n");
+        for (int i = 0; i < 20; i++) {
+            csv.append(STR."lote\{i}@gmail.com,usuario do lote \{i},12345678\n");
+        }
+        csv.append("julio@gmail.com,julio,12345678\n");
+
+        StatementCounter.reset();
+        UserImportResultRecord result = importCsv(csv.toString(), false);
+
+        assertEquals(20, result.imported());
+        assertEquals(1, result.failed());
+        // Uma única consulta IN para os emails que o índice não descartou
+        assertEquals(1, StatementCounter.count("where u1_0.email in"));
+        assertEquals(1, StatementCounter.count("insert into tb_user "));
+        assertEquals(1, StatementCounter.count("insert into tb_user_role"));
+        assertEquals(20, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tb_user WHERE email LIKE 'lote%@gmail.com'", Integer.class));
+    }
+
+    @Test
+    void batchRejectedByTheDatabaseShouldFallBackToRowByRowInserts() {
+        // Cadastrado fora da aplicação: o índice não o conhece, então só a constraint única do banco o recusa
+        jdbcTemplate.update("""
+                INSERT INTO tb_user (id, name, email, password, active, created_at, updated_at)
+                VALUES (9000, 'Fora do Indice', 'fora.do.indice@gmail.com', 'x', 1, NOW(), NOW())
+                """);
+        assertFalse(emailIndex.mightExist("fora.do.indice@gmail.com"));
+
+        UserImportResultRecord result = importCsv("""
+                email,name,password
+                antes@gmail.com,antes,12345678
+                fora.do.indice@gmail.com,conflito,12345678
+                depois@gmail.com,depois,12345678
+                """, false);
+
+        assertEquals(2, result.imported());
+        assertEquals(1, result.failed());
+        assertEquals(new UserImportErrorRecord(3, "fora.do.indice@gmail.com", "Não foi possível gravar o usuário"),
+                result.errors().getFirst());
+        assertTrue(userRepository.findIdByEmail("antes@gmail.com").isPresent());
+        assertTrue(userRepository.findIdByEmail("depois@gmail.com").isPresent());
+        assertEquals("Fora do Indice", jdbcTemplate.queryForObject(
+                "SELECT name FROM tb_user WHERE email = 'fora.do.indice@gmail.com'", String.class));
+    }
+
+    @Test
+    void welcomeEmailShouldBeQueuedWithoutThePassword() {
+        importCsv("""
+                email,name,password
+                boas.vindas@gmail.com,boas vindas,S3nh@Importada
+                """, true);
+
+        Long userId = userRepository.findIdByEmail("boas.vindas@gmail.com").orElseThrow();
+        EmailOutbox queued = emailOutboxRepository.findAll().stream()
+                .filter(email -> email.getRecipient().equals("boas.vindas@gmail.com"))
+                .findFirst().orElseThrow();
+        assertEquals(EmailOutbox.Type.WELCOME, queued.getType());
+        assertEquals(STR."{\"userId\":\{userId}}", queued.getPayload());
+    }
+
+    private UserImportResultRecord importCsv(String csv, boolean sendWelcome) {
+        return importService.importUsers(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                UserImportReader.Format.CSV, sendWelcome);
+    }
+}
@@ -0,0 +1,164 @@
+package br.com.topone.elevenapi.service.usuario;
+
+import br.com.topone.elevenapi.StatementCounter;
+import br.com.topone.elevenapi.dtos.user.UserDTO;
+import br.com.topone.elevenapi.entities.Address;
+import br.com.topone.elevenapi.entities.Role;
+import br.com.topone.elevenapi.entities.User;
+import br.com.topone.elevenapi.entities.UserProfile;
+import br.com.topone.elevenapi.records.AddressRecord;
+import br.com.topone.elevenapi.records.UserProfileRecord;
+import br.com.topone.elevenapi.service.pagination.CountMode;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Cada teste roda numa transação desfeita ao final; os 50 perfis extras não vazam para outros testes
+@Transactional
+@SpringBootTest(properties = StatementCounter.PROPERTY)
+class UserProfileServiceTests {
+
+    private static final int PAGE_SIZE = 50;
+
+    @Autowired
+    private UserProfileService service;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void insertProfiles() {
+        Role operator = entityManager.getReference(Role.class, 1L);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            var user = new User();
+            user.setName(STR."Perfil Teste \{i}");
+            user.setEmail(STR."perfil\{i}@teste.com");
+            user.setPassword("x");
+            user.setActive(true);
+            user.addRole(operator);
+            entityManager.persist(user);
+
+            var profile = new UserProfile();
+            profile.setCpf(String.format("000.000.%03d-%02d", i, i % 100));
+            profile.setUser(user);
+            profile.setAddresses(new HashSet<>());
+            for (int j = 0; j < 2; j++) {
+                var address = new Address(null, "17000-000", STR."Rua \{j}", "Bauru", "1", null, "Centro", "SP");
+                address.setUserProfile(profile);
+                profile.getAddresses().add(address);
+            }
+            entityManager.persist(profile);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    // página, count, roles e endereços em lote: quatro comandos para 50 perfis
+    @Test
+    void pagedReadShouldNotIssueStatementsPerProfile() {
+        StatementCounter.reset();
+        var page = service.findAllPaged(PageRequest.of(0, PAGE_SIZE, Sort.by("id")));
+
+        assertEquals(PAGE_SIZE, page.getNumberOfElements());
+        assertTrue(page.getContent().stream().allMatch(p -> !p.user().getRoles().isEmpty()));
+        assertEquals(4, StatementCounter.count());
+    }
+
+    @Test
+    void cursorReadShouldNotIssueStatementsPerProfile() {
+        StatementCounter.reset();
+        var page = service.findAllByCursor(null, PAGE_SIZE, CountMode.NONE);
+
+        assertEquals(PAGE_SIZE, page.content().size());
+        assertEquals(3, StatementCounter.count());
+    }
+
+    // exists, usuário, insert do perfil e um insert em lote para os endereços, seja 1, 5 ou 20
+    @Test
+    void insertShouldWriteProfileAndAddressesInOneBatchedFlush() {
+        for (int addresses : new int[]{1, 5, 20}) {
+            var user = newUser(STR."Perfil Novo \{addresses}", STR."perfil.novo\{addresses}@teste.com");
+            StatementCounter.reset();
+            var inserted = service.insert(new UserProfileRecord(null, STR."999.888.777-\{addresses}", null, null,
+                    null, null, new UserDTO(user), addressRecords(addresses)));
+            entityManager.flush();
+
+            assertEquals(addresses, inserted.address().size());
+            assertEquals(4, StatementCounter.countWithoutSequenceCalls(), STR."\{addresses} endereços");
+            assertEquals(1, StatementCounter.count("insert into tb_address"));
+        }
+    }
+
+    // mantém um endereço como está, altera outro, remove o terceiro e inclui dois novos
+    @Test
+    void updateShouldOnlyTouchChangedAddresses() {
+        var user = newUser("Perfil Diff", "perfil.diff@teste.com");
+        var created = service.insert(new UserProfileRecord(null, "999.888.777-66", null, null, null, null,
+                new UserDTO(user), addressRecords(3)));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<AddressRecord> current = created.address().stream()
+                .sorted(Comparator.comparing(AddressRecord::id)).toList();
+        AddressRecord unchanged = current.get(0);
+        AddressRecord changed = current.get(1);
+        Set<AddressRecord> addresses = new HashSet<>(addressRecords(2).stream()
+                .map(a -> new AddressRecord(null, a.zipCode(), STR."\{a.street()} (incluída)", a.number(), null,
+                        a.district(), a.city(), a.uf()))
+                .toList());
+        addresses.add(unchanged);
+        addresses.add(new AddressRecord(changed.id(), changed.zipCode(), "Rua Alterada", changed.number(),
+                changed.complement(), changed.district(), changed.city(), changed.uf()));
+
+        StatementCounter.reset();
+        var updated = service.update(created.id(), new UserProfileRecord(created.id(), created.cpf(), null, null,
+                null, null, created.user(), addresses));
+        entityManager.flush();
+
+        assertEquals(1, StatementCounter.count("update tb_address"));
+        assertEquals(1, StatementCounter.count("delete from tb_address"));
+        assertEquals(1, StatementCounter.count("insert into tb_address"));
+
+        entityManager.clear();
+        var reloaded = entityManager.find(UserProfile.class, created.id()).getAddresses();
+        assertEquals(4, updated.address().size());
+        assertEquals(4, reloaded.size());
+        assertTrue(reloaded.stream().anyMatch(a -> a.getId().equals(unchanged.id()) && a.getStreet().equals(unchanged.street())));
+        assertTrue(reloaded.stream().anyMatch(a -> a.getId().equals(changed.id()) && a.getStreet().equals("Rua Alterada")));
+        assertTrue(reloaded.stream().noneMatch(a -> a.getId().equals(current.get(2).id())));
+    }
+
+    private User newUser(String name, String email) {
+        var user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        user.setPassword("x");
+        user.setActive(true);
+        user.addRole(entityManager.getReference(Role.class, 1L));
+        entityManager.persist(user);
+        entityManager.flush();
+        entityManager.clear();
+        return user;
+    }
+
+    private static Set<AddressRecord> addressRecords(int count) {
+        Set<AddressRecord> addresses = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            addresses.add(new AddressRecord(null, "17000-000", STR."Rua Nova \{i}", "1", null, "Centro", "Bauru", "SP"));
+        }
+        return addresses;
+    }
+}
@@ -0,0 +1,132 @@
+package br.com.topone.elevenapi.service.usuario;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exporta dezenas de milhares de usuários para uma saída que descarta os bytes, medindo o heap ocupado
+ * (após GC) ao longo da escrita. Se a exportação acumulasse registros, o heap cresceria junto com o volume
+ * escrito; em streaming ele fica estável.
+ */
+@Transactional
+@SpringBootTest
+class UserWithProfileExportTests {
+
+    private static final int USERS = 50_000;
+    private static final long SAMPLE_EVERY_BYTES = 4L * 1024 * 1024;
+
+    @Autowired
+    private UserWithProfileService service;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    // Usuários que já estavam no banco (import.sql e outros testes), também exportados
+    private long existingUsers;
+
+    @BeforeEach
+    void insertUsers() {
+        existingUsers = ((Number) entityManager.createNativeQuery("SELECT COUNT(*) FROM tb_user")
+                .getSingleResult()).longValue();
+        // Sem LAZY_QUERY_EXECUTION o H2 embarcado monta o resultado inteiro em memória antes de devolver
+        // a primeira linha, e o teste mediria o banco em vez da exportação
+        entityManager.createNativeQuery("SET LAZY_QUERY_EXECUTION TRUE").executeUpdate();
+        entityManager.createNativeQuery("""
+                INSERT INTO tb_user (id, name, email, password, active, created_at, updated_at)
+                SELECT 100000 + X, CONCAT('Usuário Exportado ', X), CONCAT('exportado', X, '@teste.com'),
+                       'x', TRUE, NOW(), NOW()
+                FROM SYSTEM_RANGE(1, :users)
+                """).setParameter("users", USERS).executeUpdate();
+        entityManager.createNativeQuery("""
+                INSERT INTO tb_user_profile (cpf, birth_date, phone, mother_name, father_name, user_id)
+                SELECT LPAD(X, 14, '0'), DATE '1990-01-01', '(14) 99999-9999',
+                       'Mãe do Exportado', 'Pai do Exportado', 100000 + X
+                FROM SYSTEM_RANGE(1, :users)
+                """).setParameter("users", USERS).executeUpdate();
+        entityManager.createNativeQuery("""
+                INSERT INTO tb_address (id, zip_code, street, city, number, complement, district, uf, user_profile_id)
+                SELECT 100000 + X, '12345-678', CONCAT('Rua ', X), 'São Paulo', '100', 'Casa', 'Centro', 'SP',
+                       100000 + (X + 1) / 2
+                FROM SYSTEM_RANGE(1, :addresses)
+                """).setParameter("addresses", USERS * 2).executeUpdate();
+    }
+
+    // A configuração é da sessão do H2: desfaz antes que a conexão volte para o pool e chegue a outros testes
+    @AfterEach
+    void resetLazyQueryExecution() {
+        entityManager.createNativeQuery("SET LAZY_QUERY_EXECUTION FALSE").executeUpdate();
+    }
+
+    @Test
+    void exportShouldKeepHeapFlatWhileWritingEveryUser() throws Exception {
+        var sink = new HeapSamplingOutputStream();
+
+        long exported = service.exportUsersWithProfiles(sink, UserExportWriter.Format.NDJSON);
+
+        assertEquals(USERS, exported - existingUsers);
+        assertEquals(exported, sink.lines);
+        assertTrue(sink.samples >= 4, STR."Poucas amostras de heap: \{sink.samples} (\{sink.bytes} bytes escritos)");
+        long growth = sink.maxUsed - sink.firstUsed;
+        assertTrue(growth < sink.bytes / 4,
+                STR."Heap cresceu \{growth} bytes durante uma exportação de \{sink.bytes} bytes");
+    }
+
+    // Descarta os bytes, conta as linhas e mede o heap ocupado a cada SAMPLE_EVERY_BYTES escritos
+    private static class HeapSamplingOutputStream extends OutputStream {
+
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private long bytes;
+        private long lines;
+        private long nextSample;
+        private int samples;
+        private long firstUsed;
+        private long maxUsed;
+
+        @Override
+        public void write(int b) {
+            count(b);
+            bytes++;
+            sampleIfDue();
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                count(buffer[i]);
+            }
+            bytes += length;
+            sampleIfDue();
+        }
+
+        private void count(int b) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        private void sampleIfDue() {
+            if (bytes < nextSample) {
+                return;
+            }
+            nextSample = bytes + SAMPLE_EVERY_BYTES;
+            System.gc();
+            long used = memory.getHeapMemoryUsage().getUsed();
+            if (samples++ == 0) {
+                firstUsed = used;
+            }
+            maxUsed = Math.max(maxUsed, used);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package br.com.topone.elevenapi.service.usuario;
+
+import br.com.topone.elevenapi.StatementCounter;
+import br.com.topone.elevenapi.records.AddressRecord;
+import br.com.topone.elevenapi.records.UserWithProfileRecord;
+import br.com.topone.elevenapi.repositories.UserRepository;
+import br.com.topone.elevenapi.service.pagination.CountMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = StatementCounter.PROPERTY)
+class UserWithProfileServiceTests {
+
+    @Autowired
+    private UserWithProfileService service;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // usuários + perfis, count e endereços: sempre três comandos, seja qual for o tamanho da página
+    @ParameterizedTest
+    @ValueSource(ints = {2, 5, 10})
+    void pagedReadShouldUseFixedNumberOfStatements(int size) {
+        StatementCounter.reset();
+        var page = service.getAllUsersWithProfiles(PageRequest.of(0, size, Sort.by("id")));
+
+        assertEquals(size, page.getNumberOfElements());
+        assertEquals(3, StatementCounter.count());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 5, 10})
+    void cursorReadShouldUseFixedNumberOfStatements(int size) {
+        StatementCounter.reset();
+        var page = service.getUsersWithProfilesByCursor(null, "name", size, CountMode.NONE);
+
+        assertEquals(size, page.content().size());
+        assertEquals(2, StatementCounter.count());
+    }
+
+    @Test
+    void projectionShouldMatchEntityMapping() {
+        List<UserWithProfileRecord> expected = transactionTemplate.execute(status ->
+                userRepository.findAll(Sort.by("id")).stream().map(UserWithProfileRecord::new).toList());
+        List<UserWithProfileRecord> actual =
+                service.getAllUsersWithProfiles(PageRequest.of(0, 100, Sort.by("id"))).getContent();
+
+        assertEquals(normalize(expected), normalize(actual));
+    }
+
+    // a ordem dos endereços na entidade (Set) não é definida
+    private static List<Object> normalize(List<UserWithProfileRecord> records) {
+        return records.stream()
+                .map(r -> List.of(r.id(), r.name(), r.email(), r.active(), String.valueOf(r.userProfileId()),
+                        String.valueOf(r.cpf()), String.valueOf(r.phone()),
+                        r.addresses() == null ? "null" : new HashSet<AddressRecord>(r.addresses())))
+                .map(Object.class::cast)
+                .toList();
+    }
+}
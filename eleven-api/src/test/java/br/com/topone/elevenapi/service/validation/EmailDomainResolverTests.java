@@ -0,0 +1,118 @@
+package br.com.topone.elevenapi.service.validation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.naming.CommunicationException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmailDomainResolverTests {
+
+    private static final Set<String> EXISTING = Set.of("empresa.com.br", "lenta.com");
+
+    private final AtomicInteger lookups = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile boolean blockLookups;
+    private volatile boolean failLookups;
+
+    // Resolver local: sem rede, conta as consultas e pode segurá-las até o teste liberar
+    private final MxLookup stub = domain -> {
+        lookups.incrementAndGet();
+        if (blockLookups) {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (failLookups) {
+            throw new CommunicationException("DNS indisponível");
+        }
+        return EXISTING.contains(domain);
+    };
+
+    private EmailDomainResolver resolver = newResolver(500);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        resolver.shutdown();
+    }
+
+    @Test
+    void allowlistedDomainShouldNotQueryDns() {
+        assertTrue(resolver.isValidDomain("Gmail.com"));
+        assertEquals(0, lookups.get());
+    }
+
+    @Test
+    void verdictsShouldBeCachedForValidAndInvalidDomains() {
+        assertTrue(resolver.isValidDomain("empresa.com.br"));
+        assertTrue(resolver.isValidDomain("EMPRESA.com.br"));
+        assertFalse(resolver.isValidDomain("naoexiste.xyz"));
+        assertFalse(resolver.isValidDomain("naoexiste.xyz"));
+
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    void concurrentValidationsShouldShareOneLookup() throws Exception {
+        resolver.shutdown();
+        resolver = newResolver(5000);
+        blockLookups = true;
+
+        List<Future<Boolean>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            for (int i = 0; i < 16; i++) {
+                results.add(executor.submit(() -> resolver.isValidDomain("lenta.com")));
+            }
+            while (resolver.stats().coalesced() < 15) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+        }
+
+        for (Future<Boolean> result : results) {
+            assertTrue(result.get());
+        }
+        assertEquals(1, lookups.get());
+    }
+
+    @Test
+    void lookupPastDeadlineShouldFailOpenWithoutCaching() {
+        resolver.shutdown();
+        resolver = newResolver(50);
+        blockLookups = true;
+
+        assertTrue(resolver.isValidDomain("naoexiste.xyz"));
+        assertEquals(1, resolver.stats().timeouts());
+        assertEquals(0, resolver.stats().cachedDomains());
+    }
+
+    @Test
+    void temporaryDnsFailureShouldFailOpenWithoutCaching() {
+        failLookups = true;
+
+        assertTrue(resolver.isValidDomain("naoexiste.xyz"));
+        assertTrue(resolver.isValidDomain("naoexiste.xyz"));
+        assertEquals(2, lookups.get());
+    }
+
+    private EmailDomainResolver newResolver(long timeoutMs) {
+        return new EmailDomainResolver(stub, "gmail.com,hotmail.com", timeoutMs, 3600, 60, 1000, 2,
+                new SimpleMeterRegistry());
+    }
+}